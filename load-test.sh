@@ -0,0 +1,93 @@
+#!/bin/bash
+
+# CameraFirst Fitness - serving mode load test
+#
+# Starts the app once per serving mode against the local docker-compose Postgres/Redis and drives the same
+# hint-only retrieval with `hey` (https://github.com/rakyll/hey):
+#   platform  Tomcat on its platform thread pool
+#   virtual   Tomcat on virtual threads
+#   reactive  Reactor Netty on the reactive port, JPA work on the bounded blocking scheduler
+# Result and detection caches are switched off so every request really goes to the database. Per-client
+# rate limiting is off (all load comes from one address), and so is the concurrency limiter, so requests
+# queue rather than being shed (set LIMITER=true to see how it degrades instead).
+#
+# Usage: ./load-test.sh [concurrency] [duration]
+#   CONCURRENCY  default 400 (well above Tomcat's 200 platform threads)
+#   DURATION     default 30s
+
+set -e
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-30s}
+PORT=${LOAD_TEST_PORT:-8089}
+REACTIVE_PORT=${LOAD_TEST_REACTIVE_PORT:-8090}
+QUERY="hint=dumbbells&hint=beginner&hint=20%20min"
+RESULTS_DIR=${RESULTS_DIR:-build/load-test}
+LIMITER=${LIMITER:-false}
+
+command -v hey >/dev/null 2>&1 || { echo "❌ hey is required: go install github.com/rakyll/hey@latest"; exit 1; }
+
+echo "🏗️  Building application jar..."
+./gradlew bootJar -q
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+mkdir -p "$RESULTS_DIR"
+
+echo "🐳 Starting PostgreSQL & Redis..."
+docker compose up -d postgres redis
+sleep 3
+
+run_mode() {
+    local mode=$1
+    local virtual=$2
+    local reactive=$3
+    local target_port=$4
+    local url="http://localhost:${target_port}/api/v1/workouts?${QUERY}"
+    local log="$RESULTS_DIR/app-${mode}.log"
+
+    echo ""
+    echo "▶️  Mode: ${mode} (virtual threads=${virtual}, reactive=${reactive})"
+    APP_VIRTUAL_THREADS=${virtual} java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port="$PORT" \
+        --app.reactive.enabled="$reactive" \
+        --app.reactive.port="$REACTIVE_PORT" \
+        --app.seed.enabled=true \
+        --app.retrieval.cache.detection-max-entries=0 \
+        --app.retrieval.cache.result-max-entries=0 \
+        --app.retrieval.photo-dedupe.enabled=false \
+        --app.concurrency-limit.enabled="$LIMITER" \
+        --app.rate-limit.enabled=false \
+        --logging.level.org.springframework.security=WARN \
+        > "$log" 2>&1 &
+    local pid=$!
+
+    for _ in $(seq 1 60); do
+        if curl -sf "http://localhost:${PORT}/actuator/health" >/dev/null; then
+            break
+        fi
+        sleep 1
+    done
+
+    # warm-up, then the measured run
+    hey -z 10s -c 50 "$url" >/dev/null
+    hey -z "$DURATION" -c "$CONCURRENCY" "$url" > "$RESULTS_DIR/hey-${mode}.txt"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    local rps p99 pinned
+    rps=$(grep "Requests/sec" "$RESULTS_DIR/hey-${mode}.txt" | awk '{print $2}')
+    p99=$(grep "99% in" "$RESULTS_DIR/hey-${mode}.txt" | awk '{print $3}')
+    pinned=$(grep -c "reason:MONITOR\|<== monitors" "$log" || true)
+    printf "%-10s %12s %12s %10s\n" "$mode" "$rps" "${p99}s" "$pinned" >> "$RESULTS_DIR/summary.txt"
+}
+
+printf "%-10s %12s %12s %10s\n" "mode" "req/s" "p99" "pinned" > "$RESULTS_DIR/summary.txt"
+run_mode platform false false "$PORT"
+run_mode virtual true false "$PORT"
+run_mode reactive false true "$REACTIVE_PORT"
+
+echo ""
+echo "📊 ${CONCURRENCY} concurrent clients for ${DURATION}"
+cat "$RESULTS_DIR/summary.txt"
+echo ""
+echo "Full hey reports and application logs are in ${RESULTS_DIR}/"
@@ -0,0 +1,8 @@
+package com.fitnessapp.backend.catalog;
+
+/**
+ * Published whenever this instance learns of a new catalog version, whether it bumped the version itself or
+ * picked up another instance's bump from Redis.
+ */
+public record CatalogChangedEvent(long version) {
+}
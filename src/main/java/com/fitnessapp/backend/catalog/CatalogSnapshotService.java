@@ -0,0 +1,102 @@
+package com.fitnessapp.backend.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.retrieval.detect.HintDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the catalog snapshot bundle new installs bootstrap from (see {@link CatalogSnapshotWriter} for the
+ * format). The encoded bundle is kept in memory for the catalog version it was built at; a catalog change
+ * drops it, and the next download rebuilds it once while concurrent downloads wait for that build.
+ *
+ * <p>The ETag is a digest of the bytes rather than the catalog version, because two instances at the same
+ * version can embed different sync tokens; a resumed range download must never mix their bytes.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    private final CatalogSyncService catalogSyncService;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogSnapshotWriter writer;
+    private final Timer buildTimer;
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public CatalogSnapshotService(CatalogSyncService catalogSyncService,
+                                  CatalogVersionService catalogVersionService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.catalogSyncService = catalogSyncService;
+        this.catalogVersionService = catalogVersionService;
+        this.writer = new CatalogSnapshotWriter(objectMapper);
+        this.buildTimer = Timer.builder("catalog.snapshot.build").register(meterRegistry);
+        meterRegistry.gauge("catalog.snapshot.bytes", this, service -> {
+            Snapshot current = service.snapshot;
+            return current == null ? 0 : current.bytes().length;
+        });
+    }
+
+    public record Snapshot(long catalogVersion, byte[] bytes, String etag) {
+    }
+
+    public Snapshot current() {
+        long version = catalogVersionService.current();
+        Snapshot cached = snapshot;
+        if (cached != null && cached.catalogVersion() >= version) {
+            return cached;
+        }
+        buildLock.lock();
+        try {
+            cached = snapshot;
+            if (cached != null && cached.catalogVersion() >= version) {
+                return cached;
+            }
+            Snapshot built = buildTimer.record(() -> build(version));
+            snapshot = built;
+            log.info("Built catalog snapshot for version {} ({} bytes)", version, built.bytes().length);
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.catalogVersion() < event.version()) {
+            snapshot = null;
+        }
+    }
+
+    private Snapshot build(long version) {
+        CatalogSyncService.Contents contents = catalogSyncService.contents();
+        byte[] bytes = writer.write(version,
+                System.currentTimeMillis(),
+                contents.syncToken(),
+                contents.workouts(),
+                contents.recipes(),
+                new TreeMap<>(HintDetector.equipmentAliases()),
+                new TreeMap<>(HintDetector.ingredientAliases()));
+        return new Snapshot(version, bytes, "\"" + version + "-" + digest(bytes) + "\"");
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
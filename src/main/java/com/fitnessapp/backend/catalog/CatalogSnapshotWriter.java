@@ -0,0 +1,228 @@
+package com.fitnessapp.backend.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.RecipeStep;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the catalog snapshot bundle. The bundle is a single gzip stream; inside it every integer is an
+ * unsigned LEB128 varint, and every string field is an index into one string table, so repeated values
+ * (levels, equipment tags, body parts, step phrasing) are stored once. Index 0 means null.
+ *
+ * <pre>
+ * bundle     := "CFSB" formatVersion catalogVersion generatedAtMillis string(syncToken)
+ *               strings workouts recipes aliases(equipment) aliases(ingredients)
+ * strings    := count (length utf8Bytes)*            -- entry i is referenced as i + 1
+ * workouts   := count (youtubeId title optInt(durationMinutes) level refs(equipment) refs(bodyParts)
+ *                      thumbnailUrl optInt(viewCount))*
+ * recipes    := count (uuid16 title optInt(timeMinutes) difficulty imageUrl
+ *                      count (optInt(step) instruction)* count (key value)*)*
+ * aliases    := count (alias canonical)*
+ * optInt     := 0 for null, otherwise value + 1
+ * value      := tag payload   -- 1 integer (zigzag), 2 double (8 bytes, big endian), 3 boolean (1 byte),
+ *                                4 string ref, 5 JSON text ref
+ * </pre>
+ *
+ * {@code youtubeUrl} is not stored; clients derive it from the YouTube id.
+ */
+final class CatalogSnapshotWriter {
+
+    static final byte[] MAGIC = {'C', 'F', 'S', 'B'};
+    static final int FORMAT_VERSION = 1;
+
+    static final int VALUE_INTEGER = 1;
+    static final int VALUE_DOUBLE = 2;
+    static final int VALUE_BOOLEAN = 3;
+    static final int VALUE_STRING = 4;
+    static final int VALUE_JSON = 5;
+
+    private final ObjectMapper objectMapper;
+
+    CatalogSnapshotWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    byte[] write(long catalogVersion,
+                 long generatedAtMillis,
+                 String syncToken,
+                 List<WorkoutCard> workouts,
+                 List<RecipeCard> recipes,
+                 Map<String, String> equipmentAliases,
+                 Map<String, String> ingredientAliases) {
+        // records are encoded first so the string table is complete before it is written ahead of them
+        StringTable strings = new StringTable();
+        Output records = new Output();
+        records.varint(workouts.size());
+        for (WorkoutCard card : workouts) {
+            writeWorkout(records, strings, card);
+        }
+        records.varint(recipes.size());
+        for (RecipeCard card : recipes) {
+            writeRecipe(records, strings, card);
+        }
+        writeAliases(records, strings, equipmentAliases);
+        writeAliases(records, strings, ingredientAliases);
+
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream(records.size() / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bundle)) {
+            Output header = new Output();
+            header.raw(MAGIC);
+            header.varint(FORMAT_VERSION);
+            header.varint(catalogVersion);
+            header.varint(generatedAtMillis);
+            header.utf8(syncToken);
+            strings.writeTo(header);
+            header.writeTo(gzip);
+            records.writeTo(gzip);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bundle.toByteArray();
+    }
+
+    private static void writeWorkout(Output out, StringTable strings, WorkoutCard card) {
+        out.varint(strings.ref(card.getYoutubeId()));
+        out.varint(strings.ref(card.getTitle()));
+        out.optional(card.getDurationMinutes());
+        out.varint(strings.ref(card.getLevel()));
+        writeRefs(out, strings, card.getEquipment());
+        writeRefs(out, strings, card.getBodyParts());
+        out.varint(strings.ref(card.getThumbnailUrl()));
+        out.optional(card.getViewCount());
+    }
+
+    private void writeRecipe(Output out, StringTable strings, RecipeCard card) {
+        UUID id = UUID.fromString(card.getId());
+        out.fixed64(id.getMostSignificantBits());
+        out.fixed64(id.getLeastSignificantBits());
+        out.varint(strings.ref(card.getTitle()));
+        out.optional(card.getTimeMinutes());
+        out.varint(strings.ref(card.getDifficulty()));
+        out.varint(strings.ref(card.getImageUrl()));
+
+        List<RecipeStep> steps = card.getSteps() == null ? List.of() : card.getSteps();
+        out.varint(steps.size());
+        for (RecipeStep step : steps) {
+            out.optional(step.getStep());
+            out.varint(strings.ref(step.getInstruction()));
+        }
+
+        Map<String, Object> nutrition = card.getNutrition() == null ? Map.of() : card.getNutrition();
+        out.varint(nutrition.size());
+        for (Map.Entry<String, Object> entry : nutrition.entrySet()) {
+            out.varint(strings.ref(entry.getKey()));
+            writeValue(out, strings, entry.getValue());
+        }
+    }
+
+    private void writeValue(Output out, StringTable strings, Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.varint(VALUE_INTEGER);
+            long number = ((Number) value).longValue();
+            out.varint((number << 1) ^ (number >> 63));
+        } else if (value instanceof Number number) {
+            out.varint(VALUE_DOUBLE);
+            out.fixed64(Double.doubleToLongBits(number.doubleValue()));
+        } else if (value instanceof Boolean flag) {
+            out.varint(VALUE_BOOLEAN);
+            out.raw(new byte[]{(byte) (flag ? 1 : 0)});
+        } else if (value == null || value instanceof String) {
+            out.varint(VALUE_STRING);
+            out.varint(strings.ref((String) value));
+        } else {
+            out.varint(VALUE_JSON);
+            out.varint(strings.ref(json(value)));
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot encode nutrition value " + value, ex);
+        }
+    }
+
+    private static void writeRefs(Output out, StringTable strings, List<String> values) {
+        List<String> list = values == null ? List.of() : values;
+        out.varint(list.size());
+        for (String value : list) {
+            out.varint(strings.ref(value));
+        }
+    }
+
+    private static void writeAliases(Output out, StringTable strings, Map<String, String> aliases) {
+        out.varint(aliases.size());
+        for (Map.Entry<String, String> entry : aliases.entrySet()) {
+            out.varint(strings.ref(entry.getKey()));
+            out.varint(strings.ref(entry.getValue()));
+        }
+    }
+
+    private static final class StringTable {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            return indexes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size();
+            });
+        }
+
+        void writeTo(Output out) {
+            out.varint(values.size());
+            for (String value : values) {
+                out.utf8(value);
+            }
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        void varint(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            write((int) remaining);
+        }
+
+        void optional(Number value) {
+            varint(value == null ? 0L : value.longValue() + 1L);
+        }
+
+        void fixed64(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift) & 0xFF);
+            }
+        }
+
+        void utf8(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            raw(bytes);
+        }
+
+        void raw(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
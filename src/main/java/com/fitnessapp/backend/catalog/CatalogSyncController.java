@@ -0,0 +1,67 @@
+package com.fitnessapp.backend.catalog;
+
+import com.fitnessapp.backend.catalog.dto.CatalogDelta;
+import com.fitnessapp.backend.retrieval.ContentController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Delta sync for clients that keep a local copy of the catalog. Start without a token to receive the whole
+ * catalog page by page, then pass the last {@code nextToken} to receive only what changed since. New installs
+ * can instead download the snapshot bundle once and continue from the sync token embedded in it.
+ */
+@RestController
+@RequestMapping(path = "/api/v1/catalog", produces = {
+        MediaType.APPLICATION_JSON_VALUE, ContentController.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+@RequiredArgsConstructor
+public class CatalogSyncController {
+
+    static final String SNAPSHOT_MEDIA_TYPE = "application/vnd.camerafirst.catalog-snapshot";
+
+    private final CatalogSyncService catalogSyncService;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @GetMapping("/changes")
+    public CatalogDelta getChanges(
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return catalogSyncService.changesSince(since, limit);
+    }
+
+    /**
+     * The gzip-compressed snapshot bundle. Range requests are answered from the same bytes, so an interrupted
+     * download can resume; an {@code If-Range} naming an older bundle gets the whole new one instead.
+     */
+    @GetMapping(path = "/snapshot", produces = SNAPSHOT_MEDIA_TYPE)
+    public ResponseEntity<?> getSnapshot(
+            @RequestHeader(name = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest webRequest) {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.current();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (ifRange != null && !ifRange.equals(snapshot.etag())) {
+            // a byte[] body is never sliced, so the Range header is ignored and the full bundle is sent
+            return response.body(snapshot.bytes());
+        }
+        return response.body(new ByteArrayResource(snapshot.bytes()));
+    }
+}
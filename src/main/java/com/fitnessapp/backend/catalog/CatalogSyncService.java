@@ -0,0 +1,176 @@
+package com.fitnessapp.backend.catalog;
+
+import com.fitnessapp.backend.catalog.dto.CatalogDelta;
+import com.fitnessapp.backend.domain.Recipe;
+import com.fitnessapp.backend.domain.WorkoutVideo;
+import com.fitnessapp.backend.repository.RecipeRepository;
+import com.fitnessapp.backend.repository.WorkoutVideoRepository;
+import com.fitnessapp.backend.retrieval.RecipeRetrievalService;
+import com.fitnessapp.backend.retrieval.WorkoutRetrievalService;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Incremental catalog sync for offline-capable clients, backed by the row versions and tombstones of
+ * migration V4. A page is read in (change_xid, id) order across workouts, recipes and tombstones, and only
+ * below the current transaction horizon (the oldest transaction still running), so a slow writer that
+ * commits after a page was served still shows up in a later page instead of being skipped.
+ */
+@Service
+public class CatalogSyncService {
+
+    static final int DEFAULT_PAGE_SIZE = 200;
+    static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final String HORIZON_SQL = "select pg_snapshot_xmin(pg_current_snapshot())::text";
+
+    private static final String CHANGES_SQL = """
+            select c.kind, c.item_key, c.row_id, c.change_xid::text as change_xid
+            from (
+                select 'workout' as kind, w.youtube_id as item_key, w.id as row_id, w.change_xid from workout_video w
+                union all
+                select 'recipe', r.id::text, r.id, r.change_xid from recipe r
+                union all
+                select 'removed_' || t.item_type, t.item_key, t.row_id, t.change_xid from catalog_tombstone t
+            ) c
+            where (c.change_xid, c.row_id) > (cast(:xid as xid8), cast(:rowId as uuid))
+              and c.change_xid < cast(:horizon as xid8)
+            order by c.change_xid, c.row_id
+            limit :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WorkoutVideoRepository workoutVideoRepository;
+    private final RecipeRepository recipeRepository;
+    private final WorkoutRetrievalService workoutRetrievalService;
+    private final RecipeRetrievalService recipeRetrievalService;
+
+    public CatalogSyncService(DataSource dataSource,
+                              WorkoutVideoRepository workoutVideoRepository,
+                              RecipeRepository recipeRepository,
+                              WorkoutRetrievalService workoutRetrievalService,
+                              RecipeRetrievalService recipeRetrievalService) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.workoutVideoRepository = workoutVideoRepository;
+        this.recipeRepository = recipeRepository;
+        this.workoutRetrievalService = workoutRetrievalService;
+        this.recipeRetrievalService = recipeRetrievalService;
+    }
+
+    @Transactional(readOnly = true)
+    public CatalogDelta changesSince(String token, Integer pageSize) {
+        SyncToken since = SyncToken.parse(token);
+        int limit = pageSize == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        // read the horizon before the page: every transaction below it has finished, so the page query (with
+        // a later snapshot) sees all of their rows
+        long horizon = Long.parseLong(jdbcTemplate.getJdbcTemplate().queryForObject(HORIZON_SQL, String.class));
+        List<Change> changes = jdbcTemplate.query(CHANGES_SQL,
+                new MapSqlParameterSource()
+                        .addValue("xid", Long.toString(since.changeXid()))
+                        .addValue("rowId", since.rowId().toString())
+                        .addValue("horizon", Long.toString(horizon))
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new Change(
+                        rs.getString("kind"),
+                        rs.getString("item_key"),
+                        rs.getObject("row_id", UUID.class),
+                        Long.parseLong(rs.getString("change_xid"))));
+
+        boolean hasMore = changes.size() == limit;
+        SyncToken next;
+        if (hasMore) {
+            Change last = changes.get(changes.size() - 1);
+            next = new SyncToken(last.changeXid(), last.rowId());
+        } else {
+            next = horizon > since.changeXid() ? SyncToken.at(horizon) : since;
+        }
+
+        return CatalogDelta.builder()
+                .workouts(workouts(changes))
+                .recipes(recipes(changes))
+                .removedWorkouts(keys(changes, "removed_workout"))
+                .removedRecipes(keys(changes, "removed_recipe"))
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * The whole serving catalog together with the sync token a client holding it continues from. The horizon
+     * is read before the rows, so anything committed in between is included here and delivered once more by
+     * the next delta; upserts are idempotent on the client, so that overlap is harmless.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Contents contents() {
+        long horizon = Long.parseLong(jdbcTemplate.getJdbcTemplate().queryForObject(HORIZON_SQL, String.class));
+        List<WorkoutCard> workouts = workoutVideoRepository.findAll(Sort.by("id")).stream()
+                .map(workoutRetrievalService::toCard)
+                .toList();
+        List<RecipeCard> recipes = recipeRepository.findAll(Sort.by("id")).stream()
+                .map(recipeRetrievalService::toCard)
+                .toList();
+        return new Contents(SyncToken.at(horizon).encode(), workouts, recipes);
+    }
+
+    public record Contents(String syncToken, List<WorkoutCard> workouts, List<RecipeCard> recipes) {
+    }
+
+    private List<WorkoutCard> workouts(List<Change> changes) {
+        List<UUID> ids = ids(changes, "workout");
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, WorkoutVideo> byId = workoutVideoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(WorkoutVideo::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(workoutRetrievalService::toCard)
+                .toList();
+    }
+
+    private List<RecipeCard> recipes(List<Change> changes) {
+        List<UUID> ids = ids(changes, "recipe");
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Recipe> byId = recipeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(recipeRetrievalService::toCard)
+                .toList();
+    }
+
+    private static List<UUID> ids(List<Change> changes, String kind) {
+        return changes.stream()
+                .filter(change -> kind.equals(change.kind()))
+                .map(Change::rowId)
+                .toList();
+    }
+
+    private static List<String> keys(List<Change> changes, String kind) {
+        return changes.stream()
+                .filter(change -> kind.equals(change.kind()))
+                .map(Change::itemKey)
+                .toList();
+    }
+
+    private record Change(String kind, String itemKey, UUID rowId, long changeXid) {
+    }
+}
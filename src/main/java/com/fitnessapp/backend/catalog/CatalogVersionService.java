@@ -0,0 +1,184 @@
+package com.fitnessapp.backend.catalog;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Global version of the workout and recipe catalogs, shared across instances through a Redis counter. Every
+ * write path calls {@link #markChanged()}; readers use {@link #current()} to derive validators such as ETags.
+ *
+ * <p>Reads are served from a local copy that is re-synchronised with Redis at most once per refresh interval,
+ * so checking the version costs no round trip on the request path. A background task also re-reads it every
+ * interval, so an instance that never derives a validator (one serving only the photo endpoints) still
+ * publishes {@link CatalogChangedEvent} and clears its caches within one interval of another instance's bump.
+ * If Redis is unavailable the version is kept locally, which is still correct for a single instance.
+ */
+@Service
+@Slf4j
+public class CatalogVersionService implements SmartLifecycle {
+
+    public static final String VERSION_KEY = "catalog:version";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long refreshNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile long refreshedAtNanos;
+    private volatile boolean synced;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public CatalogVersionService(StringRedisTemplate redisTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 RetrievalProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.refreshNanos = properties.getHttpCache().getVersionRefresh().toNanos();
+    }
+
+    public long current() {
+        if (!synced || System.nanoTime() - refreshedAtNanos > refreshNanos) {
+            refresh();
+        }
+        return version.get();
+    }
+
+    /**
+     * Adopts a version read from Redis by a caller that cannot block (the reactive server), and returns the
+     * resulting local version. Never moves the version backwards.
+     */
+    public long observe(long stored) {
+        update(stored);
+        synced = true;
+        refreshedAtNanos = System.nanoTime();
+        return version.get();
+    }
+
+    /**
+     * The local copy without any refresh; used where a Redis round trip is not allowed.
+     */
+    public long known() {
+        return version.get();
+    }
+
+    /**
+     * Records that catalog content changed. Inside a transaction the bump is deferred until commit (and
+     * happens once per transaction), so no reader can pair the new version with uncommitted data.
+     */
+    public void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersionService.this);
+                if (status == STATUS_COMMITTED) {
+                    bump();
+                }
+            }
+        });
+    }
+
+    private void bump() {
+        long next = version.get() + 1;
+        try {
+            Long incremented = redisTemplate.opsForValue().increment(VERSION_KEY);
+            if (incremented != null && incremented >= next) {
+                next = incremented;
+            } else {
+                // the counter was lost (for example a Redis flush); never hand out a version twice
+                redisTemplate.opsForValue().set(VERSION_KEY, Long.toString(next));
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to bump catalog version in Redis, keeping it locally: {}", ex.getMessage());
+        }
+        update(next);
+    }
+
+    private void refresh() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            String stored = redisTemplate.opsForValue().get(VERSION_KEY);
+            if (stored != null) {
+                update(Long.parseLong(stored));
+            }
+        } catch (Exception ex) {
+            log.debug("Failed to read catalog version from Redis: {}", ex.getMessage());
+        } finally {
+            synced = true;
+            refreshedAtNanos = System.nanoTime();
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-version-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(10), refreshNanos);
+        executor.scheduleWithFixedDelay(this::refreshQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        scheduler = executor;
+        running = true;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog version refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void update(long next) {
+        // versions only move forward, so a slow refresh cannot undo a concurrent bump
+        long previous = version.getAndAccumulate(next, Math::max);
+        if (next > previous) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(next));
+        }
+    }
+}
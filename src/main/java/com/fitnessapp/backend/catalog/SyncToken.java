@@ -0,0 +1,47 @@
+package com.fitnessapp.backend.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Position in the catalog change stream: the last (transaction id, row id) a client has seen. Opaque to
+ * clients; encoded as URL-safe base64 so it can travel as a query parameter.
+ */
+record SyncToken(long changeXid, UUID rowId) {
+
+    private static final String VERSION = "v1";
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    static final SyncToken START = new SyncToken(0L, MIN_ID);
+
+    /**
+     * Everything below {@code horizon} has been delivered; the next page starts with that transaction.
+     */
+    static SyncToken at(long horizon) {
+        return new SyncToken(horizon, MIN_ID);
+    }
+
+    static SyncToken parse(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] parts = decoded.split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unknown token format");
+            }
+            return new SyncToken(Long.parseLong(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+        }
+    }
+
+    String encode() {
+        String raw = VERSION + ':' + changeXid + ':' + rowId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,33 @@
+package com.fitnessapp.backend.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * One page of catalog changes. Items of one kind are grouped together so the compressed page stays small;
+ * within a group they are in change order. Clients apply upserts and removals, store {@code nextToken}, and
+ * ask again while {@code hasMore} is set.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CatalogDelta {
+    List<WorkoutCard> workouts;
+    List<RecipeCard> recipes;
+    /**
+     * YouTube ids of removed workouts.
+     */
+    List<String> removedWorkouts;
+    /**
+     * Ids of removed recipes.
+     */
+    List<String> removedRecipes;
+    String nextToken;
+    boolean hasMore;
+}
@@ -0,0 +1,58 @@
+package com.fitnessapp.backend.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@ToString
+@Validated
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * When disabled every request is admitted, as before the limiter existed.
+     */
+    private boolean enabled = true;
+
+    @Min(1)
+    private int initialLimit = 50;
+
+    @Min(1)
+    private int minLimit = 8;
+
+    /**
+     * Upper bound for the adaptive limit; keep it near the database pool size times the number of queries a
+     * request runs, since that is where latency starts to climb.
+     */
+    @Min(1)
+    private int maxLimit = 400;
+
+    /**
+     * Share of the current limit that admin, debug and curation calls may occupy. Interactive {@code /api/v1}
+     * traffic can use the whole limit, so background work is always shed first.
+     */
+    @DecimalMin("0.05")
+    @DecimalMax("1.0")
+    private double backgroundShare = 0.25;
+
+    /**
+     * Weight of each new estimate when the limit is adjusted; lower values react more slowly but jitter less.
+     */
+    @DecimalMin("0.01")
+    @DecimalMax("1.0")
+    private double smoothing = 0.2;
+
+    /**
+     * Multiplicative decrease applied when a request fails with a 5xx or an exception.
+     */
+    @DecimalMin("0.5")
+    @DecimalMax("1.0")
+    private double backoffRatio = 0.9;
+}
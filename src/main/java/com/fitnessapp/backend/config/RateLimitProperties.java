@@ -0,0 +1,75 @@
+package com.fitnessapp.backend.config;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@ToString
+@Validated
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How often each instance reconciles its local buckets with the shared state in Redis. Between syncs a
+     * client spread over several instances can briefly exceed its tier by up to one interval's worth.
+     */
+    private Duration syncInterval = Duration.ofMillis(250);
+
+    /**
+     * Clients tracked in memory; the least recently seen are dropped first and start again with a full bucket.
+     */
+    @Min(1)
+    private int maxClients = 100_000;
+
+    /**
+     * Buckets untouched for this long are forgotten locally, and their Redis keys expire after the same time.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Tier for requests without an authenticated principal (keyed by remote address).
+     */
+    private String anonymousTier = "anonymous";
+
+    /**
+     * Tier for authenticated requests (keyed by principal name, which is the JWT subject for bearer tokens).
+     */
+    private String authenticatedTier = "authenticated";
+
+    private Map<String, Tier> tiers = new LinkedHashMap<>();
+
+    /**
+     * Explicit tier per client key ({@code user:<subject>} or {@code ip:<address>}), e.g. for partner apps.
+     */
+    private Map<String, String> clients = new HashMap<>();
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Tier {
+
+        /**
+         * Burst size: requests a client may make back to back after being idle.
+         */
+        @Min(1)
+        private int capacity = 30;
+
+        /**
+         * Sustained rate once the burst is used up.
+         */
+        @DecimalMin("0.01")
+        private double refillPerSecond = 5.0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.fitnessapp.backend.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@ToString
+@Validated
+@ConfigurationProperties(prefix = "app.reactive")
+public class ReactiveProperties {
+
+    /**
+     * Starts the Netty-based content server next to the servlet container.
+     */
+    private boolean enabled = false;
+
+    @Min(1)
+    @Max(65535)
+    private int port = 8081;
+
+    /**
+     * Threads for blocking JPA work. Keep it at the database pool size: more threads would only wait for a
+     * connection.
+     */
+    @Min(1)
+    private int blockingThreads = 20;
+
+    /**
+     * Requests that may wait for a blocking thread; beyond this the server answers 503 at once.
+     */
+    @Min(1)
+    private int blockingQueue = 1_000;
+}
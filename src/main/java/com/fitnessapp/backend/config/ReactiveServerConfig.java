@@ -0,0 +1,93 @@
+package com.fitnessapp.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.catalog.CatalogVersionService;
+import com.fitnessapp.backend.retrieval.ContentRetrievalCoordinator;
+import com.fitnessapp.backend.retrieval.ContentValidators;
+import com.fitnessapp.backend.retrieval.reactive.ReactiveContentHandler;
+import com.fitnessapp.backend.retrieval.reactive.ReactiveContentServer;
+import com.fitnessapp.backend.web.AdaptiveConcurrencyLimiter;
+import com.fitnessapp.backend.web.ClientRateLimiter;
+import com.fitnessapp.backend.web.ReactiveLimitFilters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Optional Netty serving mode for the hint-only content endpoints ({@code app.reactive.enabled}). The
+ * servlet container keeps serving everything, including the same endpoints, on the main port. The reactive
+ * routes go through the same concurrency and rate limiters as the servlet filters, switched by the same
+ * {@code enabled} flags.
+ */
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveServerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveBlockingScheduler(ReactiveProperties properties) {
+        return Schedulers.newBoundedElastic(properties.getBlockingThreads(), properties.getBlockingQueue(), "reactive-jpa");
+    }
+
+    @Bean
+    public ReactiveContentHandler reactiveContentHandler(ContentRetrievalCoordinator coordinator,
+                                                         ContentValidators contentValidators,
+                                                         CatalogVersionService catalogVersionService,
+                                                         ReactiveStringRedisTemplate redisTemplate,
+                                                         Scheduler reactiveBlockingScheduler) {
+        return new ReactiveContentHandler(coordinator, contentValidators, catalogVersionService, redisTemplate,
+                reactiveBlockingScheduler);
+    }
+
+    /**
+     * Encoders reuse the servlet side's mappers, so JSON, Smile and CBOR payloads are byte-for-byte the same on
+     * both ports; JSON stays the default for {@code Accept: *}{@code /*}. The concurrency limit is the outer
+     * filter, as on the servlet side, so a shed request never touches a rate limit bucket.
+     */
+    @Bean
+    public ReactiveContentServer reactiveContentServer(ReactiveContentHandler handler,
+                                                       ReactiveProperties properties,
+                                                       ObjectMapper objectMapper,
+                                                       MappingJackson2SmileHttpMessageConverter smileConverter,
+                                                       MappingJackson2CborHttpMessageConverter cborConverter,
+                                                       AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                                       ConcurrencyLimitProperties concurrencyLimitProperties,
+                                                       ClientRateLimiter rateLimiter,
+                                                       RateLimitProperties rateLimitProperties,
+                                                       ServerProperties serverProperties,
+                                                       MeterRegistry meterRegistry) {
+        RouterFunction<ServerResponse> routes = handler.routes();
+        if (rateLimitProperties.isEnabled()) {
+            ServerProperties.ForwardHeadersStrategy strategy = serverProperties.getForwardHeadersStrategy();
+            boolean forwardedHeaders = strategy != null && strategy != ServerProperties.ForwardHeadersStrategy.NONE;
+            routes = routes.filter(ReactiveLimitFilters.rateLimit(rateLimiter, forwardedHeaders));
+        }
+        if (concurrencyLimitProperties.isEnabled()) {
+            routes = routes.filter(ReactiveLimitFilters.concurrencyLimit(concurrencyLimiter, meterRegistry));
+        }
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileConverter.getObjectMapper()));
+                    codecs.customCodecs().register(new Jackson2CborEncoder(cborConverter.getObjectMapper()));
+                })
+                .build();
+        return new ReactiveContentServer(RouterFunctions.toHttpHandler(routes, strategies), properties);
+    }
+}
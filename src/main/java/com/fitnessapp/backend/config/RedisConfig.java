@@ -1,27 +1,32 @@
 package com.fitnessapp.backend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.youtube.VideoMetadataCache;
+import com.fitnessapp.backend.youtube.VideoMetadataRedisSerializer;
 import com.fitnessapp.backend.youtube.dto.VideoMetadata;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 @Configuration
 public class RedisConfig {
 
+    private static final long SUBSCRIPTION_RETRY_MS = 30_000L;
+
     @Bean
     public RedisTemplate<String, VideoMetadata> videoMetadataRedisTemplate(
-            RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+            RedisConnectionFactory connectionFactory, ObjectMapper objectMapper, YouTubeProperties properties) {
         RedisTemplate<String, VideoMetadata> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         StringRedisSerializer keySerializer = new StringRedisSerializer();
-        Jackson2JsonRedisSerializer<VideoMetadata> valueSerializer =
-                new Jackson2JsonRedisSerializer<>(VideoMetadata.class);
-        valueSerializer.setObjectMapper(objectMapper);
+        VideoMetadataRedisSerializer valueSerializer =
+                new VideoMetadataRedisSerializer(objectMapper, properties.getCacheCodec());
 
         template.setKeySerializer(keySerializer);
         template.setValueSerializer(valueSerializer);
@@ -30,4 +35,18 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Delivers cross-instance invalidations to the local video metadata cache. Subscription failures (Redis
+     * down at startup) are retried in the background; until then each instance relies on the local TTL.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory, VideoMetadataCache videoMetadataCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setRecoveryBackoff(new FixedBackOff(SUBSCRIPTION_RETRY_MS, FixedBackOff.UNLIMITED_ATTEMPTS));
+        container.addMessageListener(videoMetadataCache, new ChannelTopic(VideoMetadataCache.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
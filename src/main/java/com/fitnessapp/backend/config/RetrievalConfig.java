@@ -0,0 +1,47 @@
+package com.fitnessapp.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fitnessapp.backend.retrieval.RetrievalExecutors;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+@EnableConfigurationProperties(RetrievalProperties.class)
+public class RetrievalConfig {
+
+    @Bean(destroyMethod = "close")
+    public RetrievalExecutors retrievalExecutors() {
+        return new RetrievalExecutors();
+    }
+
+    /**
+     * Binary encodings for mobile clients, selected with {@code Accept: application/x-jackson-smile} or
+     * {@code Accept: application/cbor}. Both mappers start from Boot's builder so they share the JSON mapper's
+     * modules and settings; JSON stays the default because it is listed first in every {@code produces}.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                              RetrievalProperties properties) {
+        SmileFactory factory = SmileFactory.builder()
+                .configure(SmileGenerator.Feature.CHECK_SHARED_NAMES, true)
+                .configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, properties.getEncoding().isSmileSharedValues())
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                            RetrievalProperties properties) {
+        CBORFactory factory = CBORFactory.builder()
+                .configure(CBORGenerator.Feature.STRINGREF, properties.getEncoding().isCborStringRefs())
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(factory).build());
+    }
+}
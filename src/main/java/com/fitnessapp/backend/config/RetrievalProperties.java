@@ -0,0 +1,243 @@
+package com.fitnessapp.backend.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@ToString
+@Validated
+@ConfigurationProperties(prefix = "app.retrieval")
+public class RetrievalProperties {
+
+    private final QueryLog queryLog = new QueryLog();
+
+    private final PhotoDedupe photoDedupe = new PhotoDedupe();
+
+    private final Upload upload = new Upload();
+
+    private final Detection detection = new Detection();
+
+    private final Cache cache = new Cache();
+
+    private final Combined combined = new Combined();
+
+    private final Batch batch = new Batch();
+
+    private final HttpCache httpCache = new HttpCache();
+
+    private final Encoding encoding = new Encoding();
+
+    private final Coalesce coalesce = new Coalesce();
+
+    @Getter
+    @Setter
+    @ToString
+    public static class QueryLog {
+
+        /**
+         * When disabled, image queries are saved synchronously on the request thread.
+         */
+        private boolean enabled = true;
+
+        @Min(16)
+        private int queueCapacity = 10_000;
+
+        @Min(1)
+        private int batchSize = 200;
+
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        /**
+         * Upper bound a request thread may wait for queue space under {@link OverflowPolicy#WAIT_BRIEFLY}.
+         */
+        private Duration enqueueTimeout = Duration.ofMillis(2);
+
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class PhotoDedupe {
+
+        private boolean enabled = true;
+
+        @Min(1)
+        private int maxEntries = 2048;
+
+        /**
+         * Largest Hamming distance between two 64-bit perceptual hashes that still counts as the same photo.
+         */
+        @Min(0)
+        @Max(7)
+        private int maxDistance = 5;
+
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Upload {
+
+        /**
+         * Largest accepted photo. Streaming uploads are rejected as soon as the body grows past this.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(12);
+
+        /**
+         * Uploads are kept on the heap up to this size and spilled to a temp file beyond it.
+         */
+        private DataSize memoryThreshold = DataSize.ofKilobytes(256);
+
+        /**
+         * Leading bytes retained for header sniffing and EXIF thumbnail hashing.
+         */
+        private DataSize headerSize = DataSize.ofKilobytes(64);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Detection {
+
+        /**
+         * Time the whole detector pipeline may take before unfinished detectors are cancelled.
+         */
+        private Duration deadline = Duration.ofMillis(150);
+
+        /**
+         * Detections below this confidence are discarded before merging.
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double minConfidence = 0.15D;
+
+        /**
+         * Optional tighter per-detector limits, keyed by detector name (for example {@code colour-histogram: 60ms}).
+         */
+        private Map<String, Duration> budgets = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Cache {
+
+        /**
+         * Distinct hint lists whose hint-derived detection is kept in memory.
+         */
+        @Min(0)
+        private int detectionMaxEntries = 10_000;
+
+        private Duration detectionTtl = Duration.ofHours(1);
+
+        /**
+         * Resolved detection contexts whose ranked cards are kept in memory.
+         */
+        @Min(0)
+        private int resultMaxEntries = 2_000;
+
+        /**
+         * Cached cards are dropped whenever the catalog version changes; the TTL only bounds staleness if that
+         * signal is missed.
+         */
+        private Duration resultTtl = Duration.ofMinutes(2);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Combined {
+
+        /**
+         * How long the combined endpoint waits for each catalog branch; a branch that misses it is reported
+         * as unavailable while the other branch is still returned.
+         */
+        private Duration branchTimeout = Duration.ofMillis(1500);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Batch {
+
+        /**
+         * Largest number of items accepted by one batch request.
+         */
+        @Min(1)
+        private int maxItems = 50;
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class HttpCache {
+
+        /**
+         * {@code max-age} sent with cacheable content responses. Zero makes clients revalidate every time, which
+         * is cheap because a matching {@code If-None-Match} is answered before any retrieval work.
+         */
+        private Duration maxAge = Duration.ZERO;
+
+        /**
+         * How stale this instance's copy of the shared catalog version may get before it is re-read from Redis;
+         * a background task also re-reads it at this interval.
+         */
+        private Duration versionRefresh = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Encoding {
+
+        /**
+         * Smile: back-reference repeated short string values (equipment, levels, ingredient names) in addition
+         * to field names, which Smile always shares.
+         */
+        private boolean smileSharedValues = true;
+
+        /**
+         * CBOR: emit stringref tags so each field name and repeated value is sent once per response. Off by
+         * default because not every CBOR decoder understands stringrefs.
+         */
+        private boolean cborStringRefs = false;
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    public static class Coalesce {
+
+        /**
+         * Share one in-flight catalog query between concurrent requests that resolved to the same context.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a request waits for somebody else's in-flight query before giving up with 503.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+    }
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        WAIT_BRIEFLY
+    }
+}
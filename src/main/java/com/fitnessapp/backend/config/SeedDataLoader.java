@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fitnessapp.backend.catalog.CatalogVersionService;
 import com.fitnessapp.backend.domain.Ingredient;
 import com.fitnessapp.backend.domain.Recipe;
 import com.fitnessapp.backend.domain.RecipeIngredient;
@@ -49,6 +50,7 @@ public class SeedDataLoader implements ApplicationRunner {
     private final IngredientRepository ingredientRepository;
     private final ObjectMapper objectMapper;
     private final ResourceLoader resourceLoader;
+    private final CatalogVersionService catalogVersionService;
 
     @Value("${app.seed.enabled:true}")
     private boolean seedEnabled;
@@ -59,22 +61,24 @@ public class SeedDataLoader implements ApplicationRunner {
             log.info("Seed data loader disabled (app.seed.enabled=false)");
             return;
         }
-        seedWorkouts();
-        seedRecipes();
+        int created = seedWorkouts() + seedRecipes();
+        if (created > 0) {
+            catalogVersionService.markChanged();
+        }
     }
 
-    private void seedWorkouts() {
+    private int seedWorkouts() {
         long existing = workoutVideoRepository.count();
         log.info("📹 Current workout count in database: {}", existing);
         if (existing >= REQUIRED_WORKOUT_COUNT) {
             log.info("Workout library already satisfies target ({} entries).", existing);
-            return;
+            return 0;
         }
 
         Resource resource = resourceLoader.getResource("classpath:seed/workouts.json");
         if (!resource.exists()) {
             log.warn("Workout seed resource not found; skipping workout seeding.");
-            return;
+            return 0;
         }
 
         int created = 0;
@@ -83,7 +87,7 @@ public class SeedDataLoader implements ApplicationRunner {
             WorkoutSeedDocument document = objectMapper.readValue(inputStream, WorkoutSeedDocument.class);
             if (document == null || CollectionUtils.isEmpty(document.workouts())) {
                 log.warn("Workout seed resource is empty; skipping workout seeding.");
-                return;
+                return 0;
             }
             for (WorkoutSeed seed : document.workouts()) {
                 if (seed == null || !StringUtils.hasText(seed.youtubeId())) {
@@ -115,18 +119,19 @@ public class SeedDataLoader implements ApplicationRunner {
             }
         } catch (IOException ex) {
             log.error("Failed to seed workout videos", ex);
-            return;
+            return created;
         }
 
         log.info("Seeded {} workout videos ({} existing before seeding).", created, existing);
+        return created;
     }
 
-    private void seedRecipes() {
+    private int seedRecipes() {
         long existing = recipeRepository.countActual();
         log.info("🍽️  Current recipe count in database: {}", existing);
         if (existing >= REQUIRED_RECIPE_COUNT) {
             log.info("Recipe library already satisfies target ({} entries).", existing);
-            return;
+            return 0;
         }
 
         log.info("📥 Need to seed {} more recipes (current: {}, target: {})", 
@@ -135,7 +140,7 @@ public class SeedDataLoader implements ApplicationRunner {
         Resource resource = resourceLoader.getResource("classpath:seed/recipes.json");
         if (!resource.exists()) {
             log.warn("Recipe seed resource not found; skipping recipe seeding.");
-            return;
+            return 0;
         }
 
         int created = 0;
@@ -143,7 +148,7 @@ public class SeedDataLoader implements ApplicationRunner {
             RecipeSeedDocument document = objectMapper.readValue(inputStream, RecipeSeedDocument.class);
             if (document == null || CollectionUtils.isEmpty(document.recipes())) {
                 log.warn("Recipe seed resource is empty; skipping recipe seeding.");
-                return;
+                return 0;
             }
             List<RecipeSeed> seeds = augmentRecipeSeeds(document.recipes());
             for (RecipeSeed seed : seeds) {
@@ -164,10 +169,11 @@ public class SeedDataLoader implements ApplicationRunner {
             }
         } catch (IOException ex) {
             log.error("Failed to seed recipes", ex);
-            return;
+            return created;
         }
 
         log.info("Seeded {} recipes ({} existing before seeding).", created, existing);
+        return created;
     }
 
     private Recipe persistRecipe(RecipeSeed seed) {
@@ -0,0 +1,57 @@
+package com.fitnessapp.backend.config;
+
+import com.fitnessapp.backend.web.AdaptiveConcurrencyLimiter;
+import com.fitnessapp.backend.web.ClientRateLimiter;
+import com.fitnessapp.backend.web.ConcurrencyLimitFilter;
+import com.fitnessapp.backend.web.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@EnableConfigurationProperties({ConcurrencyLimitProperties.class, RateLimitProperties.class})
+public class WebConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties);
+    }
+
+    /**
+     * Registered ahead of Spring Security and MVC so a shed request costs no more than the 503 itself.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                                 ConcurrencyLimitProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties properties,
+                                               StringRedisTemplate redisTemplate,
+                                               MeterRegistry meterRegistry) {
+        return new ClientRateLimiter(properties, redisTemplate, meterRegistry);
+    }
+
+    /**
+     * Registered just after Spring Security so the authenticated principal, when there is one, is known.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ClientRateLimiter rateLimiter,
+                                                                   RateLimitProperties properties) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+}
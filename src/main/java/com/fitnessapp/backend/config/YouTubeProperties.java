@@ -1,5 +1,8 @@
 package com.fitnessapp.backend.config;
 
+import com.fitnessapp.backend.youtube.VideoMetadataRedisSerializer;
+import com.fitnessapp.backend.youtube.VideoMissReason;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.time.Duration;
@@ -18,10 +21,26 @@ public class YouTubeProperties {
 
     private String apiKey = "";
 
+    /**
+     * Hard TTL: how long metadata stays in Redis. Past it a lookup waits for the API.
+     */
     private Duration cacheTtl = Duration.ofHours(24);
 
     private final Quota quota = new Quota();
 
+    private final Batch batch = new Batch();
+
+    private final LocalCache localCache = new LocalCache();
+
+    private final Refresh refresh = new Refresh();
+
+    private final NegativeCache negativeCache = new NegativeCache();
+
+    private final CacheCodec cacheCodec = new CacheCodec();
+
+    /**
+     * Daily YouTube Data API budget, tracked across instances by the quota ledger.
+     */
     @Getter
     @Setter
     @ToString
@@ -32,5 +51,125 @@ public class YouTubeProperties {
         @Min(10)
         @Max(100)
         private int alertPercent = 80;
+
+        /**
+         * Units per Pacific-time day; 10,000 is the default allocation of a Google Cloud project.
+         */
+        @Min(1)
+        private long dailyLimit = 10_000L;
+
+        /**
+         * Share of the daily limit bulk work (imports, curation) may not touch, kept for interactive lookups.
+         */
+        @Min(0)
+        @Max(90)
+        private int interactiveReservePercent = 20;
+    }
+
+    /**
+     * Micro-batching of concurrent single-video lookups into one {@code videos.list} call.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Batch {
+
+        private boolean enabled = true;
+
+        /**
+         * {@code videos.list} accepts at most 50 ids per call.
+         */
+        @Min(1)
+        @Max(50)
+        private int maxSize = 50;
+
+        private Duration maxWait = Duration.ofMillis(5);
+    }
+
+    /**
+     * In-process cache in front of the Redis metadata keys.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class LocalCache {
+
+        private boolean enabled = true;
+
+        @Min(0)
+        private long maxEntries = 10_000;
+
+        /**
+         * Upper bound on staleness when an invalidation message from another instance is missed.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Stale-while-revalidate for cached metadata.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class Refresh {
+
+        private boolean enabled = true;
+
+        /**
+         * Age after which a cached entry is still served but refreshed in the background; keep it well below
+         * {@code cacheTtl}.
+         */
+        private Duration softTtl = Duration.ofHours(20);
+
+        /**
+         * XFetch aggressiveness; larger values refresh popular entries earlier before the soft TTL.
+         */
+        @DecimalMin("0.0")
+        private double beta = 1.0;
+    }
+
+    /**
+     * TTLs of the typed negative entries recorded for ids that resolved to no metadata. Invalid ids are
+     * recognised locally and not cached.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class NegativeCache {
+
+        private boolean enabled = true;
+
+        private Duration notFoundTtl = Duration.ofHours(12);
+
+        private Duration privateTtl = Duration.ofHours(6);
+
+        private Duration apiErrorTtl = Duration.ofMinutes(2);
+
+        public Duration ttl(VideoMissReason reason) {
+            return switch (reason) {
+                case NOT_FOUND, INVALID_ID -> notFoundTtl;
+                case PRIVATE -> privateTtl;
+                case API_ERROR -> apiErrorTtl;
+            };
+        }
+    }
+
+    /**
+     * How metadata values are written to Redis. This release reads both formats but still writes {@code json},
+     * so older instances sharing the cache during a rolling deploy can read every entry; flip the default to
+     * {@code binary} in a later release, once every instance reads it.
+     */
+    @Getter
+    @Setter
+    @ToString
+    public static class CacheCodec {
+
+        private VideoMetadataRedisSerializer.Format format = VideoMetadataRedisSerializer.Format.JSON;
+
+        /**
+         * Descriptions longer than this many UTF-8 bytes are deflated in the binary format.
+         */
+        @Min(0)
+        private int compressThreshold = 256;
     }
 }
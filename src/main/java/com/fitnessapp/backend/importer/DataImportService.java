@@ -1,5 +1,6 @@
 package com.fitnessapp.backend.importer;
 
+import com.fitnessapp.backend.catalog.CatalogVersionService;
 import com.fitnessapp.backend.domain.WorkoutVideo;
 import com.fitnessapp.backend.repository.WorkoutVideoRepository;
 import com.fitnessapp.backend.youtube.YouTubeService;
@@ -9,7 +10,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ public class DataImportService {
 
   private final WorkoutVideoRepository workoutRepo;
   private final YouTubeService youTubeService;
+  private final CatalogVersionService catalogVersionService;
 
   public int importWorkoutsFromCsv(String filePath) {
     AtomicInteger counter = new AtomicInteger(0);
@@ -32,6 +34,12 @@ public class DataImportService {
       // skip header
       List<String> rows = lines.subList(1, lines.size());
       int total = rows.size();
+      // one batched lookup for the whole file instead of a videos.list call per row
+      Map<String, VideoMetadata> metadataById = youTubeService.fetchVideoMetadata(rows.stream()
+          .map(DataImportService::safeSplit)
+          .filter(cols -> cols.size() >= 8)
+          .map(cols -> YouTubeService.normalizeVideoId(cols.get(1)))
+          .toList());
       for (int i = 0; i < total; i++) {
         String row = rows.get(i);
         List<String> cols = safeSplit(row);
@@ -40,7 +48,7 @@ public class DataImportService {
           continue;
         }
         String url = cols.get(0);
-        String videoId = cols.get(1);
+        String videoId = YouTubeService.normalizeVideoId(cols.get(1));
         String title = cols.get(2);
         String channel = cols.get(3);
         int duration = parseInt(cols.get(4), 0);
@@ -48,12 +56,11 @@ public class DataImportService {
         String level = cols.get(6);
         List<String> bodyPart = splitList(cols.get(7));
 
-        Optional<VideoMetadata> metadata = youTubeService.fetchVideoMetadata(videoId);
-        if (metadata.isEmpty()) {
+        VideoMetadata m = metadataById.get(videoId);
+        if (m == null) {
           log.warn("[{} / {}] Skipping {} (no metadata)", i + 1, total, videoId);
           continue;
         }
-        VideoMetadata m = metadata.get();
         WorkoutVideo w = WorkoutVideo.builder()
             .youtubeId(videoId)
             .title(title != null && !title.isBlank() ? title : m.getTitle())
@@ -74,6 +81,11 @@ public class DataImportService {
     } catch (Exception e) {
       log.error("Failed to import workouts from {}", filePath, e);
       return counter.get();
+    } finally {
+      // not transactional: each row is committed on save, so bump once for the whole file
+      if (counter.get() > 0) {
+        catalogVersionService.markChanged();
+      }
     }
   }
 
@@ -2,6 +2,7 @@ package com.fitnessapp.backend.importer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.catalog.CatalogVersionService;
 import com.fitnessapp.backend.domain.Ingredient;
 import com.fitnessapp.backend.domain.Recipe;
 import com.fitnessapp.backend.domain.RecipeIngredient;
@@ -29,6 +30,7 @@ public class RecipeImportService {
   private final RecipeRepository recipeRepo;
   private final IngredientRepository ingredientRepo;
   private final ObjectMapper objectMapper;
+  private final CatalogVersionService catalogVersionService;
   private final RestTemplate restTemplate = new RestTemplate();
 
   @Value("${app.spoonacular.api-key:}")
@@ -101,6 +103,11 @@ public class RecipeImportService {
     } catch (Exception e) {
       log.error("Failed to import recipes from {}", filePath, e);
       return counter.get();
+    } finally {
+      // one version bump for the whole file rather than one per saved recipe
+      if (counter.get() > 0) {
+        catalogVersionService.markChanged();
+      }
     }
   }
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fitnessapp.backend.catalog.CatalogVersionService;
 import com.fitnessapp.backend.domain.Ingredient;
 import com.fitnessapp.backend.domain.Recipe;
 import com.fitnessapp.backend.domain.RecipeIngredient;
@@ -64,6 +65,7 @@ public class RecipeCuratorService {
     private final RestTemplate restTemplate;
     private final TransactionTemplate transactionTemplate;
     private final ObjectProvider<EntityManager> entityManagerProvider;
+    private final CatalogVersionService catalogVersionService;
 
     @Value("${app.spoonacular.api-key:}")
     private String spoonacularApiKey;
@@ -73,7 +75,8 @@ public class RecipeCuratorService {
                                 ObjectMapper objectMapper,
                                 RestTemplateBuilder restTemplateBuilder,
                                 ObjectProvider<PlatformTransactionManager> transactionManagerProvider,
-                                ObjectProvider<EntityManager> entityManagerProvider) {
+                                ObjectProvider<EntityManager> entityManagerProvider,
+                                CatalogVersionService catalogVersionService) {
         this.recipeRepository = recipeRepository;
         this.ingredientRepository = ingredientRepository;
         this.objectMapper = objectMapper;
@@ -88,6 +91,7 @@ public class RecipeCuratorService {
                 : new TransactionTemplate();
         this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         this.entityManagerProvider = entityManagerProvider;
+        this.catalogVersionService = catalogVersionService;
     }
 
     @Transactional
@@ -250,6 +254,7 @@ public class RecipeCuratorService {
 
         // Single save with cascaded ingredients
         recipeRepository.save(recipe);
+        catalogVersionService.markChanged();
     }
 
     private Set<String> collectIngredientNames(List<ExtendedIngredient> extendedIngredients, String primaryIngredient) {
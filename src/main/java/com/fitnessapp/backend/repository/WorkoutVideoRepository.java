@@ -2,6 +2,7 @@ package com.fitnessapp.backend.repository;
 
 import com.fitnessapp.backend.domain.WorkoutVideo;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +17,10 @@ public interface WorkoutVideoRepository extends JpaRepository<WorkoutVideo, UUID
   @Query(value = "select * from workout_video w where :equipment = ANY(w.equipment)", nativeQuery = true)
   List<WorkoutVideo> findByEquipmentContaining(@Param("equipment") String equipment);
 
+  // Postgres-specific: array overlap, served by the GIN index on equipment
+  @Query(value = "select * from workout_video w where w.equipment && cast(array[:equipment] as text[])", nativeQuery = true)
+  List<WorkoutVideo> findByEquipmentContainingAny(@Param("equipment") Collection<String> equipment);
+
   Optional<WorkoutVideo> findByYoutubeId(String youtubeId);
 
   List<WorkoutVideo> findByLastValidatedAtAfter(OffsetDateTime timestamp);
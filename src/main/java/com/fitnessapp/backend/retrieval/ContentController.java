@@ -1,69 +1,357 @@
 package com.fitnessapp.backend.retrieval;
 
+import com.fitnessapp.backend.config.ConcurrencyLimitProperties;
+import com.fitnessapp.backend.retrieval.dto.BatchContentRequest;
+import com.fitnessapp.backend.retrieval.dto.BatchContentResponse;
+import com.fitnessapp.backend.retrieval.dto.ContentResponse;
 import com.fitnessapp.backend.retrieval.dto.ImageRequest;
 import com.fitnessapp.backend.retrieval.dto.RecipeResponse;
 import com.fitnessapp.backend.retrieval.dto.WorkoutResponse;
-import java.time.Duration;
-import java.time.Instant;
+import com.fitnessapp.backend.retrieval.image.ImageUploadIngestor;
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
+import com.fitnessapp.backend.web.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Image and hint based content retrieval. Every endpoint answers in JSON by default; mobile clients can ask
+ * for the same payload as Smile or CBOR through the {@code Accept} header.
+ */
 @RestController
-@RequestMapping(path = "/api/v1", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api/v1", produces = {
+        MediaType.APPLICATION_JSON_VALUE, ContentController.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 @RequiredArgsConstructor
 public class ContentController {
 
-    private final WorkoutRetrievalService workoutService;
-    private final RecipeRetrievalService recipeService;
-    private final ImageQueryService imageQueryService;
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final long EVENT_STREAM_TIMEOUT_MS = 30_000L;
+
+    private final ContentRetrievalCoordinator coordinator;
+    private final ImageUploadIngestor uploadIngestor;
+    private final ContentValidators contentValidators;
+    private final RetrievalExecutors executors;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
 
     @PostMapping(path = "/workouts/from-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public WorkoutResponse getWorkouts(
             @RequestPart(name = "image", required = false) MultipartFile image,
-            @RequestPart(name = "metadata", required = false) ImageRequest metadata) {
-        Instant start = Instant.now();
-
-        ImageQueryService.WorkoutDetectionResult detection = imageQueryService.detectWorkoutContext(metadata);
-
-        var workouts = workoutService.findWorkouts(
-                detection.getEquipment(),
-                detection.getLevel(),
-                detection.getDurationMinutes());
-        Duration elapsed = Duration.between(start, Instant.now());
+            @RequestPart(name = "metadata", required = false) ImageRequest metadata,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(image, timings)) {
+            return withServerTiming(response, timings, coordinator.findWorkouts(metadata, ingested, timings));
+        }
+    }
 
-        return WorkoutResponse.builder()
-                .workouts(workouts)
-                .detectedEquipment(detection.getEquipment())
-                .detectedLevel(detection.getLevel())
-                .targetDurationMinutes(detection.getDurationMinutes())
-                .latencyMs((int) Math.min(elapsed.toMillis(), 150))
-                .build();
+    /**
+     * Streaming variant for clients that send the photo as the raw request body. Hints travel as repeated
+     * {@code hint} query parameters so the body never has to be buffered as a multipart part.
+     */
+    @PostMapping(path = "/workouts/from-image", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", "image/heic", "image/heif", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public WorkoutResponse getWorkoutsFromStream(
+            HttpServletRequest request,
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            @RequestParam(name = "imageUrl", required = false) String imageUrl,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(request, timings)) {
+            return withServerTiming(response, timings, coordinator.findWorkouts(streamingMetadata(imageUrl, hints), ingested, timings));
+        }
     }
 
     @PostMapping(path = "/recipes/from-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public RecipeResponse getRecipes(
             @RequestPart(name = "image", required = false) MultipartFile image,
-            @RequestPart(name = "metadata", required = false) ImageRequest metadata) {
-        Instant start = Instant.now();
-
-        ImageQueryService.RecipeDetectionResult detection = imageQueryService.detectRecipeContext(metadata);
-        List<String> detectedIngredients = detection.getIngredients();
-        int maxTimeMinutes = detection.getMaxTimeMinutes();
-
-        var recipes = recipeService.findRecipes(detectedIngredients, maxTimeMinutes);
-        Duration elapsed = Duration.between(start, Instant.now());
-
-        return RecipeResponse.builder()
-                .recipes(recipes)
-                .detectedIngredients(detectedIngredients)
-                .maxTimeMinutes(maxTimeMinutes)
-                .latencyMs((int) Math.min(elapsed.toMillis(), 120))
-                .build();
+            @RequestPart(name = "metadata", required = false) ImageRequest metadata,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(image, timings)) {
+            return withServerTiming(response, timings, coordinator.findRecipes(metadata, ingested, timings));
+        }
+    }
+
+    @PostMapping(path = "/recipes/from-image", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", "image/heic", "image/heif", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public RecipeResponse getRecipesFromStream(
+            HttpServletRequest request,
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            @RequestParam(name = "imageUrl", required = false) String imageUrl,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(request, timings)) {
+            return withServerTiming(response, timings, coordinator.findRecipes(streamingMetadata(imageUrl, hints), ingested, timings));
+        }
+    }
+
+    /**
+     * Workouts and recipes for the same photo in one round trip. Both catalogs are queried concurrently; a
+     * catalog that misses its deadline is listed under {@code unavailable} instead of failing the request.
+     */
+    @PostMapping(path = "/content/from-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ContentResponse getContent(
+            @RequestPart(name = "image", required = false) MultipartFile image,
+            @RequestPart(name = "metadata", required = false) ImageRequest metadata,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(image, timings)) {
+            return withServerTiming(response, timings, coordinator.findContent(metadata, ingested, timings));
+        }
+    }
+
+    @PostMapping(path = "/content/from-image", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", "image/heic", "image/heif", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ContentResponse getContentFromStream(
+            HttpServletRequest request,
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            @RequestParam(name = "imageUrl", required = false) String imageUrl,
+            HttpServletResponse response) throws IOException {
+        StageTimings timings = StageTimings.start();
+        try (IngestedImage ingested = ingest(request, timings)) {
+            return withServerTiming(response, timings, coordinator.findContent(streamingMetadata(imageUrl, hints), ingested, timings));
+        }
+    }
+
+    /**
+     * Server-sent events variant of {@code /content/from-image}. Events arrive in the order the work finishes:
+     * {@code detection}, then {@code workouts} and {@code recipes} (cards without steps or nutrition), then
+     * {@code recipe-details}, and finally {@code done} with any unavailable catalog and the total latency.
+     */
+    @PostMapping(path = "/content/from-image/events", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContent(
+            @RequestPart(name = "image", required = false) MultipartFile image,
+            @RequestPart(name = "metadata", required = false) ImageRequest metadata) throws IOException {
+        StageTimings timings = StageTimings.start();
+        return stream(metadata, ingest(image, timings), timings);
+    }
+
+    @PostMapping(path = "/content/from-image/events", consumes = {
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", "image/heic", "image/heif", MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamContentFromStream(
+            HttpServletRequest request,
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            @RequestParam(name = "imageUrl", required = false) String imageUrl) throws IOException {
+        StageTimings timings = StageTimings.start();
+        return stream(streamingMetadata(imageUrl, hints), ingest(request, timings), timings);
+    }
+
+    /**
+     * Hint-only batch for gallery imports: up to {@code app.retrieval.batch.max-items} items per call, answered
+     * in submission order.
+     */
+    @PostMapping(path = "/content/batch", consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public BatchContentResponse getContentBatch(@RequestBody BatchContentRequest request, HttpServletResponse response) {
+        StageTimings timings = StageTimings.start();
+        return withServerTiming(response, timings, coordinator.findContentBatch(request.getItems(), timings));
+    }
+
+    /**
+     * Hint-only lookups (no photo). Their response depends only on the hints and the catalog version, so
+     * they carry an ETag and a matching {@code If-None-Match} is answered with 304 before any detection or
+     * retrieval work.
+     */
+    @GetMapping("/workouts")
+    public ResponseEntity<WorkoutResponse> getWorkoutsByHints(
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            WebRequest webRequest) {
+        ImageRequest metadata = streamingMetadata(null, hints);
+        return conditional(webRequest, "workouts", metadata, timings -> coordinator.findWorkouts(metadata, null, timings));
+    }
+
+    @GetMapping("/recipes")
+    public ResponseEntity<RecipeResponse> getRecipesByHints(
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            WebRequest webRequest) {
+        ImageRequest metadata = streamingMetadata(null, hints);
+        return conditional(webRequest, "recipes", metadata, timings -> coordinator.findRecipes(metadata, null, timings));
+    }
+
+    @GetMapping("/content")
+    public ResponseEntity<ContentResponse> getContentByHints(
+            @RequestParam(name = "hint", required = false) List<String> hints,
+            WebRequest webRequest) {
+        ImageRequest metadata = streamingMetadata(null, hints);
+        return conditional(webRequest, "content", metadata, timings -> coordinator.findContent(metadata, null, timings));
+    }
+
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest,
+                                              String endpoint,
+                                              ImageRequest metadata,
+                                              Function<StageTimings, T> loader) {
+        StageTimings timings = StageTimings.start();
+        String etag = contentValidators.etag(endpoint, metadata);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(contentValidators.cacheControl())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        T body = loader.apply(timings);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(contentValidators.cacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header("Server-Timing", timings.toServerTiming())
+                .body(body);
+    }
+
+    /**
+     * The upload is read on the request thread (the servlet input stream is gone once the handler returns);
+     * detection and retrieval then run on a retrieval thread and publish through the emitter.
+     *
+     * <p>The concurrency filter releases its slot as soon as the handler returns, so the stream claims its own
+     * slot and holds it until the emitter completes, times out or fails.
+     */
+    private SseEmitter stream(ImageRequest metadata, IngestedImage ingested, StageTimings timings) {
+        boolean limited = concurrencyLimitProperties.isEnabled();
+        if (limited && !concurrencyLimiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.INTERACTIVE)) {
+            ingested.close();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity, retry shortly");
+        }
+        SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT_MS);
+        EventStream events = new EventStream(emitter, limited);
+        emitter.onCompletion(events::finish);
+        emitter.onTimeout(events::finish);
+        emitter.onError(ex -> events.finish());
+        try {
+            executors.branches().execute(() -> {
+                try (ingested) {
+                    coordinator.streamContent(metadata, ingested, timings, events::send);
+                    events.complete();
+                } catch (Exception ex) {
+                    events.completeWithError(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            ingested.close();
+            events.finish();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity, retry shortly", ex);
+        }
+        return emitter;
+    }
+
+    /**
+     * Emitter wrapper for one stream. A branch that outlives its deadline may still try to send after
+     * {@code done}; once the stream is completed such sends are dropped. The concurrency slot is released
+     * exactly once, whichever way the stream ends.
+     */
+    private final class EventStream {
+
+        private final SseEmitter emitter;
+        private final boolean permitHeld;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+        // branches write from virtual threads; a monitor held across the socket write would pin the carrier
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private volatile boolean failed;
+
+        EventStream(SseEmitter emitter, boolean permitHeld) {
+            this.emitter = emitter;
+            this.permitHeld = permitHeld;
+        }
+
+        void send(String name, Object data) throws IOException {
+            sendLock.lock();
+            try {
+                if (!completed.get()) {
+                    emitter.send(SseEmitter.event().name(name).data(data));
+                }
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void complete() {
+            sendLock.lock();
+            try {
+                if (completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void completeWithError(Exception ex) {
+            failed = true;
+            sendLock.lock();
+            try {
+                if (completed.compareAndSet(false, true)) {
+                    emitter.completeWithError(ex);
+                }
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        void finish() {
+            completed.set(true);
+            if (permitHeld && released.compareAndSet(false, true)) {
+                concurrencyLimiter.release(AdaptiveConcurrencyLimiter.Priority.INTERACTIVE, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private IngestedImage ingest(MultipartFile image, StageTimings timings) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return uploadIngestor.ingest(image);
+        } finally {
+            timings.recordSince(StageTimings.UPLOAD, start);
+        }
+    }
+
+    private IngestedImage ingest(HttpServletRequest request, StageTimings timings) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return uploadIngestor.ingest(request.getInputStream(), request.getContentLengthLong());
+        } finally {
+            timings.recordSince(StageTimings.UPLOAD, start);
+        }
+    }
+
+    private static <T> T withServerTiming(HttpServletResponse response, StageTimings timings, T body) {
+        response.setHeader("Server-Timing", timings.toServerTiming());
+        return body;
+    }
+
+    private static ImageRequest streamingMetadata(String imageUrl, List<String> hints) {
+        ImageRequest.ImageRequestBuilder builder = ImageRequest.builder().imageUrl(imageUrl);
+        if (hints != null) {
+            builder.userHints(hints);
+        }
+        return builder.build();
     }
 }
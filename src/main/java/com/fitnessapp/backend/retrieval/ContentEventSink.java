@@ -0,0 +1,13 @@
+package com.fitnessapp.backend.retrieval;
+
+import java.io.IOException;
+
+/**
+ * Receives the named events of a progressively streamed response. Implementations must tolerate calls from
+ * more than one thread, since the catalog branches publish as soon as they finish.
+ */
+@FunctionalInterface
+public interface ContentEventSink {
+
+    void send(String event, Object data) throws IOException;
+}
@@ -0,0 +1,378 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.dto.BatchContentResponse;
+import com.fitnessapp.backend.retrieval.dto.ContentResponse;
+import com.fitnessapp.backend.retrieval.dto.DetectionSummary;
+import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.RecipeDetails;
+import com.fitnessapp.backend.retrieval.dto.RecipeResponse;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import com.fitnessapp.backend.retrieval.dto.WorkoutResponse;
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
+import com.fitnessapp.backend.retrieval.image.PhotoDedupeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Orchestrates one image request: near-duplicate photo lookup, context detection, then the ranked cards for
+ * the detected context. Each step consults its cache first, so a fully repeated request never reaches the
+ * database; concurrent cache misses for the same context share a single catalog query.
+ */
+@Service
+@Slf4j
+public class ContentRetrievalCoordinator {
+
+    private static final String WORKOUT_CATALOG = "workout";
+    private static final String RECIPE_CATALOG = "recipe";
+    private static final String COMBINED_CATALOG = "combined";
+    private static final String BATCH_CATALOG = "batch";
+    private static final String STREAM_CATALOG = "stream";
+
+    private final WorkoutRetrievalService workoutService;
+    private final RecipeRetrievalService recipeService;
+    private final ImageQueryService imageQueryService;
+    private final PhotoDedupeService photoDedupeService;
+    private final RetrievalResultCache resultCache;
+    private final RetrievalMetrics retrievalMetrics;
+    private final ExecutorService branchExecutor;
+    private final Duration branchTimeout;
+    private final int maxBatchItems;
+    private final SingleFlight<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> workoutFlights;
+    private final SingleFlight<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> recipeFlights;
+
+    public ContentRetrievalCoordinator(WorkoutRetrievalService workoutService,
+                                       RecipeRetrievalService recipeService,
+                                       ImageQueryService imageQueryService,
+                                       PhotoDedupeService photoDedupeService,
+                                       RetrievalResultCache resultCache,
+                                       RetrievalMetrics retrievalMetrics,
+                                       RetrievalExecutors executors,
+                                       RetrievalProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.workoutService = workoutService;
+        this.recipeService = recipeService;
+        this.imageQueryService = imageQueryService;
+        this.photoDedupeService = photoDedupeService;
+        this.resultCache = resultCache;
+        this.retrievalMetrics = retrievalMetrics;
+        this.branchExecutor = executors.branches();
+        this.branchTimeout = properties.getCombined().getBranchTimeout();
+        this.maxBatchItems = properties.getBatch().getMaxItems();
+        RetrievalProperties.Coalesce coalesce = properties.getCoalesce();
+        this.workoutFlights = new SingleFlight<>(WORKOUT_CATALOG, branchExecutor, coalesce.isEnabled(),
+                coalesce.getMaxWait(), meterRegistry);
+        this.recipeFlights = new SingleFlight<>(RECIPE_CATALOG, branchExecutor, coalesce.isEnabled(),
+                coalesce.getMaxWait(), meterRegistry);
+    }
+
+    public WorkoutResponse findWorkouts(ImageRequest metadata, IngestedImage image, StageTimings timings) {
+        String hintSignature = imageQueryService.hintSignature(metadata);
+        OptionalLong photoHash = timings.time(StageTimings.DEDUPE, () -> photoDedupeService.fingerprint(image));
+        if (photoHash.isPresent()) {
+            Optional<WorkoutResponse> cached = photoDedupeService.findWorkouts(photoHash.getAsLong(), hintSignature);
+            if (cached.isPresent()) {
+                retrievalMetrics.record(WORKOUT_CATALOG, "dedupe_hit", timings);
+                return cached.get().toBuilder()
+                        .latencyMs(timings.elapsedMillis())
+                        .build();
+            }
+        }
+
+        ImageQueryService.WorkoutDetectionResult detection = imageQueryService.detectWorkoutContext(metadata, image, timings);
+        WorkoutResponse response = workoutResponse(detection, timings);
+
+        retrievalMetrics.record(WORKOUT_CATALOG, "computed", timings);
+        photoHash.ifPresent(hash -> photoDedupeService.rememberWorkouts(hash, hintSignature, response));
+        return response;
+    }
+
+    public RecipeResponse findRecipes(ImageRequest metadata, IngestedImage image, StageTimings timings) {
+        String hintSignature = imageQueryService.hintSignature(metadata);
+        OptionalLong photoHash = timings.time(StageTimings.DEDUPE, () -> photoDedupeService.fingerprint(image));
+        if (photoHash.isPresent()) {
+            Optional<RecipeResponse> cached = photoDedupeService.findRecipes(photoHash.getAsLong(), hintSignature);
+            if (cached.isPresent()) {
+                retrievalMetrics.record(RECIPE_CATALOG, "dedupe_hit", timings);
+                return cached.get().toBuilder()
+                        .latencyMs(timings.elapsedMillis())
+                        .build();
+            }
+        }
+
+        ImageQueryService.RecipeDetectionResult detection = imageQueryService.detectRecipeContext(metadata, image, timings);
+        RecipeResponse response = recipeResponse(detection, timings);
+
+        retrievalMetrics.record(RECIPE_CATALOG, "computed", timings);
+        photoHash.ifPresent(hash -> photoDedupeService.rememberRecipes(hash, hintSignature, response));
+        return response;
+    }
+
+    /**
+     * Workouts and recipes for one photo: fingerprinted and detected once, then both catalogs are queried
+     * concurrently. Each branch gets the configured timeout; a branch that misses it (or fails) is reported in
+     * {@link ContentResponse#getUnavailable()} while the other branch is still returned.
+     */
+    public ContentResponse findContent(ImageRequest metadata, IngestedImage image, StageTimings timings) {
+        String hintSignature = imageQueryService.hintSignature(metadata);
+        OptionalLong photoHash = timings.time(StageTimings.DEDUPE, () -> photoDedupeService.fingerprint(image));
+        if (photoHash.isPresent()) {
+            Optional<WorkoutResponse> cachedWorkouts = photoDedupeService.findWorkouts(photoHash.getAsLong(), hintSignature);
+            Optional<RecipeResponse> cachedRecipes = photoDedupeService.findRecipes(photoHash.getAsLong(), hintSignature);
+            if (cachedWorkouts.isPresent() && cachedRecipes.isPresent()) {
+                retrievalMetrics.record(COMBINED_CATALOG, "dedupe_hit", timings);
+                return ContentResponse.builder()
+                        .workouts(cachedWorkouts.get())
+                        .recipes(cachedRecipes.get())
+                        .latencyMs(timings.elapsedMillis())
+                        .build();
+            }
+        }
+
+        ImageQueryService.CombinedDetectionResult detection = imageQueryService.detectCombinedContext(metadata, image, timings);
+
+        long deadline = System.nanoTime() + branchTimeout.toNanos();
+        StageTimings workoutTimings = timings.scoped(WORKOUT_CATALOG);
+        StageTimings recipeTimings = timings.scoped(RECIPE_CATALOG);
+        Future<WorkoutResponse> workoutBranch = branchExecutor.submit(() -> workoutResponse(detection.getWorkout(), workoutTimings));
+        Future<RecipeResponse> recipeBranch = branchExecutor.submit(() -> recipeResponse(detection.getRecipe(), recipeTimings));
+
+        List<String> unavailable = new ArrayList<>(2);
+        WorkoutResponse workouts = await(workoutBranch, deadline, "workouts", unavailable);
+        RecipeResponse recipes = await(recipeBranch, deadline, "recipes", unavailable);
+
+        if (photoHash.isPresent()) {
+            long hash = photoHash.getAsLong();
+            if (workouts != null) {
+                photoDedupeService.rememberWorkouts(hash, hintSignature, workouts);
+            }
+            if (recipes != null) {
+                photoDedupeService.rememberRecipes(hash, hintSignature, recipes);
+            }
+        }
+        retrievalMetrics.record(COMBINED_CATALOG, unavailable.isEmpty() ? "computed" : "partial", timings);
+        return ContentResponse.builder()
+                .workouts(workouts)
+                .recipes(recipes)
+                .unavailable(unavailable.isEmpty() ? null : unavailable)
+                .latencyMs(timings.elapsedMillis())
+                .build();
+    }
+
+    /**
+     * Progressive variant of {@link #findContent}: the detected context is published as soon as it is known,
+     * each catalog's cards as soon as that branch is ranked, and recipe steps and nutrition last as a separate
+     * {@code recipe-details} event so the first cards stay small. A final {@code done} event carries the
+     * unavailable catalogs and the total latency. The same branch deadline applies as for the one-shot call.
+     */
+    public void streamContent(ImageRequest metadata, IngestedImage image, StageTimings timings, ContentEventSink sink)
+            throws IOException {
+        String hintSignature = imageQueryService.hintSignature(metadata);
+        OptionalLong photoHash = timings.time(StageTimings.DEDUPE, () -> photoDedupeService.fingerprint(image));
+        if (photoHash.isPresent()) {
+            Optional<WorkoutResponse> cachedWorkouts = photoDedupeService.findWorkouts(photoHash.getAsLong(), hintSignature);
+            Optional<RecipeResponse> cachedRecipes = photoDedupeService.findRecipes(photoHash.getAsLong(), hintSignature);
+            if (cachedWorkouts.isPresent() && cachedRecipes.isPresent()) {
+                sink.send("detection", detectionSummary(cachedWorkouts.get(), cachedRecipes.get()));
+                sendWorkouts(sink, cachedWorkouts.get());
+                sendRecipes(sink, cachedRecipes.get());
+                retrievalMetrics.record(STREAM_CATALOG, "dedupe_hit", timings);
+                sink.send("done", ContentResponse.builder().latencyMs(timings.elapsedMillis()).build());
+                return;
+            }
+        }
+
+        ImageQueryService.CombinedDetectionResult detection = imageQueryService.detectCombinedContext(metadata, image, timings);
+        sink.send("detection", DetectionSummary.builder()
+                .detectedEquipment(detection.getWorkout().getEquipment())
+                .detectedLevel(detection.getWorkout().getLevel())
+                .targetDurationMinutes(detection.getWorkout().getDurationMinutes())
+                .detectedIngredients(detection.getRecipe().getIngredients())
+                .maxTimeMinutes(detection.getRecipe().getMaxTimeMinutes())
+                .build());
+
+        long deadline = System.nanoTime() + branchTimeout.toNanos();
+        StageTimings workoutTimings = timings.scoped(WORKOUT_CATALOG);
+        StageTimings recipeTimings = timings.scoped(RECIPE_CATALOG);
+        Future<WorkoutResponse> workoutBranch = branchExecutor.submit(() -> {
+            WorkoutResponse response = workoutResponse(detection.getWorkout(), workoutTimings);
+            sendWorkouts(sink, response);
+            return response;
+        });
+        Future<RecipeResponse> recipeBranch = branchExecutor.submit(() -> {
+            RecipeResponse response = recipeResponse(detection.getRecipe(), recipeTimings);
+            sendRecipes(sink, response);
+            return response;
+        });
+
+        List<String> unavailable = new ArrayList<>(2);
+        WorkoutResponse workouts = await(workoutBranch, deadline, "workouts", unavailable);
+        RecipeResponse recipes = await(recipeBranch, deadline, "recipes", unavailable);
+
+        if (photoHash.isPresent()) {
+            long hash = photoHash.getAsLong();
+            if (workouts != null) {
+                photoDedupeService.rememberWorkouts(hash, hintSignature, workouts);
+            }
+            if (recipes != null) {
+                photoDedupeService.rememberRecipes(hash, hintSignature, recipes);
+            }
+        }
+        retrievalMetrics.record(STREAM_CATALOG, unavailable.isEmpty() ? "computed" : "partial", timings);
+        sink.send("done", ContentResponse.builder()
+                .unavailable(unavailable.isEmpty() ? null : unavailable)
+                .latencyMs(timings.elapsedMillis())
+                .build());
+    }
+
+    /**
+     * Many hint sets in one call, for gallery imports. Items are detected individually, but identical
+     * contexts are ranked only once and every context missing from the result cache is served by a single
+     * candidate query per catalog. Results come back in submission order.
+     */
+    public BatchContentResponse findContentBatch(List<ImageRequest> items, StageTimings timings) {
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain at least one item");
+        }
+        if (items.size() > maxBatchItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch of " + items.size() + " items exceeds the limit of " + maxBatchItems);
+        }
+
+        List<ImageQueryService.CombinedDetectionResult> detections = items.stream()
+                .map(item -> imageQueryService.detectCombinedContext(item, null, timings))
+                .toList();
+        Set<ImageQueryService.WorkoutDetectionResult> workoutContexts = detections.stream()
+                .map(ImageQueryService.CombinedDetectionResult::getWorkout)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<ImageQueryService.RecipeDetectionResult> recipeContexts = detections.stream()
+                .map(ImageQueryService.CombinedDetectionResult::getRecipe)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> workoutCards =
+                resultCache.workouts(workoutContexts, missing -> workoutService.findWorkouts(missing, timings));
+        Map<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> recipeCards =
+                resultCache.recipes(recipeContexts, missing -> recipeService.findRecipes(missing, timings));
+
+        List<ContentResponse> results = detections.stream()
+                .map(detection -> ContentResponse.builder()
+                        .workouts(workoutResponse(detection.getWorkout(), workoutCards.get(detection.getWorkout()), null))
+                        .recipes(recipeResponse(detection.getRecipe(), recipeCards.get(detection.getRecipe()), null))
+                        .build())
+                .toList();
+
+        retrievalMetrics.record(BATCH_CATALOG, "computed", timings);
+        return BatchContentResponse.builder()
+                .results(results)
+                .distinctWorkoutContexts(workoutContexts.size())
+                .distinctRecipeContexts(recipeContexts.size())
+                .latencyMs(timings.elapsedMillis())
+                .build();
+    }
+
+    private WorkoutResponse workoutResponse(ImageQueryService.WorkoutDetectionResult detection, StageTimings timings) {
+        List<WorkoutCard> workouts = resultCache.workouts(detection, () -> workoutFlights.execute(detection,
+                () -> workoutService.findWorkouts(
+                        detection.getEquipment(),
+                        detection.getLevel(),
+                        detection.getDurationMinutes(),
+                        timings)));
+
+        return workoutResponse(detection, workouts, timings.elapsedMillis());
+    }
+
+    private static WorkoutResponse workoutResponse(ImageQueryService.WorkoutDetectionResult detection,
+                                                   List<WorkoutCard> workouts,
+                                                   Integer latencyMs) {
+        return WorkoutResponse.builder()
+                .workouts(workouts)
+                .detectedEquipment(detection.getEquipment())
+                .detectedLevel(detection.getLevel())
+                .targetDurationMinutes(detection.getDurationMinutes())
+                .latencyMs(latencyMs)
+                .build();
+    }
+
+    private RecipeResponse recipeResponse(ImageQueryService.RecipeDetectionResult detection, StageTimings timings) {
+        List<RecipeCard> recipes = resultCache.recipes(detection, () -> recipeFlights.execute(detection,
+                () -> recipeService.findRecipes(detection.getIngredients(), detection.getMaxTimeMinutes(), timings)));
+
+        return recipeResponse(detection, recipes, timings.elapsedMillis());
+    }
+
+    private static RecipeResponse recipeResponse(ImageQueryService.RecipeDetectionResult detection,
+                                                 List<RecipeCard> recipes,
+                                                 Integer latencyMs) {
+        return RecipeResponse.builder()
+                .recipes(recipes)
+                .detectedIngredients(detection.getIngredients())
+                .maxTimeMinutes(detection.getMaxTimeMinutes())
+                .latencyMs(latencyMs)
+                .build();
+    }
+
+    private static void sendWorkouts(ContentEventSink sink, WorkoutResponse response) throws IOException {
+        sink.send("workouts", response);
+    }
+
+    private static void sendRecipes(ContentEventSink sink, RecipeResponse response) throws IOException {
+        List<RecipeCard> recipes = response.getRecipes() == null ? List.of() : response.getRecipes();
+        sink.send("recipes", response.toBuilder()
+                .recipes(recipes.stream()
+                        .map(card -> card.toBuilder().steps(null).nutrition(null).build())
+                        .toList())
+                .build());
+        sink.send("recipe-details", recipes.stream()
+                .map(card -> RecipeDetails.builder()
+                        .id(card.getId())
+                        .steps(card.getSteps())
+                        .nutrition(card.getNutrition())
+                        .build())
+                .toList());
+    }
+
+    private static DetectionSummary detectionSummary(WorkoutResponse workouts, RecipeResponse recipes) {
+        return DetectionSummary.builder()
+                .detectedEquipment(workouts.getDetectedEquipment())
+                .detectedLevel(workouts.getDetectedLevel())
+                .targetDurationMinutes(workouts.getTargetDurationMinutes())
+                .detectedIngredients(recipes.getDetectedIngredients())
+                .maxTimeMinutes(recipes.getMaxTimeMinutes())
+                .build();
+    }
+
+    private <T> T await(Future<T> branch, long deadlineNanos, String name, List<String> unavailable) {
+        try {
+            return branch.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            branch.cancel(true);
+            log.warn("Combined retrieval branch {} exceeded {} ms", name, branchTimeout.toMillis());
+        } catch (ExecutionException ex) {
+            log.warn("Combined retrieval branch {} failed: {}", name, ex.getCause() == null ? ex.getMessage() : ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            branch.cancel(true);
+        }
+        unavailable.add(name);
+        return null;
+    }
+}
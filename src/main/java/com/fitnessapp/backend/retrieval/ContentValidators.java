@@ -0,0 +1,66 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.fitnessapp.backend.catalog.CatalogVersionService;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * HTTP validators for hint-only content requests. Their response depends only on the catalog version and
+ * the normalized hints, so the ETag can be computed, and a conditional request answered, without touching
+ * detection or the database.
+ */
+@Component
+public class ContentValidators {
+
+    private final CatalogVersionService catalogVersionService;
+    private final ImageQueryService imageQueryService;
+    private final CacheControl cacheControl;
+
+    public ContentValidators(CatalogVersionService catalogVersionService,
+                             ImageQueryService imageQueryService,
+                             RetrievalProperties properties) {
+        this.catalogVersionService = catalogVersionService;
+        this.imageQueryService = imageQueryService;
+        Duration maxAge = properties.getHttpCache().getMaxAge();
+        this.cacheControl = maxAge.isZero()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge).mustRevalidate();
+    }
+
+    /**
+     * Weak ETag of the form {@code W/"<catalog version>-<digest>"}; the digest covers the endpoint and the
+     * hint signature, so case and repeated hints do not produce different tags; order does, since it decides
+     * conflicting hints.
+     */
+    public String etag(String endpoint, ImageRequest metadata) {
+        return etag(endpoint, metadata, catalogVersionService.current());
+    }
+
+    /**
+     * Same tag for a catalog version the caller already has, so it can be computed without a blocking read.
+     */
+    public String etag(String endpoint, ImageRequest metadata, long version) {
+        String key = endpoint + '\n' + imageQueryService.hintSignature(metadata);
+        byte[] digest = sha256().digest(key.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + version + '-' + HexFormat.of().formatHex(digest, 0, 8) + '"';
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
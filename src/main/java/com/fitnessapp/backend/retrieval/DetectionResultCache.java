@@ -0,0 +1,60 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.detect.DetectionSignals;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hint-derived detection keyed by the de-duplicated hint list, in the user's order. Popular combinations such
+ * as {@code [dumbbells, 30 min]} resolve with a single map lookup instead of a detector run.
+ */
+@Component
+public class DetectionResultCache {
+
+    private final Cache<List<String>, Entry<ImageQueryService.WorkoutDetectionResult>> workouts;
+    private final Cache<List<String>, Entry<ImageQueryService.RecipeDetectionResult>> recipes;
+
+    public DetectionResultCache(RetrievalProperties properties, MeterRegistry meterRegistry) {
+        RetrievalProperties.Cache settings = properties.getCache();
+        this.workouts = RetrievalCaches.build("retrieval.detection.workout",
+                settings.getDetectionMaxEntries(), settings.getDetectionTtl(), meterRegistry);
+        this.recipes = RetrievalCaches.build("retrieval.detection.recipe",
+                settings.getDetectionMaxEntries(), settings.getDetectionTtl(), meterRegistry);
+    }
+
+    public Entry<ImageQueryService.WorkoutDetectionResult> workout(
+            List<String> hints, Supplier<Entry<ImageQueryService.WorkoutDetectionResult>> loader) {
+        return lookup(workouts, hints, loader);
+    }
+
+    public Entry<ImageQueryService.RecipeDetectionResult> recipe(
+            List<String> hints, Supplier<Entry<ImageQueryService.RecipeDetectionResult>> loader) {
+        return lookup(recipes, hints, loader);
+    }
+
+    private static <R> Entry<R> lookup(Cache<List<String>, Entry<R>> cache,
+                                       List<String> hints,
+                                       Supplier<Entry<R>> loader) {
+        Entry<R> cached = cache.getIfPresent(hints);
+        if (cached != null) {
+            return cached;
+        }
+        Entry<R> loaded = loader.get();
+        // a detector that timed out left the result incomplete; do not pin that for an hour
+        if (loaded.getSignals().isComplete()) {
+            cache.put(hints, loaded);
+        }
+        return loaded;
+    }
+
+    @Value
+    public static class Entry<R> {
+        DetectionSignals signals;
+        R result;
+    }
+}
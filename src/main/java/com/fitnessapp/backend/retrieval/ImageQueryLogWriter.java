@@ -0,0 +1,280 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind buffer for {@code image_query} rows. Request threads only enqueue; a single background
+ * flusher drains the queue with JDBC batch inserts whenever a batch fills up or the flush interval elapses.
+ * Rows that do not fit in the queue are handled by the configured overflow policy and counted, never
+ * pushed back onto the caller.
+ */
+@Component
+@Slf4j
+public class ImageQueryLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "insert into image_query (type, detected_hints, created_at) values (?, cast(? as jsonb), ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RetrievalProperties.QueryLog settings;
+    private final BlockingQueue<PendingQuery> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedNewestCounter;
+    private final Counter droppedOldestCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ImageQueryLogWriter(DataSource dataSource,
+                               ObjectMapper objectMapper,
+                               RetrievalProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(new JdbcTemplate(dataSource), objectMapper, properties, meterRegistry);
+    }
+
+    ImageQueryLogWriter(JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        RetrievalProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.settings = properties.getQueryLog();
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+
+        this.enqueuedCounter = meterRegistry.counter("retrieval.query.log.enqueued");
+        this.droppedNewestCounter = meterRegistry.counter("retrieval.query.log.dropped", "policy", "drop_newest");
+        this.droppedOldestCounter = meterRegistry.counter("retrieval.query.log.dropped", "policy", "drop_oldest");
+        this.writtenCounter = meterRegistry.counter("retrieval.query.log.written");
+        this.failedCounter = meterRegistry.counter("retrieval.query.log.failed");
+        this.flushTimer = Timer.builder("retrieval.query.log.flush")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("retrieval.query.log.queue.depth", queue, BlockingQueue::size);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Buffers a query for asynchronous insertion. Never blocks longer than the configured enqueue timeout.
+     *
+     * @return {@code true} if the row was accepted, {@code false} if it was dropped
+     */
+    public boolean submit(String type, JsonNode hints) {
+        PendingQuery pending = new PendingQuery(type, hints, OffsetDateTime.now());
+        boolean accepted = switch (settings.getOverflowPolicy()) {
+            case DROP_NEWEST -> offerOrDropNewest(pending);
+            case DROP_OLDEST -> offerOrDropOldest(pending);
+            case WAIT_BRIEFLY -> offerWithTimeout(pending);
+        };
+        if (accepted) {
+            enqueuedCounter.increment();
+            if (queue.size() >= settings.getBatchSize()) {
+                requestFlush();
+            }
+        }
+        return accepted;
+    }
+
+    private boolean offerOrDropNewest(PendingQuery pending) {
+        if (queue.offer(pending)) {
+            return true;
+        }
+        droppedNewestCounter.increment();
+        return false;
+    }
+
+    private boolean offerOrDropOldest(PendingQuery pending) {
+        while (!queue.offer(pending)) {
+            if (queue.poll() != null) {
+                droppedOldestCounter.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerWithTimeout(PendingQuery pending) {
+        try {
+            if (queue.offer(pending, settings.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        droppedNewestCounter.increment();
+        return false;
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flushAll();
+            });
+        } catch (RuntimeException ex) {
+            flushScheduled.set(false);
+        }
+    }
+
+    private void flushAll() {
+        while (flushBatch() >= settings.getBatchSize()) {
+            // keep draining while full batches are available
+        }
+    }
+
+    /**
+     * Drains and inserts at most one batch.
+     *
+     * @return number of rows taken from the queue
+     */
+    int flushBatch() {
+        if (queue.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            List<PendingQuery> batch = new ArrayList<>(settings.getBatchSize());
+            queue.drainTo(batch, settings.getBatchSize());
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            flushTimer.record(() -> insertBatch(batch));
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insertBatch(List<PendingQuery> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PendingQuery pending = batch.get(i);
+                    ps.setString(1, pending.type());
+                    ps.setString(2, serialize(pending.hints()));
+                    ps.setObject(3, pending.createdAt());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            writtenCounter.increment(batch.size());
+        } catch (Exception ex) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to write batch of {} image queries: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    private String serialize(JsonNode hints) {
+        if (hints == null) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(hints);
+        } catch (Exception ex) {
+            return "{}";
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-query-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(10L, settings.getFlushInterval().toMillis());
+        executor.scheduleWithFixedDelay(this::flushAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+        running = true;
+    }
+
+    /**
+     * Stops the background flusher and drains whatever is still buffered, bounded by the shutdown timeout.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(settings.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long deadline = System.nanoTime() + settings.getShutdownTimeout().toNanos();
+        int drained = 0;
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            drained += flushBatch();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Discarding {} image queries still buffered at shutdown", queue.size());
+            queue.clear();
+        } else if (drained > 0) {
+            log.info("Drained {} buffered image queries on shutdown", drained);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server has stopped accepting requests, but before the data source is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record PendingQuery(String type, JsonNode hints, OffsetDateTime createdAt) {
+    }
+}
@@ -5,18 +5,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fitnessapp.backend.domain.ImageQuery;
+import com.fitnessapp.backend.retrieval.detect.ContextDetector;
+import com.fitnessapp.backend.retrieval.detect.DetectedAttribute;
+import com.fitnessapp.backend.retrieval.detect.DetectionInput;
+import com.fitnessapp.backend.retrieval.detect.DetectionSignals;
+import com.fitnessapp.backend.retrieval.detect.DetectionTarget;
+import com.fitnessapp.backend.retrieval.detect.DetectorPipeline;
 import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
 import com.fitnessapp.backend.repository.ImageQueryRepository;
 import java.util.ArrayList;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.OptionalInt;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -29,71 +29,118 @@ import org.springframework.util.StringUtils;
 @Slf4j
 public class ImageQueryService {
 
-    private static final Map<String, String> EQUIPMENT_ALIASES = Map.ofEntries(
-            Map.entry("dumbbell", "dumbbells"),
-            Map.entry("dumbbells", "dumbbells"),
-            Map.entry("kettlebell", "kettlebell"),
-            Map.entry("kettlebells", "kettlebell"),
-            Map.entry("resistance band", "resistance_bands"),
-            Map.entry("resistance bands", "resistance_bands"),
-            Map.entry("band", "resistance_bands"),
-            Map.entry("yoga mat", "mat"),
-            Map.entry("mat", "mat"),
-            Map.entry("barbell", "barbell"),
-            Map.entry("bodyweight", "bodyweight")
-    );
-
     private static final List<String> FALLBACK_EQUIPMENT_PRIORITY = List.of(
             "dumbbells", "bodyweight", "resistance_bands", "kettlebell", "mat"
     );
 
-    private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d{2,3})\\s*(min|minutes|m)?");
-
-    private static final Map<String, String> INGREDIENT_ALIASES = Map.ofEntries(
-            Map.entry("chicken", "chicken"),
-            Map.entry("salmon", "salmon"),
-            Map.entry("tofu", "tofu"),
-            Map.entry("shrimp", "shrimp"),
-            Map.entry("turkey", "turkey"),
-            Map.entry("beef", "beef"),
-            Map.entry("steak", "beef"),
-            Map.entry("broccoli", "broccoli"),
-            Map.entry("quinoa", "quinoa"),
-            Map.entry("rice", "rice"),
-            Map.entry("pasta", "pasta"),
-            Map.entry("egg", "eggs"),
-            Map.entry("eggs", "eggs"),
-            Map.entry("spinach", "spinach"),
-            Map.entry("vegetable", "vegetable"),
-            Map.entry("veggie", "vegetable")
-    );
-
     private final ImageQueryRepository imageQueryRepository;
+    private final ImageQueryLogWriter queryLogWriter;
     private final ObjectMapper objectMapper;
+    private final DetectorPipeline detectorPipeline;
+    private final DetectionResultCache detectionCache;
 
     public WorkoutDetectionResult detectWorkoutContext(ImageRequest metadata) {
+        return detectWorkoutContext(metadata, null);
+    }
+
+    public WorkoutDetectionResult detectWorkoutContext(ImageRequest metadata, IngestedImage image) {
+        return detectWorkoutContext(metadata, image, StageTimings.disabled());
+    }
+
+    public WorkoutDetectionResult detectWorkoutContext(ImageRequest metadata, IngestedImage image, StageTimings timings) {
         List<String> rawHints = normalizeHints(metadata);
+        List<String> canonicalHints = canonicalize(rawHints);
 
-        String equipment = resolveEquipment(rawHints);
-        String level = resolveLevel(rawHints);
-        int duration = resolveDuration(rawHints);
+        DetectionResultCache.Entry<WorkoutDetectionResult> resolved = timings.time(StageTimings.DETECT,
+                () -> resolveWorkoutContext(metadata, image, canonicalHints));
 
-        JsonNode storedHints = buildStoredHints(metadata, rawHints, equipment, level, duration);
-        persistQuery("workout_image", storedHints);
+        WorkoutDetectionResult result = resolved.getResult();
+        timings.run(StageTimings.PERSIST, () -> {
+            JsonNode storedHints = buildStoredHints(metadata, rawHints, resolved.getSignals(),
+                    result.getEquipment(), result.getLevel(), result.getDurationMinutes());
+            persistQuery("workout_image", storedHints);
+        });
 
-        return new WorkoutDetectionResult(equipment, level, duration);
+        return result;
     }
 
     public RecipeDetectionResult detectRecipeContext(ImageRequest metadata) {
+        return detectRecipeContext(metadata, null);
+    }
+
+    public RecipeDetectionResult detectRecipeContext(ImageRequest metadata, IngestedImage image) {
+        return detectRecipeContext(metadata, image, StageTimings.disabled());
+    }
+
+    public RecipeDetectionResult detectRecipeContext(ImageRequest metadata, IngestedImage image, StageTimings timings) {
         List<String> rawHints = normalizeHints(metadata);
-        List<String> ingredients = resolveIngredients(rawHints);
-        int maxTime = resolveRecipeMaxTime(rawHints);
-        JsonNode storedHints = buildRecipeHints(metadata, rawHints, ingredients, maxTime);
-        persistQuery("recipe_image", storedHints);
-        return new RecipeDetectionResult(ingredients, maxTime);
+        List<String> canonicalHints = canonicalize(rawHints);
+
+        DetectionResultCache.Entry<RecipeDetectionResult> resolved = timings.time(StageTimings.DETECT,
+                () -> resolveRecipeContext(metadata, image, canonicalHints));
+
+        RecipeDetectionResult result = resolved.getResult();
+        timings.run(StageTimings.PERSIST, () -> {
+            JsonNode storedHints = buildRecipeHints(metadata, rawHints, resolved.getSignals(),
+                    result.getIngredients(), result.getMaxTimeMinutes());
+            persistQuery("recipe_image", storedHints);
+        });
+        return result;
+    }
+
+    /**
+     * Detects workout and recipe context for one photo and records a single {@code combined_image} query
+     * instead of one row per catalog.
+     */
+    public CombinedDetectionResult detectCombinedContext(ImageRequest metadata, IngestedImage image, StageTimings timings) {
+        List<String> rawHints = normalizeHints(metadata);
+        List<String> canonicalHints = canonicalize(rawHints);
+
+        DetectionResultCache.Entry<WorkoutDetectionResult> workout = timings.time(StageTimings.DETECT,
+                () -> resolveWorkoutContext(metadata, image, canonicalHints));
+        DetectionResultCache.Entry<RecipeDetectionResult> recipe = timings.time(StageTimings.DETECT,
+                () -> resolveRecipeContext(metadata, image, canonicalHints));
+
+        timings.run(StageTimings.PERSIST, () -> {
+            WorkoutDetectionResult w = workout.getResult();
+            RecipeDetectionResult r = recipe.getResult();
+            ObjectNode workoutHints = (ObjectNode) buildStoredHints(metadata, rawHints, workout.getSignals(),
+                    w.getEquipment(), w.getLevel(), w.getDurationMinutes());
+            ObjectNode recipeHints = (ObjectNode) buildRecipeHints(metadata, rawHints, recipe.getSignals(),
+                    r.getIngredients(), r.getMaxTimeMinutes());
+            ObjectNode root = objectMapper.createObjectNode();
+            if (workoutHints.has("imageUrl")) {
+                root.set("imageUrl", workoutHints.get("imageUrl"));
+            }
+            root.set("rawHints", workoutHints.get("rawHints"));
+            workoutHints.remove(List.of("imageUrl", "rawHints"));
+            recipeHints.remove(List.of("imageUrl", "rawHints"));
+            root.set("workout", workoutHints);
+            root.set("recipe", recipeHints);
+            persistQuery("combined_image", root);
+        });
+
+        return new CombinedDetectionResult(workout.getResult(), recipe.getResult());
+    }
+
+    /**
+     * Stable key for the user-supplied hints of a request, used to scope response caches. Each hint is
+     * length-prefixed, so hints containing any separator cannot collide; order is kept because it decides
+     * conflicting hints.
+     */
+    public String hintSignature(ImageRequest metadata) {
+        StringBuilder signature = new StringBuilder();
+        for (String hint : canonicalize(normalizeHints(metadata))) {
+            signature.append(hint.length()).append(':').append(hint);
+        }
+        return signature.toString();
     }
 
     private void persistQuery(String type, JsonNode hints) {
+        if (queryLogWriter.isEnabled()) {
+            queryLogWriter.submit(type, hints);
+            return;
+        }
         try {
             ImageQuery query = ImageQuery.builder()
                     .type(type)
@@ -119,111 +166,89 @@ public class ImageQueryService {
         return sanitized;
     }
 
-    private String resolveEquipment(List<String> hints) {
-        for (String hint : hints) {
-            String normalized = EQUIPMENT_ALIASES.get(hint);
-            if (normalized != null) {
-                return normalized;
-            }
-        }
-        // attempt partial matches
-        for (String hint : hints) {
-            for (Map.Entry<String, String> alias : EQUIPMENT_ALIASES.entrySet()) {
-                if (hint.contains(alias.getKey())) {
-                    return alias.getValue();
-                }
-            }
-        }
-        return FALLBACK_EQUIPMENT_PRIORITY.stream().findFirst().orElse("bodyweight");
+    /**
+     * Hints de-duplicated in the order the user gave them. Detectors take the first of conflicting hints (two
+     * equipment or level hints), so the order is part of what detection depends on, and the resulting list
+     * itself keys the detection cache.
+     */
+    private List<String> canonicalize(List<String> rawHints) {
+        return rawHints.stream().distinct().toList();
     }
 
-    private String resolveLevel(List<String> hints) {
-        for (String hint : hints) {
-            if (hint.contains("advanced")) {
-                return "advanced";
-            }
-            if (hint.contains("intermediate")) {
-                return "intermediate";
-            }
-            if (hint.contains("beginner") || hint.contains("easy")) {
-                return "beginner";
-            }
-        }
-        return "beginner";
+    private boolean hasImage(IngestedImage image) {
+        return image != null && !image.isEmpty();
     }
 
-    private int resolveDuration(List<String> hints) {
-        for (String hint : hints) {
-            OptionalInt parsed = parseDuration(hint);
-            if (parsed.isPresent()) {
-                return clampDuration(parsed.getAsInt());
-            }
-        }
-        return 20;
+    private DetectionResultCache.Entry<WorkoutDetectionResult> resolveWorkoutContext(ImageRequest metadata,
+                                                                              IngestedImage image,
+                                                                              List<String> canonicalHints) {
+        DetectionResultCache.Entry<WorkoutDetectionResult> fromHints = detectionCache.workout(
+                canonicalHints,
+                () -> resolveWorkout(detectHints(DetectionTarget.WORKOUT, canonicalHints)));
+        return hasImage(image)
+                ? resolveWorkout(fromHints.getSignals().plus(detectImage(DetectionTarget.WORKOUT, metadata, canonicalHints, image)))
+                : fromHints;
     }
 
-    private List<String> resolveIngredients(List<String> hints) {
-        if (CollectionUtils.isEmpty(hints)) {
-            return List.of();
-        }
-        Set<String> detected = new LinkedHashSet<>();
-        for (String hint : hints) {
-            if (!StringUtils.hasText(hint)) {
-                continue;
-            }
-            String normalized = hint.toLowerCase(Locale.ROOT);
-            INGREDIENT_ALIASES.forEach((alias, canonical) -> {
-                if (normalized.equals(alias) || normalized.contains(alias)) {
-                    detected.add(canonical);
-                }
-            });
-            for (String token : normalized.split("[^a-z]+")) {
-                if (!token.isBlank()) {
-                    String canonical = INGREDIENT_ALIASES.get(token);
-                    if (canonical != null) {
-                        detected.add(canonical);
-                    }
-                }
-            }
-        }
-        return detected.isEmpty() ? List.of() : new ArrayList<>(detected);
+    private DetectionResultCache.Entry<RecipeDetectionResult> resolveRecipeContext(ImageRequest metadata,
+                                                                            IngestedImage image,
+                                                                            List<String> canonicalHints) {
+        DetectionResultCache.Entry<RecipeDetectionResult> fromHints = detectionCache.recipe(
+                canonicalHints,
+                () -> resolveRecipe(detectHints(DetectionTarget.RECIPE, canonicalHints)));
+        return hasImage(image)
+                ? resolveRecipe(fromHints.getSignals().plus(detectImage(DetectionTarget.RECIPE, metadata, canonicalHints, image)))
+                : fromHints;
     }
 
-    private int resolveRecipeMaxTime(List<String> hints) {
-        for (String hint : hints) {
-            OptionalInt parsed = parseDuration(hint);
-            if (parsed.isPresent()) {
-                return clampDuration(parsed.getAsInt());
-            }
-        }
-        return 30;
+    private DetectionSignals detectHints(DetectionTarget target, List<String> canonicalHints) {
+        DetectionInput input = DetectionInput.builder()
+                .target(target)
+                .hints(canonicalHints)
+                .build();
+        return detectorPipeline.detect(input, detector -> !detector.usesImage());
+    }
+
+    private DetectionSignals detectImage(DetectionTarget target,
+                                         ImageRequest metadata,
+                                         List<String> canonicalHints,
+                                         IngestedImage image) {
+        DetectionInput input = DetectionInput.builder()
+                .target(target)
+                .hints(canonicalHints)
+                .imageUrl(metadata != null ? metadata.getImageUrl() : null)
+                .image(image)
+                .build();
+        return detectorPipeline.detect(input, ContextDetector::usesImage);
     }
 
-    private OptionalInt parseDuration(String hint) {
-        Matcher matcher = DURATION_PATTERN.matcher(hint);
-        if (matcher.find()) {
+    private DetectionResultCache.Entry<WorkoutDetectionResult> resolveWorkout(DetectionSignals signals) {
+        String equipment = signals.best(DetectedAttribute.EQUIPMENT)
+                .orElse(FALLBACK_EQUIPMENT_PRIORITY.get(0));
+        String level = signals.best(DetectedAttribute.LEVEL).orElse("beginner");
+        int duration = minutes(signals, DetectedAttribute.DURATION_MINUTES, 20);
+        return new DetectionResultCache.Entry<>(signals, new WorkoutDetectionResult(equipment, level, duration));
+    }
+
+    private DetectionResultCache.Entry<RecipeDetectionResult> resolveRecipe(DetectionSignals signals) {
+        List<String> ingredients = signals.values(DetectedAttribute.INGREDIENT);
+        int maxTime = minutes(signals, DetectedAttribute.MAX_TIME_MINUTES, 30);
+        return new DetectionResultCache.Entry<>(signals, new RecipeDetectionResult(ingredients, maxTime));
+    }
+
+    private int minutes(DetectionSignals signals, DetectedAttribute attribute, int fallback) {
+        return signals.best(attribute).map(value -> {
             try {
-                int minutes = Integer.parseInt(matcher.group(1));
-                return OptionalInt.of(minutes);
+                return Integer.parseInt(value);
             } catch (NumberFormatException ex) {
-                return OptionalInt.empty();
+                return fallback;
             }
-        }
-        return OptionalInt.empty();
-    }
-
-    private int clampDuration(int minutes) {
-        if (minutes < 10) {
-            return 10;
-        }
-        if (minutes > 90) {
-            return 90;
-        }
-        return minutes;
+        }).orElse(fallback);
     }
 
     private JsonNode buildStoredHints(ImageRequest metadata,
                                       List<String> normalizedHints,
+                                      DetectionSignals signals,
                                       String equipment,
                                       String level,
                                       int duration) {
@@ -240,11 +265,13 @@ public class ImageQueryService {
         normalized.put("level", level);
         normalized.put("targetDurationMinutes", duration);
         root.set("normalized", normalized);
+        appendDetections(root, signals);
         return root;
     }
 
     private JsonNode buildRecipeHints(ImageRequest metadata,
                                       List<String> normalizedHints,
+                                      DetectionSignals signals,
                                       List<String> ingredients,
                                       int maxTime) {
         ObjectNode root = objectMapper.createObjectNode();
@@ -261,9 +288,27 @@ public class ImageQueryService {
         normalized.set("ingredients", ingredientsNode);
         normalized.put("maxTimeMinutes", maxTime);
         root.set("normalized", normalized);
+        appendDetections(root, signals);
         return root;
     }
 
+    private void appendDetections(ObjectNode root, DetectionSignals signals) {
+        ArrayNode detections = objectMapper.createArrayNode();
+        for (DetectionSignals.SourcedDetection sourced : signals.getDetections()) {
+            ObjectNode node = detections.addObject();
+            node.put("detector", sourced.getDetector());
+            node.put("attribute", sourced.getDetection().getAttribute().name().toLowerCase(Locale.ROOT));
+            node.put("value", sourced.getDetection().getValue());
+            node.put("confidence", sourced.getDetection().getConfidence());
+        }
+        root.set("detections", detections);
+        if (!signals.getSkippedDetectors().isEmpty()) {
+            ArrayNode skipped = objectMapper.createArrayNode();
+            signals.getSkippedDetectors().forEach(skipped::add);
+            root.set("skippedDetectors", skipped);
+        }
+    }
+
     @Value
     public static class WorkoutDetectionResult {
         String equipment;
@@ -276,4 +321,10 @@ public class ImageQueryService {
         List<String> ingredients;
         int maxTimeMinutes;
     }
+
+    @Value
+    public static class CombinedDetectionResult {
+        WorkoutDetectionResult workout;
+        RecipeDetectionResult recipe;
+    }
 }
@@ -10,14 +10,18 @@ import com.fitnessapp.backend.retrieval.dto.RecipeCard;
 import com.fitnessapp.backend.retrieval.dto.RecipeStep;
 import com.fitnessapp.backend.repository.RecipeRepository;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
@@ -41,21 +45,67 @@ public class RecipeRetrievalService {
 
     @Transactional(readOnly = true)
     public List<RecipeCard> findRecipes(List<String> detectedIngredients, int maxTime) {
+        return findRecipes(detectedIngredients, maxTime, StageTimings.disabled());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeCard> findRecipes(List<String> detectedIngredients, int maxTime, StageTimings timings) {
         List<String> normalizedDetected = normalizeDetected(detectedIngredients);
+        List<Recipe> matches = normalizedDetected.isEmpty()
+                ? List.of()
+                : timings.time(StageTimings.FETCH, () -> repository.findByIngredientsContainingAny(normalizedDetected));
+        return cards(normalizedDetected, maxTime, matches, () -> fetchFallback(timings), timings);
+    }
+
+    /**
+     * Batch variant: a single candidate query for the union of all detected ingredients and at most one
+     * fallback query, shared by every context. Each context then gets exactly the cards the single-context
+     * method would return, because its matches are re-derived from the union by ingredient count.
+     */
+    @Transactional(readOnly = true)
+    public Map<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> findRecipes(
+            Collection<ImageQueryService.RecipeDetectionResult> contexts, StageTimings timings) {
+        Set<String> union = new LinkedHashSet<>();
+        contexts.forEach(context -> union.addAll(normalizeDetected(context.getIngredients())));
+        List<Recipe> candidates = union.isEmpty()
+                ? List.of()
+                : timings.time(StageTimings.FETCH, () -> repository.findByIngredientsContainingAny(union));
+
+        AtomicReference<List<Recipe>> fallback = new AtomicReference<>();
+        Supplier<List<Recipe>> sharedFallback = () -> {
+            if (fallback.get() == null) {
+                fallback.set(fetchFallback(timings));
+            }
+            return fallback.get();
+        };
+
+        Map<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> results = new LinkedHashMap<>();
+        for (ImageQueryService.RecipeDetectionResult context : contexts) {
+            List<String> normalizedDetected = normalizeDetected(context.getIngredients());
+            results.put(context, cards(normalizedDetected, context.getMaxTimeMinutes(), candidates, sharedFallback, timings));
+        }
+        return results;
+    }
+
+    private List<RecipeCard> cards(List<String> normalizedDetected,
+                                   int maxTime,
+                                   List<Recipe> matches,
+                                   Supplier<List<Recipe>> fallback,
+                                   StageTimings timings) {
         int effectiveMaxTime = maxTime > 0 ? maxTime : Integer.MAX_VALUE;
 
         if (normalizedDetected.isEmpty()) {
-            return repository.findByTimeMinutesLessThanEqualAndDifficultyIgnoreCase(DEFAULT_FALLBACK_TIME_MINUTES, DEFAULT_FALLBACK_DIFFICULTY)
-                    .stream()
+            List<Recipe> fallbackRecipes = fallback.get();
+            List<Recipe> quickest = timings.time(StageTimings.SCORE, () -> fallbackRecipes.stream()
                     .sorted(Comparator.comparing(Recipe::getTimeMinutes))
                     .limit(DEFAULT_RESULT_LIMIT)
+                    .collect(Collectors.toList()));
+            return timings.time(StageTimings.CARDS, () -> quickest.stream()
                     .map(this::toCard)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
         }
 
-        List<Recipe> matches = repository.findByIngredientsContainingAny(normalizedDetected);
-
-        List<ScoredRecipe> scoredRecipes = matches.stream()
+        List<ScoredRecipe> scoredRecipes = timings.time(StageTimings.SCORE, () -> matches.stream()
                 .filter(recipe -> recipe.getTimeMinutes() != null && recipe.getTimeMinutes() <= effectiveMaxTime)
                 .map(recipe -> new ScoredRecipe(recipe, countMatchingIngredients(recipe, normalizedDetected)))
                 .filter(scored -> scored.getMatchCount() > 0)
@@ -64,7 +114,7 @@ public class RecipeRetrievalService {
                         .thenComparing(scored -> scored.getRecipe().getTimeMinutes())
                         .thenComparing(scored -> safeDifficulty(scored.getRecipe().getDifficulty())))
                 .limit(DEFAULT_RESULT_LIMIT)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
         List<Recipe> orderedRecipes = new ArrayList<>();
         Set<String> seenRecipeIds = new HashSet<>();
@@ -72,14 +122,18 @@ public class RecipeRetrievalService {
         scoredRecipes.forEach(scored -> addIfUnique(orderedRecipes, seenRecipeIds, scored.getRecipe()));
 
         if (orderedRecipes.size() < DEFAULT_RESULT_LIMIT) {
-            repository.findByTimeMinutesLessThanEqualAndDifficultyIgnoreCase(DEFAULT_FALLBACK_TIME_MINUTES, DEFAULT_FALLBACK_DIFFICULTY)
-                    .forEach(recipe -> addIfUnique(orderedRecipes, seenRecipeIds, recipe));
+            fallback.get().forEach(recipe -> addIfUnique(orderedRecipes, seenRecipeIds, recipe));
         }
 
-        return orderedRecipes.stream()
+        return timings.time(StageTimings.CARDS, () -> orderedRecipes.stream()
                 .limit(DEFAULT_RESULT_LIMIT)
                 .map(this::toCard)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    private List<Recipe> fetchFallback(StageTimings timings) {
+        return timings.time(StageTimings.FETCH,
+                () -> repository.findByTimeMinutesLessThanEqualAndDifficultyIgnoreCase(DEFAULT_FALLBACK_TIME_MINUTES, DEFAULT_FALLBACK_DIFFICULTY));
     }
 
     private List<String> normalizeDetected(List<String> detectedIngredients) {
@@ -116,7 +170,7 @@ public class RecipeRetrievalService {
         return StringUtils.hasText(difficulty) ? difficulty.toLowerCase(Locale.ROOT) : "";
     }
 
-    private RecipeCard toCard(Recipe recipe) {
+    public RecipeCard toCard(Recipe recipe) {
         List<RecipeStep> steps = parseSteps(recipe);
         Map<String, Object> nutrition = parseNutrition(recipe);
 
@@ -0,0 +1,31 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+
+/**
+ * Builds the bounded in-process caches used on the retrieval path, each publishing the standard
+ * {@code cache.*} meters plus a {@code retrieval.cache.hit.ratio} gauge.
+ */
+final class RetrievalCaches {
+
+    private RetrievalCaches() {
+    }
+
+    static <K, V> Cache<K, V> build(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("retrieval.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(meterRegistry);
+        return cache;
+    }
+}
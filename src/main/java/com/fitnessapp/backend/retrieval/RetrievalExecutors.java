@@ -0,0 +1,39 @@
+package com.fitnessapp.backend.retrieval;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual-thread executors for the retrieval path. Kept behind a holder rather than registered as
+ * {@code Executor} beans so Spring Boot still auto-configures its own {@code applicationTaskExecutor}.
+ */
+public class RetrievalExecutors implements AutoCloseable {
+
+    private final ExecutorService detection;
+    private final ExecutorService branches;
+
+    public RetrievalExecutors() {
+        this.detection = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("detector-", 0).factory());
+        this.branches = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("retrieval-", 0).factory());
+    }
+
+    /**
+     * One virtual thread per detector invocation; detectors block on decoding and I/O, never on a pool slot.
+     */
+    public ExecutorService detection() {
+        return detection;
+    }
+
+    /**
+     * Runs independent catalog branches of one request side by side; both block on JDBC.
+     */
+    public ExecutorService branches() {
+        return branches;
+    }
+
+    @Override
+    public void close() {
+        detection.shutdownNow();
+        branches.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package com.fitnessapp.backend.retrieval;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes request and per-stage latency histograms for the retrieval endpoints:
+ * {@code retrieval.stage{catalog,stage}} and {@code retrieval.request{catalog,outcome}}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetrievalMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(String catalog, String outcome, StageTimings timings) {
+        for (StageTimings.Stage stage : timings.stages()) {
+            Timer.builder("retrieval.stage")
+                    .tag("catalog", catalog)
+                    .tag("stage", stage.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stage.nanos(), TimeUnit.NANOSECONDS);
+        }
+        Timer.builder("retrieval.request")
+                .tag("catalog", catalog)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timings.elapsedNanos(), TimeUnit.NANOSECONDS);
+    }
+}
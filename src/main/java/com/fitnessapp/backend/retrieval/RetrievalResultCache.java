@@ -0,0 +1,106 @@
+package com.fitnessapp.backend.retrieval;
+
+import com.fitnessapp.backend.catalog.CatalogChangedEvent;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ranked cards keyed by the resolved detection context. Together with {@link DetectionResultCache} a fully
+ * repeated request costs two map lookups and no database round trip.
+ */
+@Component
+public class RetrievalResultCache {
+
+    private final Cache<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> workouts;
+    private final Cache<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> recipes;
+
+    public RetrievalResultCache(RetrievalProperties properties, MeterRegistry meterRegistry) {
+        RetrievalProperties.Cache settings = properties.getCache();
+        this.workouts = RetrievalCaches.build("retrieval.result.workout",
+                settings.getResultMaxEntries(), settings.getResultTtl(), meterRegistry);
+        this.recipes = RetrievalCaches.build("retrieval.result.recipe",
+                settings.getResultMaxEntries(), settings.getResultTtl(), meterRegistry);
+    }
+
+    public List<WorkoutCard> workouts(ImageQueryService.WorkoutDetectionResult context, Supplier<List<WorkoutCard>> loader) {
+        return lookup(workouts, context, loader);
+    }
+
+    public List<RecipeCard> recipes(ImageQueryService.RecipeDetectionResult context, Supplier<List<RecipeCard>> loader) {
+        return lookup(recipes, context, loader);
+    }
+
+    /**
+     * Batch lookup: cached contexts are served from memory and {@code loader} is called once with only the
+     * misses. The returned map keeps the iteration order of {@code contexts}.
+     */
+    public Map<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> workouts(
+            Collection<ImageQueryService.WorkoutDetectionResult> contexts,
+            Function<Collection<ImageQueryService.WorkoutDetectionResult>, Map<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>>> loader) {
+        return lookupAll(workouts, contexts, loader);
+    }
+
+    public Map<ImageQueryService.RecipeDetectionResult, List<RecipeCard>> recipes(
+            Collection<ImageQueryService.RecipeDetectionResult> contexts,
+            Function<Collection<ImageQueryService.RecipeDetectionResult>, Map<ImageQueryService.RecipeDetectionResult, List<RecipeCard>>> loader) {
+        return lookupAll(recipes, contexts, loader);
+    }
+
+    public void invalidateAll() {
+        workouts.invalidateAll();
+        recipes.invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidateAll();
+    }
+
+    private static <K, V> List<V> lookup(Cache<K, List<V>> cache, K key, Supplier<List<V>> loader) {
+        // getIfPresent/put rather than get(key, fn): the loader hits the database and must not run inside
+        // the cache's per-bin lock
+        List<V> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<V> loaded = List.copyOf(loader.get());
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    private static <K, V> Map<K, List<V>> lookupAll(Cache<K, List<V>> cache,
+                                                   Collection<K> keys,
+                                                   Function<Collection<K>, Map<K, List<V>>> loader) {
+        Map<K, List<V>> present = cache.getAllPresent(keys);
+        List<K> missing = keys.stream()
+                .filter(key -> !present.containsKey(key))
+                .distinct()
+                .toList();
+        Map<K, List<V>> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach((key, value) -> {
+                List<V> copy = List.copyOf(value);
+                cache.put(key, copy);
+                loaded.put(key, copy);
+            });
+        }
+        Map<K, List<V>> results = new LinkedHashMap<>();
+        for (K key : keys) {
+            List<V> value = present.containsKey(key) ? present.get(key) : loaded.getOrDefault(key, List.of());
+            results.put(key, value);
+        }
+        return results;
+    }
+}
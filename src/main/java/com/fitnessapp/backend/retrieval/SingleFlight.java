@@ -0,0 +1,112 @@
+package com.fitnessapp.backend.retrieval;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Collapses concurrent computations for the same key into one. The first caller submits the loader to the
+ * shared executor, detached from its own thread, and every caller, the first included, waits for that one
+ * result instead of repeating the work. A caller that times out or is interrupted (a combined branch hitting
+ * its deadline is cancelled that way) only stops waiting: the flight keeps running for the others, so one slow
+ * client cannot fail identical queries of unrelated requests. A failure of the loader itself reaches every
+ * waiter, and a caller that joined somebody else's flight gives up with 503 after {@code maxWait} rather than
+ * queueing behind a stuck query. Nothing is kept once the computation finishes, so this is not a cache.
+ *
+ * <p>Publishes {@code retrieval.coalesced{catalog,outcome}}, counting requests that joined somebody else's
+ * flight ({@code joined}) and those that stopped waiting ({@code timed_out}).
+ */
+public class SingleFlight<K, V> {
+
+    private static final long NO_TIMEOUT = -1L;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Counter joined;
+    private final Counter timedOut;
+
+    public SingleFlight(String catalog,
+                        Executor executor,
+                        boolean enabled,
+                        Duration maxWait,
+                        MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.joined = Counter.builder("retrieval.coalesced")
+                .tag("catalog", catalog)
+                .tag("outcome", "joined")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("retrieval.coalesced")
+                .tag("catalog", catalog)
+                .tag("outcome", "timed_out")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            return await(existing, maxWaitNanos);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    flight.complete(loader.get());
+                } catch (RuntimeException | Error ex) {
+                    flight.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(ex);
+            throw ex;
+        }
+        // no deadline of its own for the leader: its caller bounds it by interrupting, as branches do
+        return await(flight, NO_TIMEOUT);
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> flight, long timeoutNanos) {
+        try {
+            return timeoutNanos == NO_TIMEOUT ? flight.get() : flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            timedOut.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for an identical in-flight query");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for an identical in-flight query");
+        } catch (ExecutionException ex) {
+            // rethrow the loader's failure unchanged so every waiter surfaces the same status
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
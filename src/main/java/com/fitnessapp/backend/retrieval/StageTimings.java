@@ -0,0 +1,131 @@
+package com.fitnessapp.backend.retrieval;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock durations of the stages of one request. Threads working on the same request (for example the
+ * workout and recipe branches of the combined endpoint) may record concurrently; repeated stage names are
+ * summed. {@link #disabled()} is a no-op instance for callers that do not care about timings.
+ */
+public final class StageTimings {
+
+    public static final String UPLOAD = "upload";
+    public static final String DEDUPE = "dedupe";
+    public static final String DETECT = "detect";
+    public static final String PERSIST = "persist";
+    public static final String FETCH = "fetch";
+    public static final String SCORE = "score";
+    public static final String CARDS = "cards";
+
+    private static final StageTimings DISABLED = new StageTimings(false);
+
+    private final boolean enabled;
+    private final long startNanos;
+    private final Queue<Stage> stages;
+    private final String prefix;
+
+    private StageTimings(boolean enabled) {
+        this(enabled, System.nanoTime(), new ConcurrentLinkedQueue<>(), "");
+    }
+
+    private StageTimings(boolean enabled, long startNanos, Queue<Stage> stages, String prefix) {
+        this.enabled = enabled;
+        this.startNanos = startNanos;
+        this.stages = stages;
+        this.prefix = prefix;
+    }
+
+    public static StageTimings start() {
+        return new StageTimings(true);
+    }
+
+    public static StageTimings disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * A view that records into the same request under {@code prefix-stage} names, so concurrent branches
+     * keep their stages apart.
+     */
+    public StageTimings scoped(String scope) {
+        if (!enabled) {
+            return this;
+        }
+        return new StageTimings(true, startNanos, stages, prefix + scope + "-");
+    }
+
+    public <T> T time(String stage, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recordSince(stage, start);
+        }
+    }
+
+    public void run(String stage, Runnable work) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void recordSince(String stage, long startNanos) {
+        if (enabled) {
+            stages.add(new Stage(prefix + stage, System.nanoTime() - startNanos));
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int elapsedMillis() {
+        return (int) Math.min(Integer.MAX_VALUE, elapsedNanos() / 1_000_000L);
+    }
+
+    /**
+     * Recorded stages in first-seen order, with repeated names summed.
+     */
+    public List<Stage> stages() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (Stage stage : stages) {
+            totals.merge(stage.name(), stage.nanos(), Long::sum);
+        }
+        List<Stage> result = new ArrayList<>(totals.size());
+        totals.forEach((name, nanos) -> result.add(new Stage(name, nanos)));
+        return result;
+    }
+
+    /**
+     * Renders the stages plus the running total as an RFC 8673-style {@code Server-Timing} header value.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Stage stage : stages()) {
+            appendMetric(header, stage.name(), stage.nanos());
+        }
+        appendMetric(header, "total", elapsedNanos());
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000D));
+    }
+
+    public record Stage(String name, long nanos) {
+    }
+}
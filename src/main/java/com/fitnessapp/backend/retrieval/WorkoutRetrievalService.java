@@ -4,10 +4,14 @@ import com.fitnessapp.backend.domain.WorkoutVideo;
 import com.fitnessapp.backend.repository.WorkoutVideoRepository;
 import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -27,16 +31,63 @@ public class WorkoutRetrievalService {
     private final WorkoutVideoRepository repository;
 
     public List<WorkoutCard> findWorkouts(String equipment, String level, int durationPreference) {
+        return findWorkouts(equipment, level, durationPreference, StageTimings.disabled());
+    }
+
+    public List<WorkoutCard> findWorkouts(String equipment, String level, int durationPreference, StageTimings timings) {
         if (!StringUtils.hasText(equipment)) {
             log.warn("Equipment not provided; returning empty workout list");
             return List.of();
         }
 
-        List<WorkoutVideo> exactMatches = repository.findByEquipmentContaining(equipment.trim().toLowerCase(Locale.ROOT));
+        List<WorkoutVideo> exactMatches = timings.time(StageTimings.FETCH,
+                () -> repository.findByEquipmentContaining(equipment.trim().toLowerCase(Locale.ROOT)));
         if (exactMatches.isEmpty()) {
             return List.of();
         }
 
+        return cards(exactMatches, level, durationPreference, timings);
+    }
+
+    /**
+     * Batch variant: one candidate query for the union of all requested equipment, then each context is ranked
+     * against its own slice of the candidates exactly as {@link #findWorkouts(String, String, int, StageTimings)}
+     * would rank it.
+     */
+    public Map<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> findWorkouts(
+            Collection<ImageQueryService.WorkoutDetectionResult> contexts, StageTimings timings) {
+        Set<String> equipment = contexts.stream()
+                .map(ImageQueryService.WorkoutDetectionResult::getEquipment)
+                .filter(StringUtils::hasText)
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<WorkoutVideo> candidates = equipment.isEmpty()
+                ? List.of()
+                : timings.time(StageTimings.FETCH, () -> repository.findByEquipmentContainingAny(equipment));
+
+        Map<ImageQueryService.WorkoutDetectionResult, List<WorkoutCard>> results = new LinkedHashMap<>();
+        for (ImageQueryService.WorkoutDetectionResult context : contexts) {
+            if (!StringUtils.hasText(context.getEquipment())) {
+                results.put(context, List.of());
+                continue;
+            }
+            String wanted = context.getEquipment().trim().toLowerCase(Locale.ROOT);
+            List<WorkoutVideo> matches = candidates.stream()
+                    .filter(video -> video.getEquipment() != null && video.getEquipment().contains(wanted))
+                    .collect(Collectors.toList());
+            results.put(context, matches.isEmpty()
+                    ? List.of()
+                    : cards(matches, context.getLevel(), context.getDurationMinutes(), timings));
+        }
+        return results;
+    }
+
+    private List<WorkoutCard> cards(List<WorkoutVideo> exactMatches, String level, int durationPreference, StageTimings timings) {
+        List<WorkoutVideo> sorted = timings.time(StageTimings.SCORE, () -> rank(exactMatches, level, durationPreference));
+        return timings.time(StageTimings.CARDS, () -> selectDiverseWorkouts(sorted, DEFAULT_RESULT_LIMIT));
+    }
+
+    private List<WorkoutVideo> rank(List<WorkoutVideo> exactMatches, String level, int durationPreference) {
         List<WorkoutVideo> durationMatches = exactMatches.stream()
                 .filter(video -> video.getDurationMinutes() != null)
                 .filter(video -> Math.abs(video.getDurationMinutes() - durationPreference) <= DEFAULT_DURATION_TOLERANCE_MINUTES)
@@ -48,7 +99,7 @@ public class WorkoutRetrievalService {
                 .max()
                 .orElse(0D);
 
-        List<WorkoutVideo> sorted = basePool.stream()
+        return basePool.stream()
                 .map(video -> new ScoredWorkout(video, computeScore(video, level, durationPreference, maxViewCount)))
                 .sorted(Comparator
                         .comparingDouble(ScoredWorkout::score)
@@ -57,8 +108,6 @@ public class WorkoutRetrievalService {
                         .thenComparing(scored -> viewCountOrZero(scored.video()), Comparator.reverseOrder()))
                 .map(ScoredWorkout::video)
                 .collect(Collectors.toList());
-
-        return selectDiverseWorkouts(sorted, DEFAULT_RESULT_LIMIT);
     }
 
     private static boolean levelMatches(WorkoutVideo video, String requestedLevel) {
@@ -156,7 +205,7 @@ public class WorkoutRetrievalService {
         addedIds.add(uniqueId);
     }
 
-    private WorkoutCard toCard(WorkoutVideo video) {
+    public WorkoutCard toCard(WorkoutVideo video) {
         List<String> equipment = video.getEquipment();
         List<String> bodyParts = video.getBodyPart();
         String youtubeUrl = StringUtils.hasText(video.getYoutubeId())
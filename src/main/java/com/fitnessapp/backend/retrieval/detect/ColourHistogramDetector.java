@@ -0,0 +1,116 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coarse colour histogram over the shared low-resolution preview. Large areas of dark, unsaturated pixels
+ * usually mean iron or rubber weights; saturated purple/teal surfaces are typically yoga mats. For recipes,
+ * dominant greens and salmon-pinks map to the matching ingredients. All guesses stay well below hint
+ * confidence and scale with how much of the frame matches.
+ */
+@Component
+@Order(20)
+public class ColourHistogramDetector implements ContextDetector {
+
+    private static final double MAX_CONFIDENCE = 0.4D;
+
+    @Override
+    public String name() {
+        return "colour-histogram";
+    }
+
+    @Override
+    public boolean usesImage() {
+        return true;
+    }
+
+    @Override
+    public List<Detection> detect(DetectionInput input) throws Exception {
+        if (!input.hasImage()) {
+            return List.of();
+        }
+        Optional<BufferedImage> preview = input.getImage().preview();
+        if (preview.isEmpty()) {
+            return List.of();
+        }
+        Histogram histogram = Histogram.of(preview.get());
+        if (histogram == null) {
+            return List.of();
+        }
+        List<Detection> detections = new ArrayList<>();
+        if (input.getTarget() == DetectionTarget.WORKOUT) {
+            guess(detections, DetectedAttribute.EQUIPMENT, "dumbbells", histogram.darkNeutral, 0.35D);
+            guess(detections, DetectedAttribute.EQUIPMENT, "mat", histogram.vividCool, 0.25D);
+        } else {
+            guess(detections, DetectedAttribute.INGREDIENT, "vegetable", histogram.green, 0.2D);
+            guess(detections, DetectedAttribute.INGREDIENT, "salmon", histogram.salmon, 0.15D);
+        }
+        return detections;
+    }
+
+    private static void guess(List<Detection> detections, DetectedAttribute attribute, String value,
+                              double share, double threshold) {
+        if (share < threshold) {
+            return;
+        }
+        double confidence = MAX_CONFIDENCE * Math.min(1D, share / (threshold * 2D));
+        detections.add(Detection.of(attribute, value, confidence));
+    }
+
+    private static final class Histogram {
+        double darkNeutral;
+        double vividCool;
+        double green;
+        double salmon;
+
+        /**
+         * @return the shares of each colour class, or {@code null} when interrupted part-way
+         */
+        static Histogram of(BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] row = new int[width];
+            float[] hsb = new float[3];
+            int darkNeutral = 0;
+            int vividCool = 0;
+            int green = 0;
+            int salmon = 0;
+            for (int y = 0; y < height; y++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return null;
+                }
+                image.getRGB(0, y, width, 1, row, 0, width);
+                for (int x = 0; x < width; x++) {
+                    int rgb = row[x];
+                    Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, hsb);
+                    float hue = hsb[0] * 360F;
+                    float saturation = hsb[1];
+                    float brightness = hsb[2];
+                    if (brightness < 0.25F && saturation < 0.3F) {
+                        darkNeutral++;
+                    } else if (saturation > 0.5F && brightness > 0.4F && (hue >= 160F && hue <= 340F)) {
+                        vividCool++;
+                    }
+                    if (saturation > 0.35F && brightness > 0.25F && hue >= 70F && hue <= 170F) {
+                        green++;
+                    } else if (saturation > 0.35F && saturation < 0.8F && brightness > 0.5F && hue >= 5F && hue <= 30F) {
+                        salmon++;
+                    }
+                }
+            }
+            double pixels = Math.max(1, width * height);
+            Histogram histogram = new Histogram();
+            histogram.darkNeutral = darkNeutral / pixels;
+            histogram.vividCool = vividCool / pixels;
+            histogram.green = green / pixels;
+            histogram.salmon = salmon / pixels;
+            return histogram;
+        }
+    }
+}
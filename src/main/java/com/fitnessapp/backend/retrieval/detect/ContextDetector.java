@@ -0,0 +1,30 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import java.util.List;
+
+/**
+ * Extension point for anything that can infer workout or recipe context from a request. Implementations are
+ * Spring beans picked up by {@link DetectorPipeline}; they run concurrently on virtual threads and may be
+ * interrupted once the request deadline passes, so long loops should check {@link Thread#isInterrupted()}.
+ */
+public interface ContextDetector {
+
+    /**
+     * Stable identifier used for metrics, stored hints and per-detector budgets in configuration.
+     */
+    String name();
+
+    default boolean supports(DetectionTarget target) {
+        return true;
+    }
+
+    /**
+     * Whether results depend on the uploaded photo. Detectors that only look at hints are a pure function of
+     * the de-duplicated hint list, which lets their output be cached across requests.
+     */
+    default boolean usesImage() {
+        return false;
+    }
+
+    List<Detection> detect(DetectionInput input) throws Exception;
+}
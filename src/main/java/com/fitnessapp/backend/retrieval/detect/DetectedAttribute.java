@@ -0,0 +1,30 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+public enum DetectedAttribute {
+    EQUIPMENT(false),
+    LEVEL(false),
+    DURATION_MINUTES(false),
+    INGREDIENT(true),
+    MAX_TIME_MINUTES(false),
+    /**
+     * Photo facts from the file header ({@code portrait}, {@code landscape}, {@code square}; {@code <w>x<h>};
+     * the EXIF camera make). They describe the upload rather than the context, so they do not change the
+     * resolved workout or recipe query and are only recorded with it.
+     */
+    ORIENTATION(false),
+    DIMENSIONS(false),
+    CAMERA_MAKE(false);
+
+    private final boolean multiValued;
+
+    DetectedAttribute(boolean multiValued) {
+        this.multiValued = multiValued;
+    }
+
+    /**
+     * Multi-valued attributes keep every sufficiently confident value instead of only the best one.
+     */
+    public boolean isMultiValued() {
+        return multiValued;
+    }
+}
@@ -0,0 +1,18 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import lombok.Value;
+
+/**
+ * A single guess produced by a detector. Confidence is in {@code [0, 1]}; explicit user hints sit near the top
+ * of the range and pixel heuristics near the bottom, so merging naturally prefers what the user told us.
+ */
+@Value
+public class Detection {
+    DetectedAttribute attribute;
+    String value;
+    double confidence;
+
+    public static Detection of(DetectedAttribute attribute, String value, double confidence) {
+        return new Detection(attribute, value, Math.max(0D, Math.min(1D, confidence)));
+    }
+}
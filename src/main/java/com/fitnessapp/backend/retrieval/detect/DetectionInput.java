@@ -0,0 +1,26 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DetectionInput {
+    DetectionTarget target;
+    /**
+     * Trimmed, lower-cased user hints in request order.
+     */
+    @Builder.Default
+    List<String> hints = List.of();
+    String imageUrl;
+    /**
+     * The uploaded photo, or {@code null} for metadata-only requests.
+     */
+    IngestedImage image;
+
+    public boolean hasImage() {
+        return image != null && !image.isEmpty();
+    }
+}
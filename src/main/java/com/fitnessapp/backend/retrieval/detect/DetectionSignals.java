@@ -0,0 +1,108 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * Detections from every detector that finished in time, merged by confidence. Single-valued attributes resolve
+ * to the most confident value (earlier detectors win ties); multi-valued attributes keep every value whose
+ * confidence is at least half of the strongest one.
+ */
+public final class DetectionSignals {
+
+    private static final double MULTI_VALUE_RELATIVE_CUTOFF = 0.5D;
+
+    private final List<SourcedDetection> detections;
+    private final Set<String> skippedDetectors;
+    private final Map<DetectedAttribute, List<String>> merged;
+
+    private DetectionSignals(List<SourcedDetection> detections, Set<String> skippedDetectors) {
+        this.detections = List.copyOf(detections);
+        this.skippedDetectors = Set.copyOf(skippedDetectors);
+        this.merged = merge(this.detections);
+    }
+
+    public static DetectionSignals of(List<SourcedDetection> detections, Set<String> skippedDetectors) {
+        return new DetectionSignals(detections, skippedDetectors);
+    }
+
+    public static DetectionSignals empty() {
+        return new DetectionSignals(List.of(), Set.of());
+    }
+
+    /**
+     * Combines two partial results; on equal confidence this instance's detections win.
+     */
+    public DetectionSignals plus(DetectionSignals other) {
+        if (other.detections.isEmpty() && other.skippedDetectors.isEmpty()) {
+            return this;
+        }
+        List<SourcedDetection> combined = new ArrayList<>(detections);
+        combined.addAll(other.detections);
+        Set<String> skipped = new LinkedHashSet<>(skippedDetectors);
+        skipped.addAll(other.skippedDetectors);
+        return new DetectionSignals(combined, skipped);
+    }
+
+    public boolean isComplete() {
+        return skippedDetectors.isEmpty();
+    }
+
+    public Optional<String> best(DetectedAttribute attribute) {
+        List<String> values = merged.getOrDefault(attribute, List.of());
+        return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+    }
+
+    public List<String> values(DetectedAttribute attribute) {
+        return merged.getOrDefault(attribute, List.of());
+    }
+
+    public List<SourcedDetection> getDetections() {
+        return detections;
+    }
+
+    /**
+     * Detectors that timed out or failed and therefore contributed nothing.
+     */
+    public Set<String> getSkippedDetectors() {
+        return skippedDetectors;
+    }
+
+    private static Map<DetectedAttribute, List<String>> merge(List<SourcedDetection> detections) {
+        Map<DetectedAttribute, List<SourcedDetection>> byAttribute = new EnumMap<>(DetectedAttribute.class);
+        for (SourcedDetection sourced : detections) {
+            byAttribute.computeIfAbsent(sourced.getDetection().getAttribute(), key -> new ArrayList<>()).add(sourced);
+        }
+        Map<DetectedAttribute, List<String>> merged = new EnumMap<>(DetectedAttribute.class);
+        byAttribute.forEach((attribute, candidates) -> {
+            // List.sort is stable, so detector and emission order break ties
+            candidates.sort(Comparator.comparingDouble((SourcedDetection c) -> c.getDetection().getConfidence()).reversed());
+            if (!attribute.isMultiValued()) {
+                merged.put(attribute, List.of(candidates.get(0).getDetection().getValue()));
+                return;
+            }
+            double cutoff = candidates.get(0).getDetection().getConfidence() * MULTI_VALUE_RELATIVE_CUTOFF;
+            Set<String> values = new LinkedHashSet<>();
+            for (SourcedDetection candidate : candidates) {
+                if (candidate.getDetection().getConfidence() >= cutoff) {
+                    values.add(candidate.getDetection().getValue());
+                }
+            }
+            merged.put(attribute, List.copyOf(values));
+        });
+        return merged;
+    }
+
+    @Value
+    public static class SourcedDetection {
+        String detector;
+        Detection detection;
+    }
+}
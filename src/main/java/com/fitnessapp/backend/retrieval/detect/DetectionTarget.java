@@ -0,0 +1,6 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+public enum DetectionTarget {
+    WORKOUT,
+    RECIPE
+}
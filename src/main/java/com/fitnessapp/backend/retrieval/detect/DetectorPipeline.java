@@ -0,0 +1,127 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.RetrievalExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every applicable {@link ContextDetector} concurrently and merges what comes back by confidence. The
+ * request waits at most for the configured deadline (or a tighter per-detector budget); detectors still
+ * running at that point are cancelled and simply contribute nothing.
+ */
+@Component
+@Slf4j
+public class DetectorPipeline {
+
+    private final List<ContextDetector> detectors;
+    private final ExecutorService executor;
+    private final RetrievalProperties.Detection settings;
+    private final MeterRegistry meterRegistry;
+
+    public DetectorPipeline(List<ContextDetector> detectors,
+                            RetrievalExecutors executors,
+                            RetrievalProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.detectors = List.copyOf(detectors);
+        this.executor = executors.detection();
+        this.settings = properties.getDetection();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DetectionSignals detect(DetectionInput input) {
+        return detect(input, detector -> true);
+    }
+
+    /**
+     * Runs only the detectors accepted by {@code selector}, for example just the image-based ones when the
+     * hint-based signals are already cached.
+     */
+    public DetectionSignals detect(DetectionInput input, Predicate<ContextDetector> selector) {
+        List<ContextDetector> applicable = detectors.stream()
+                .filter(detector -> detector.supports(input.getTarget()))
+                .filter(selector)
+                .toList();
+        if (applicable.isEmpty()) {
+            return DetectionSignals.empty();
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + settings.getDeadline().toNanos();
+        List<Future<List<Detection>>> futures = new ArrayList<>(applicable.size());
+        for (ContextDetector detector : applicable) {
+            futures.add(executor.submit(() -> runTimed(detector, input)));
+        }
+
+        List<DetectionSignals.SourcedDetection> collected = new ArrayList<>();
+        Set<String> skipped = new LinkedHashSet<>();
+        for (int i = 0; i < applicable.size(); i++) {
+            ContextDetector detector = applicable.get(i);
+            Future<List<Detection>> future = futures.get(i);
+            long detectorDeadline = Math.min(deadline, start + budget(detector).toNanos());
+            try {
+                List<Detection> detections = future.get(Math.max(0L, detectorDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                outcome(detector, "success");
+                if (detections == null) {
+                    continue;
+                }
+                for (Detection detection : detections) {
+                    if (detection != null && detection.getConfidence() >= settings.getMinConfidence()) {
+                        collected.add(new DetectionSignals.SourcedDetection(detector.name(), detection));
+                    }
+                }
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                skipped.add(detector.name());
+                outcome(detector, "timeout");
+            } catch (ExecutionException ex) {
+                skipped.add(detector.name());
+                outcome(detector, "error");
+                log.debug("Detector {} failed: {}", detector.name(), ex.getCause() == null ? ex.getMessage() : ex.getCause().getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < futures.size(); j++) {
+                    futures.get(j).cancel(true);
+                    skipped.add(applicable.get(j).name());
+                }
+                break;
+            }
+        }
+        return DetectionSignals.of(collected, skipped);
+    }
+
+    private List<Detection> runTimed(ContextDetector detector, DetectionInput input) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return detector.detect(input);
+        } finally {
+            Timer.builder("retrieval.detector.latency")
+                    .tag("detector", detector.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Duration budget(ContextDetector detector) {
+        Duration budget = settings.getBudgets().get(detector.name());
+        return budget != null ? budget : settings.getDeadline();
+    }
+
+    private void outcome(ContextDetector detector, String outcome) {
+        meterRegistry.counter("retrieval.detector.outcome", "detector", detector.name(), "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,196 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Parses the free-text hints the user typed next to the photo. Exact alias matches are the strongest signal
+ * the pipeline has, so they carry the highest confidence.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HintDetector implements ContextDetector {
+
+    static final double EXACT_CONFIDENCE = 0.9D;
+    static final double PARTIAL_CONFIDENCE = 0.7D;
+
+    private static final Map<String, String> EQUIPMENT_ALIASES = Map.ofEntries(
+            Map.entry("dumbbell", "dumbbells"),
+            Map.entry("dumbbells", "dumbbells"),
+            Map.entry("kettlebell", "kettlebell"),
+            Map.entry("kettlebells", "kettlebell"),
+            Map.entry("resistance band", "resistance_bands"),
+            Map.entry("resistance bands", "resistance_bands"),
+            Map.entry("band", "resistance_bands"),
+            Map.entry("yoga mat", "mat"),
+            Map.entry("mat", "mat"),
+            Map.entry("barbell", "barbell"),
+            Map.entry("bodyweight", "bodyweight")
+    );
+
+    private static final Pattern DURATION_PATTERN = Pattern.compile("(\\d{2,3})\\s*(min|minutes|m)?");
+
+    private static final Map<String, String> INGREDIENT_ALIASES = Map.ofEntries(
+            Map.entry("chicken", "chicken"),
+            Map.entry("salmon", "salmon"),
+            Map.entry("tofu", "tofu"),
+            Map.entry("shrimp", "shrimp"),
+            Map.entry("turkey", "turkey"),
+            Map.entry("beef", "beef"),
+            Map.entry("steak", "beef"),
+            Map.entry("broccoli", "broccoli"),
+            Map.entry("quinoa", "quinoa"),
+            Map.entry("rice", "rice"),
+            Map.entry("pasta", "pasta"),
+            Map.entry("egg", "eggs"),
+            Map.entry("eggs", "eggs"),
+            Map.entry("spinach", "spinach"),
+            Map.entry("vegetable", "vegetable"),
+            Map.entry("veggie", "vegetable")
+    );
+
+    /**
+     * Alias to canonical equipment tag, as matched against user hints.
+     */
+    public static Map<String, String> equipmentAliases() {
+        return EQUIPMENT_ALIASES;
+    }
+
+    /**
+     * Alias to canonical ingredient name, as matched against user hints.
+     */
+    public static Map<String, String> ingredientAliases() {
+        return INGREDIENT_ALIASES;
+    }
+
+    @Override
+    public String name() {
+        return "hints";
+    }
+
+    @Override
+    public List<Detection> detect(DetectionInput input) {
+        List<String> hints = input.getHints();
+        if (hints.isEmpty()) {
+            return List.of();
+        }
+        List<Detection> detections = new ArrayList<>();
+        if (input.getTarget() == DetectionTarget.WORKOUT) {
+            detectEquipment(hints, detections);
+            detectLevel(hints, detections);
+            firstDuration(hints).ifPresent(minutes ->
+                    detections.add(Detection.of(DetectedAttribute.DURATION_MINUTES, String.valueOf(minutes), EXACT_CONFIDENCE)));
+        } else {
+            for (String ingredient : resolveIngredients(hints)) {
+                detections.add(Detection.of(DetectedAttribute.INGREDIENT, ingredient, EXACT_CONFIDENCE));
+            }
+            firstDuration(hints).ifPresent(minutes ->
+                    detections.add(Detection.of(DetectedAttribute.MAX_TIME_MINUTES, String.valueOf(minutes), EXACT_CONFIDENCE)));
+        }
+        return detections;
+    }
+
+    private void detectEquipment(List<String> hints, List<Detection> detections) {
+        for (String hint : hints) {
+            String normalized = EQUIPMENT_ALIASES.get(hint);
+            if (normalized != null) {
+                detections.add(Detection.of(DetectedAttribute.EQUIPMENT, normalized, EXACT_CONFIDENCE));
+                return;
+            }
+        }
+        // attempt partial matches
+        for (String hint : hints) {
+            for (Map.Entry<String, String> alias : EQUIPMENT_ALIASES.entrySet()) {
+                if (hint.contains(alias.getKey())) {
+                    detections.add(Detection.of(DetectedAttribute.EQUIPMENT, alias.getValue(), PARTIAL_CONFIDENCE));
+                    return;
+                }
+            }
+        }
+    }
+
+    private void detectLevel(List<String> hints, List<Detection> detections) {
+        for (String hint : hints) {
+            String level = null;
+            if (hint.contains("advanced")) {
+                level = "advanced";
+            } else if (hint.contains("intermediate")) {
+                level = "intermediate";
+            } else if (hint.contains("beginner") || hint.contains("easy")) {
+                level = "beginner";
+            }
+            if (level != null) {
+                detections.add(Detection.of(DetectedAttribute.LEVEL, level, EXACT_CONFIDENCE));
+                return;
+            }
+        }
+    }
+
+    private OptionalInt firstDuration(List<String> hints) {
+        for (String hint : hints) {
+            OptionalInt parsed = parseDuration(hint);
+            if (parsed.isPresent()) {
+                return OptionalInt.of(clampDuration(parsed.getAsInt()));
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private List<String> resolveIngredients(List<String> hints) {
+        Set<String> detected = new LinkedHashSet<>();
+        for (String hint : hints) {
+            if (!StringUtils.hasText(hint)) {
+                continue;
+            }
+            String normalized = hint.toLowerCase(Locale.ROOT);
+            INGREDIENT_ALIASES.forEach((alias, canonical) -> {
+                if (normalized.equals(alias) || normalized.contains(alias)) {
+                    detected.add(canonical);
+                }
+            });
+            for (String token : normalized.split("[^a-z]+")) {
+                if (!token.isBlank()) {
+                    String canonical = INGREDIENT_ALIASES.get(token);
+                    if (canonical != null) {
+                        detected.add(canonical);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(detected);
+    }
+
+    private OptionalInt parseDuration(String hint) {
+        Matcher matcher = DURATION_PATTERN.matcher(hint);
+        if (matcher.find()) {
+            try {
+                int minutes = Integer.parseInt(matcher.group(1));
+                return OptionalInt.of(minutes);
+            } catch (NumberFormatException ex) {
+                return OptionalInt.empty();
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private int clampDuration(int minutes) {
+        if (minutes < 10) {
+            return 10;
+        }
+        if (minutes > 90) {
+            return 90;
+        }
+        return minutes;
+    }
+}
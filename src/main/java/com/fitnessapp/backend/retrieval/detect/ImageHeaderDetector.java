@@ -0,0 +1,66 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import com.fitnessapp.backend.retrieval.image.ExifMetadata;
+import com.fitnessapp.backend.retrieval.image.ImageFormat;
+import com.fitnessapp.backend.retrieval.image.ImageHeader;
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports what the sniffed header and EXIF tags say about the photo itself: displayed orientation and
+ * dimensions (EXIF rotation applied) and the camera make. It costs nothing beyond what ingestion already read.
+ * The header carries no evidence about equipment or ingredients, so this detector guesses neither; its
+ * signals are recorded with the query for tuning the pixel-based detectors.
+ */
+@Component
+@Order(10)
+public class ImageHeaderDetector implements ContextDetector {
+
+    // read from the file, not inferred
+    private static final double CONFIDENCE = 1.0D;
+
+    @Override
+    public String name() {
+        return "image-header";
+    }
+
+    @Override
+    public boolean usesImage() {
+        return true;
+    }
+
+    @Override
+    public List<Detection> detect(DetectionInput input) {
+        if (!input.hasImage()) {
+            return List.of();
+        }
+        IngestedImage image = input.getImage();
+        ImageHeader header = image.getHeader();
+        ExifMetadata exif = header.format() == ImageFormat.JPEG
+                ? ExifMetadata.read(image.getHeaderBytes(), image.getHeaderBytes().length)
+                : ExifMetadata.none();
+
+        List<Detection> detections = new ArrayList<>(3);
+        if (header.hasDimensions()) {
+            int width = exif.swapsAxes() ? header.height() : header.width();
+            int height = exif.swapsAxes() ? header.width() : header.height();
+            detections.add(Detection.of(DetectedAttribute.ORIENTATION, orientation(width, height), CONFIDENCE));
+            detections.add(Detection.of(DetectedAttribute.DIMENSIONS, width + "x" + height, CONFIDENCE));
+        }
+        if (exif.cameraMake() != null) {
+            detections.add(Detection.of(DetectedAttribute.CAMERA_MAKE, exif.cameraMake().toLowerCase(Locale.ROOT), CONFIDENCE));
+        }
+        return detections;
+    }
+
+    private static String orientation(int width, int height) {
+        if (width == height) {
+            return "square";
+        }
+        return width > height ? "landscape" : "portrait";
+    }
+}
@@ -0,0 +1,15 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+public class BatchContentRequest {
+    @Singular
+    List<ImageRequest> items;
+}
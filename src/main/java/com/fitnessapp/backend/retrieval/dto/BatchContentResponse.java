@@ -0,0 +1,21 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchContentResponse {
+    /**
+     * One entry per submitted item, in submission order.
+     */
+    List<ContentResponse> results;
+    Integer distinctWorkoutContexts;
+    Integer distinctRecipeContexts;
+    Integer latencyMs;
+}
@@ -0,0 +1,21 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContentResponse {
+    WorkoutResponse workouts;
+    RecipeResponse recipes;
+    /**
+     * Catalogs ({@code workouts}, {@code recipes}) that timed out or failed and are missing from this response.
+     */
+    List<String> unavailable;
+    Integer latencyMs;
+}
@@ -0,0 +1,22 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Detected context for both catalogs; the first event of a streamed response.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DetectionSummary {
+    String detectedEquipment;
+    String detectedLevel;
+    Integer targetDurationMinutes;
+    List<String> detectedIngredients;
+    Integer maxTimeMinutes;
+}
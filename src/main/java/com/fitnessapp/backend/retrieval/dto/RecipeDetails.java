@@ -0,0 +1,21 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Step and nutrition enrichment for a recipe card that was streamed earlier without them.
+ */
+@Value
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecipeDetails {
+    String id;
+    List<RecipeStep> steps;
+    Map<String, Object> nutrition;
+}
@@ -0,0 +1,135 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The few IFD0 tags of a JPEG's EXIF (APP1) segment that describe how a photo was taken, read from the retained
+ * header bytes without decoding anything. Anything missing or malformed reads as absent.
+ *
+ * @param orientation EXIF orientation, {@code 1} (upright) when absent
+ * @param cameraMake  trimmed camera manufacturer, or {@code null} when absent
+ */
+public record ExifMetadata(int orientation, String cameraMake) {
+
+    private static final ExifMetadata NONE = new ExifMetadata(1, null);
+
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int TAG_MAKE = 0x010F;
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TYPE_ASCII = 2;
+    private static final int MAX_MAKE_LENGTH = 64;
+
+    public static ExifMetadata none() {
+        return NONE;
+    }
+
+    /**
+     * Orientations 5 to 8 rotate the stored pixels by 90 degrees, so the displayed width is the stored height.
+     */
+    public boolean swapsAxes() {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    public static ExifMetadata read(byte[] data, int length) {
+        if (length < 4 || u8(data, 0) != 0xFF || u8(data, 1) != MARKER_SOI) {
+            return NONE;
+        }
+        int position = 2;
+        while (position + 4 <= length) {
+            if (u8(data, position) != 0xFF) {
+                return NONE;
+            }
+            int marker = u8(data, position + 1);
+            if (marker == MARKER_SOS) {
+                return NONE;
+            }
+            int segmentLength = (u8(data, position + 2) << 8) | u8(data, position + 3);
+            int payload = position + 4;
+            if (marker == MARKER_APP1 && isExifHeader(data, payload, length)) {
+                return readIfd0(data, payload + 6, Math.min(length, position + 2 + segmentLength));
+            }
+            position += 2 + segmentLength;
+        }
+        return NONE;
+    }
+
+    private static boolean isExifHeader(byte[] data, int offset, int length) {
+        return offset + 6 <= length
+                && data[offset] == 'E' && data[offset + 1] == 'x' && data[offset + 2] == 'i' && data[offset + 3] == 'f'
+                && data[offset + 4] == 0 && data[offset + 5] == 0;
+    }
+
+    private static ExifMetadata readIfd0(byte[] data, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return NONE;
+        }
+        boolean littleEndian;
+        if (data[tiff] == 'I' && data[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (data[tiff] == 'M' && data[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return NONE;
+        }
+        if (u16(data, tiff + 2, littleEndian) != 42) {
+            return NONE;
+        }
+        long ifd0 = tiff + u32(data, tiff + 4, littleEndian);
+        if (ifd0 + 2 > end) {
+            return NONE;
+        }
+        int entries = u16(data, (int) ifd0, littleEndian);
+        int orientation = 1;
+        String make = null;
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd0 + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            int tag = u16(data, entry, littleEndian);
+            if (tag == TAG_ORIENTATION) {
+                int value = u16(data, entry + 8, littleEndian);
+                orientation = value >= 1 && value <= 8 ? value : 1;
+            } else if (tag == TAG_MAKE && u16(data, entry + 2, littleEndian) == TYPE_ASCII) {
+                make = ascii(data, tiff, end, entry, littleEndian);
+            }
+        }
+        return new ExifMetadata(orientation, make);
+    }
+
+    private static String ascii(byte[] data, int tiff, int end, int entry, boolean littleEndian) {
+        long count = u32(data, entry + 4, littleEndian);
+        if (count <= 0 || count > MAX_MAKE_LENGTH) {
+            return null;
+        }
+        // values of up to four bytes are stored in the entry itself, longer ones at an offset from the TIFF header
+        long start = count <= 4 ? entry + 8 : tiff + u32(data, entry + 8, littleEndian);
+        if (start + count > end) {
+            return null;
+        }
+        int length = 0;
+        while (length < count && data[(int) start + length] != 0) {
+            length++;
+        }
+        String value = new String(data, (int) start, length, StandardCharsets.US_ASCII).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static int u8(byte[] data, int offset) {
+        return data[offset] & 0xFF;
+    }
+
+    private static int u16(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian
+                ? u8(data, offset) | (u8(data, offset + 1) << 8)
+                : (u8(data, offset) << 8) | u8(data, offset + 1);
+    }
+
+    private static long u32(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian
+                ? (u16(data, offset, true) & 0xFFFFL) | ((long) u16(data, offset + 2, true) << 16)
+                : ((long) u16(data, offset, false) << 16) | (u16(data, offset + 2, false) & 0xFFFFL);
+    }
+}
@@ -0,0 +1,125 @@
+package com.fitnessapp.backend.retrieval.image;
+
+/**
+ * Finds the JPEG thumbnail stored in IFD1 of a JPEG's EXIF (APP1) segment without decoding anything.
+ */
+final class ExifThumbnailLocator {
+
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int TAG_THUMBNAIL_OFFSET = 0x0201;
+    private static final int TAG_THUMBNAIL_LENGTH = 0x0202;
+
+    private ExifThumbnailLocator() {
+    }
+
+    /**
+     * @return {@code {offset, length}} of the thumbnail within {@code data}, or {@code null} when absent
+     */
+    static int[] locate(byte[] data, int length) {
+        if (length < 4 || u8(data, 0) != 0xFF || u8(data, 1) != MARKER_SOI) {
+            return null;
+        }
+        int position = 2;
+        while (position + 4 <= length) {
+            if (u8(data, position) != 0xFF) {
+                return null;
+            }
+            int marker = u8(data, position + 1);
+            if (marker == MARKER_SOS) {
+                return null;
+            }
+            int segmentLength = (u8(data, position + 2) << 8) | u8(data, position + 3);
+            int payload = position + 4;
+            if (marker == MARKER_APP1 && isExifHeader(data, payload, length)) {
+                return locateInTiff(data, payload + 6, Math.min(length, position + 2 + segmentLength));
+            }
+            position += 2 + segmentLength;
+        }
+        return null;
+    }
+
+    private static boolean isExifHeader(byte[] data, int offset, int length) {
+        return offset + 6 <= length
+                && data[offset] == 'E' && data[offset + 1] == 'x' && data[offset + 2] == 'i' && data[offset + 3] == 'f'
+                && data[offset + 4] == 0 && data[offset + 5] == 0;
+    }
+
+    private static int[] locateInTiff(byte[] data, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return null;
+        }
+        boolean littleEndian;
+        if (data[tiff] == 'I' && data[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (data[tiff] == 'M' && data[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return null;
+        }
+        if (u16(data, tiff + 2, littleEndian) != 42) {
+            return null;
+        }
+        int ifd0 = tiff + (int) u32(data, tiff + 4, littleEndian);
+        int ifd1Offset = nextIfdOffset(data, ifd0, end, littleEndian);
+        if (ifd1Offset <= 0) {
+            return null;
+        }
+        int ifd1 = tiff + ifd1Offset;
+        if (ifd1 + 2 > end) {
+            return null;
+        }
+        int entries = u16(data, ifd1, littleEndian);
+        long thumbnailOffset = -1;
+        long thumbnailLength = -1;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd1 + 2 + i * 12;
+            if (entry + 12 > end) {
+                return null;
+            }
+            int tag = u16(data, entry, littleEndian);
+            if (tag == TAG_THUMBNAIL_OFFSET) {
+                thumbnailOffset = u32(data, entry + 8, littleEndian);
+            } else if (tag == TAG_THUMBNAIL_LENGTH) {
+                thumbnailLength = u32(data, entry + 8, littleEndian);
+            }
+        }
+        if (thumbnailOffset <= 0 || thumbnailLength <= 0) {
+            return null;
+        }
+        long start = tiff + thumbnailOffset;
+        if (start + thumbnailLength > end || u8(data, (int) start) != 0xFF || u8(data, (int) start + 1) != MARKER_SOI) {
+            return null;
+        }
+        return new int[] {(int) start, (int) thumbnailLength};
+    }
+
+    private static int nextIfdOffset(byte[] data, int ifd, int end, boolean littleEndian) {
+        if (ifd + 2 > end) {
+            return -1;
+        }
+        int entries = u16(data, ifd, littleEndian);
+        int next = ifd + 2 + entries * 12;
+        if (next + 4 > end) {
+            return -1;
+        }
+        return (int) u32(data, next, littleEndian);
+    }
+
+    private static int u8(byte[] data, int offset) {
+        return data[offset] & 0xFF;
+    }
+
+    private static int u16(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian
+                ? u8(data, offset) | (u8(data, offset + 1) << 8)
+                : (u8(data, offset) << 8) | u8(data, offset + 1);
+    }
+
+    private static long u32(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian
+                ? (u16(data, offset, true) & 0xFFFFL) | ((long) u16(data, offset + 2, true) << 16)
+                : ((long) u16(data, offset, false) << 16) | (u16(data, offset + 2, false) & 0xFFFFL);
+    }
+}
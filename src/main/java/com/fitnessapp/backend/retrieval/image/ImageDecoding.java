@@ -0,0 +1,78 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Cheap, low-resolution decoding for analysis. Nothing here needs more than roughly a hundred pixels per side,
+ * so camera JPEGs are served from their EXIF thumbnail and everything else is decoded with source subsampling.
+ */
+public final class ImageDecoding {
+
+    private ImageDecoding() {
+    }
+
+    /**
+     * Best-effort preview of an ingested upload, or empty when the format has no built-in ImageIO reader.
+     */
+    public static Optional<BufferedImage> preview(IngestedImage image, int targetPixels) throws IOException {
+        if (image == null || image.isEmpty() || !image.getHeader().format().isDecodable()) {
+            return Optional.empty();
+        }
+        if (image.getHeader().format() == ImageFormat.JPEG) {
+            byte[] header = image.getHeaderBytes();
+            Optional<BufferedImage> thumbnail = exifThumbnail(header, header.length);
+            if (thumbnail.isPresent()) {
+                return thumbnail;
+            }
+        }
+        try (InputStream input = image.openStream()) {
+            return subsampled(input, targetPixels);
+        }
+    }
+
+    public static Optional<BufferedImage> exifThumbnail(byte[] header, int length) {
+        try {
+            int[] location = ExifThumbnailLocator.locate(header, length);
+            if (location == null) {
+                return Optional.empty();
+            }
+            return subsampled(new ByteArrayInputStream(header, location[0], location[1]), Integer.MAX_VALUE);
+        } catch (IOException | RuntimeException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Decodes the first frame, skipping pixels so the shorter side lands near {@code targetPixels}.
+     */
+    public static Optional<BufferedImage> subsampled(InputStream input, int targetPixels) throws IOException {
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(input)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int step = Math.max(1, Math.min(width, height) / Math.max(1, targetPixels));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return Optional.ofNullable(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
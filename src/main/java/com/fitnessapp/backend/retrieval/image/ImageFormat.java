@@ -0,0 +1,23 @@
+package com.fitnessapp.backend.retrieval.image;
+
+public enum ImageFormat {
+    JPEG(true),
+    PNG(true),
+    GIF(true),
+    WEBP(false),
+    HEIC(false),
+    UNKNOWN(false);
+
+    private final boolean decodable;
+
+    ImageFormat(boolean decodable) {
+        this.decodable = decodable;
+    }
+
+    /**
+     * Whether the JDK's built-in ImageIO readers can decode this format.
+     */
+    public boolean isDecodable() {
+        return decodable;
+    }
+}
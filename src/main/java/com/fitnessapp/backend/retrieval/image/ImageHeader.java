@@ -0,0 +1,102 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Format and pixel dimensions read from the first bytes of an upload. Dimensions are {@code 0} when they are
+ * not present in the sniffed prefix (for example a JPEG whose frame header sits behind very large APP segments).
+ */
+public record ImageHeader(ImageFormat format, int width, int height) {
+
+    private static final ImageHeader UNKNOWN = new ImageHeader(ImageFormat.UNKNOWN, 0, 0);
+
+    public static ImageHeader unknown() {
+        return UNKNOWN;
+    }
+
+    public boolean hasDimensions() {
+        return width > 0 && height > 0;
+    }
+
+    public static ImageHeader sniff(byte[] data, int length) {
+        if (length >= 24 && u8(data, 0) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return new ImageHeader(ImageFormat.PNG, (int) u32(data, 16), (int) u32(data, 20));
+        }
+        if (length >= 3 && u8(data, 0) == 0xFF && u8(data, 1) == 0xD8 && u8(data, 2) == 0xFF) {
+            return sniffJpeg(data, length);
+        }
+        if (length >= 10 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F') {
+            return new ImageHeader(ImageFormat.GIF, u16le(data, 6), u16le(data, 8));
+        }
+        if (length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return sniffWebp(data, length);
+        }
+        if (length >= 12 && data[4] == 'f' && data[5] == 't' && data[6] == 'y' && data[7] == 'p') {
+            String brand = new String(data, 8, 4, StandardCharsets.US_ASCII);
+            if (brand.startsWith("hei") || brand.startsWith("hev") || brand.equals("mif1") || brand.equals("msf1")) {
+                return new ImageHeader(ImageFormat.HEIC, 0, 0);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static ImageHeader sniffJpeg(byte[] data, int length) {
+        int position = 2;
+        while (position + 9 <= length) {
+            if (u8(data, position) != 0xFF) {
+                break;
+            }
+            int marker = u8(data, position + 1);
+            if (marker == 0xD8 || (marker >= 0xD0 && marker <= 0xD7) || marker == 0x01 || marker == 0xFF) {
+                position += marker == 0xFF ? 1 : 2;
+                continue;
+            }
+            if (marker == 0xDA) {
+                break;
+            }
+            int segmentLength = (u8(data, position + 2) << 8) | u8(data, position + 3);
+            if (isStartOfFrame(marker)) {
+                int height = (u8(data, position + 5) << 8) | u8(data, position + 6);
+                int width = (u8(data, position + 7) << 8) | u8(data, position + 8);
+                return new ImageHeader(ImageFormat.JPEG, width, height);
+            }
+            position += 2 + segmentLength;
+        }
+        return new ImageHeader(ImageFormat.JPEG, 0, 0);
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private static ImageHeader sniffWebp(byte[] data, int length) {
+        if (length >= 30 && data[12] == 'V' && data[13] == 'P' && data[14] == '8') {
+            if (data[15] == ' ') {
+                return new ImageHeader(ImageFormat.WEBP, u16le(data, 26) & 0x3FFF, u16le(data, 28) & 0x3FFF);
+            }
+            if (data[15] == 'L') {
+                int bits = u8(data, 21) | (u8(data, 22) << 8) | (u8(data, 23) << 16) | (u8(data, 24) << 24);
+                return new ImageHeader(ImageFormat.WEBP, (bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1);
+            }
+            if (data[15] == 'X') {
+                int width = (u8(data, 24) | (u8(data, 25) << 8) | (u8(data, 26) << 16)) + 1;
+                int height = (u8(data, 27) | (u8(data, 28) << 8) | (u8(data, 29) << 16)) + 1;
+                return new ImageHeader(ImageFormat.WEBP, width, height);
+            }
+        }
+        return new ImageHeader(ImageFormat.WEBP, 0, 0);
+    }
+
+    private static int u8(byte[] data, int offset) {
+        return data[offset] & 0xFF;
+    }
+
+    private static int u16le(byte[] data, int offset) {
+        return u8(data, offset) | (u8(data, offset + 1) << 8);
+    }
+
+    private static long u32(byte[] data, int offset) {
+        return ((long) u8(data, offset) << 24) | (u8(data, offset + 1) << 16) | (u8(data, offset + 2) << 8) | u8(data, offset + 3);
+    }
+}
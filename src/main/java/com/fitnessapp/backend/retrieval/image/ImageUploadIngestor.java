@@ -0,0 +1,157 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reads an upload in a single pass with a fixed-size buffer. While the bytes stream through, the SHA-256
+ * digest is updated, the leading bytes are kept for header sniffing, and the body is rejected as soon as it
+ * exceeds the size limit. Content stays on the heap only up to the memory threshold and is spilled to a temp
+ * file beyond it, so a burst of large camera photos does not grow the heap.
+ */
+@Component
+public class ImageUploadIngestor {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final long maxBytes;
+    private final int memoryThreshold;
+    private final int headerSize;
+    private final DistributionSummary uploadSize;
+    private final Counter spilled;
+    private final Counter rejected;
+
+    public ImageUploadIngestor(RetrievalProperties properties, MeterRegistry meterRegistry) {
+        RetrievalProperties.Upload settings = properties.getUpload();
+        this.maxBytes = settings.getMaxSize().toBytes();
+        this.memoryThreshold = (int) Math.min(settings.getMemoryThreshold().toBytes(), Integer.MAX_VALUE - 8);
+        this.headerSize = (int) Math.min(settings.getHeaderSize().toBytes(), memoryThreshold);
+        this.uploadSize = DistributionSummary.builder("retrieval.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.spilled = meterRegistry.counter("retrieval.upload.spilled");
+        this.rejected = meterRegistry.counter("retrieval.upload.rejected");
+    }
+
+    public IngestedImage ingest(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try (InputStream input = file.getInputStream()) {
+            return ingest(input, file.getSize());
+        }
+    }
+
+    /**
+     * @param declaredLength the Content-Length announced by the client, or {@code -1} when unknown; an
+     *                       oversized declaration is rejected before any byte is read
+     */
+    public IngestedImage ingest(InputStream input, long declaredLength) throws IOException {
+        if (declaredLength > maxBytes) {
+            throw tooLarge();
+        }
+        MessageDigest digest = sha256();
+        byte[] header = new byte[headerSize];
+        int headerLength = 0;
+        ByteArrayOutputStream memory = new ByteArrayOutputStream(
+                (int) Math.min(memoryThreshold, declaredLength > 0 ? declaredLength : CHUNK_SIZE));
+        Path spillFile = null;
+        OutputStream spill = null;
+        long total = 0;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try {
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw tooLarge();
+                }
+                digest.update(chunk, 0, read);
+                if (headerLength < header.length) {
+                    int copied = Math.min(read, header.length - headerLength);
+                    System.arraycopy(chunk, 0, header, headerLength, copied);
+                    headerLength += copied;
+                }
+                if (spill == null && total > memoryThreshold) {
+                    spillFile = Files.createTempFile("image-upload-", ".bin");
+                    spill = Files.newOutputStream(spillFile);
+                    memory.writeTo(spill);
+                    memory = null;
+                    spilled.increment();
+                }
+                if (spill != null) {
+                    spill.write(chunk, 0, read);
+                } else {
+                    memory.write(chunk, 0, read);
+                }
+            }
+            if (spill != null) {
+                spill.close();
+            }
+        } catch (IOException | RuntimeException ex) {
+            closeQuietly(spill);
+            deleteQuietly(spillFile);
+            throw ex;
+        }
+        uploadSize.record(total);
+        byte[] headerBytes = headerLength == header.length ? header : Arrays.copyOf(header, headerLength);
+        return new IngestedImage(
+                ImageHeader.sniff(headerBytes, headerLength),
+                headerBytes,
+                total,
+                digest.digest(),
+                memory != null ? memory.toByteArray() : null,
+                spillFile);
+    }
+
+    private ResponseStatusException tooLarge() {
+        rejected.increment();
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Image exceeds the " + (maxBytes / (1024 * 1024)) + " MB upload limit");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // temp directory is cleaned up by the OS eventually
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An upload that has been read exactly once by {@link ImageUploadIngestor}. Small photos live on the heap;
+ * larger ones were spilled to a temp file that is deleted on {@link #close()}.
+ */
+@Slf4j
+public final class IngestedImage implements AutoCloseable {
+
+    private static final int PREVIEW_PIXELS = 96;
+
+    private final ImageHeader header;
+    private final byte[] headerBytes;
+    private final long sizeBytes;
+    private final byte[] sha256;
+    private final byte[] content;
+    private final Path spillFile;
+    private final ReentrantLock previewLock = new ReentrantLock();
+    private Optional<BufferedImage> preview;
+
+    IngestedImage(ImageHeader header, byte[] headerBytes, long sizeBytes, byte[] sha256, byte[] content, Path spillFile) {
+        this.header = header;
+        this.headerBytes = headerBytes;
+        this.sizeBytes = sizeBytes;
+        this.sha256 = sha256;
+        this.content = content;
+        this.spillFile = spillFile;
+    }
+
+    public ImageHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * The leading bytes of the upload (up to the configured header size), without touching the spill file.
+     */
+    public byte[] getHeaderBytes() {
+        return headerBytes;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public boolean isEmpty() {
+        return sizeBytes == 0;
+    }
+
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    public String getSha256Hex() {
+        return HexFormat.of().formatHex(sha256);
+    }
+
+    /**
+     * First eight bytes of the SHA-256 digest, usable wherever a 64-bit content fingerprint is enough.
+     */
+    public long contentDigest() {
+        return ByteBuffer.wrap(sha256).getLong();
+    }
+
+    public InputStream openStream() throws IOException {
+        return spillFile != null ? Files.newInputStream(spillFile) : new ByteArrayInputStream(content);
+    }
+
+    /**
+     * Low-resolution decode shared by everything that looks at pixels (hashing, detectors), so a request
+     * decodes its photo at most once. Empty for formats ImageIO cannot read.
+     */
+    public Optional<BufferedImage> preview() throws IOException {
+        previewLock.lock();
+        try {
+            if (preview == null) {
+                preview = ImageDecoding.preview(this, PREVIEW_PIXELS);
+            }
+            return preview;
+        } finally {
+            previewLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException ex) {
+            log.warn("Unable to delete upload spill file {}: {}", spillFile, ex.getMessage());
+        }
+    }
+}
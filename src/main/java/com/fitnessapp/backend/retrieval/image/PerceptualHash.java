@@ -0,0 +1,66 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Pure-Java difference hash (dHash). The image is reduced to a 9x8 luminance grid and each bit records
+ * whether a cell is darker than its right-hand neighbour, so visually similar photos end up a small Hamming
+ * distance apart.
+ *
+ * <p>Callers hash a small preview rather than the full frame; see {@link IngestedImage#preview()}.
+ */
+public final class PerceptualHash {
+
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long dHash(BufferedImage image) {
+        double[][] grid = luminanceGrid(image);
+        long hash = 0L;
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (grid[y][x] < grid[y][x + 1]) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    private static double[][] luminanceGrid(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] sums = new double[GRID_HEIGHT][GRID_WIDTH];
+        int[][] counts = new int[GRID_HEIGHT][GRID_WIDTH];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellY = Math.min(GRID_HEIGHT - 1, y * GRID_HEIGHT / height);
+            for (int x = 0; x < width; x++) {
+                int cellX = Math.min(GRID_WIDTH - 1, x * GRID_WIDTH / width);
+                int rgb = row[x];
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                sums[cellY][cellX] += 0.299D * r + 0.587D * g + 0.114D * b;
+                counts[cellY][cellX]++;
+            }
+        }
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                if (counts[y][x] > 0) {
+                    sums[y][x] /= counts[y][x];
+                }
+            }
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,153 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache keyed by 64-bit perceptual hashes. Entries are indexed by eight 8-bit bands of their
+ * hash, so any stored hash within seven bits of a probe shares at least one band with it and is found
+ * without scanning the whole cache. Candidates must also carry the same context key (for example the
+ * normalized user hints), because the same photo with different hints is a different request.
+ *
+ * <p>Guarded by a {@link ReentrantLock} rather than {@code synchronized} so a virtual thread waiting for the
+ * cache does not pin its carrier thread.
+ */
+public class PhotoDedupeCache<V> {
+
+    private static final int BANDS = 8;
+    private static final int BAND_BITS = Long.SIZE / BANDS;
+
+    private final int maxEntries;
+    private final int maxDistance;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, List<Entry<V>>> bandIndex = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextId;
+
+    public PhotoDedupeCache(int maxEntries, int maxDistance, Duration ttl) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxDistance = Math.max(0, Math.min(maxDistance, BANDS - 1));
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Optional<V> find(long hash, String context) {
+        lock.lock();
+        try {
+            return findLocked(hash, context);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(long hash, String context, V value) {
+        lock.lock();
+        try {
+            putLocked(hash, context, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bandIndex.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<V> findLocked(long hash, String context) {
+        long now = System.nanoTime();
+        Entry<V> best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry<V>> candidates = bandIndex.get(bandKey(hash, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry<V> candidate : candidates) {
+                if (!Objects.equals(candidate.context(), context) || isExpired(candidate, now)) {
+                    continue;
+                }
+                int distance = PerceptualHash.distance(hash, candidate.hash());
+                if (distance <= maxDistance && distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+        entries.get(best.id());
+        return Optional.of(best.value());
+    }
+
+    private void putLocked(long hash, String context, V value) {
+        Entry<V> entry = new Entry<>(nextId++, hash, context, value, System.nanoTime());
+        entries.put(entry.id(), entry);
+        for (int band = 0; band < BANDS; band++) {
+            bandIndex.computeIfAbsent(bandKey(hash, band), key -> new ArrayList<>(2)).add(entry);
+        }
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        long now = System.nanoTime();
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> eldest = iterator.next();
+            if (entries.size() <= maxEntries && !isExpired(eldest, now)) {
+                break;
+            }
+            iterator.remove();
+            unindex(eldest);
+        }
+    }
+
+    private void unindex(Entry<V> entry) {
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKey(entry.hash(), band);
+            List<Entry<V>> bucket = bandIndex.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                bandIndex.remove(key);
+            }
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlNanos > 0 && now - entry.storedAtNanos() > ttlNanos;
+    }
+
+    private static int bandKey(long hash, int band) {
+        int bits = (int) ((hash >>> (band * BAND_BITS)) & 0xFF);
+        return (band << BAND_BITS) | bits;
+    }
+
+    private record Entry<V>(long id, long hash, String context, V value, long storedAtNanos) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import com.fitnessapp.backend.catalog.CatalogChangedEvent;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.dto.RecipeResponse;
+import com.fitnessapp.backend.retrieval.dto.WorkoutResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Short-circuits repeated uploads of the same (or nearly the same) photo. Users commonly retry a capture,
+ * so the ranked response of a recent request is reused when the new photo's perceptual hash is within a
+ * few bits of a cached one and the user hints are identical.
+ */
+@Service
+@Slf4j
+public class PhotoDedupeService {
+
+    private final boolean enabled;
+    private final PhotoDedupeCache<WorkoutResponse> workoutCache;
+    private final PhotoDedupeCache<RecipeResponse> recipeCache;
+    private final Timer hashTimer;
+    private final Counter workoutHits;
+    private final Counter workoutMisses;
+    private final Counter recipeHits;
+    private final Counter recipeMisses;
+
+    public PhotoDedupeService(RetrievalProperties properties, MeterRegistry meterRegistry) {
+        RetrievalProperties.PhotoDedupe settings = properties.getPhotoDedupe();
+        this.enabled = settings.isEnabled();
+        this.workoutCache = new PhotoDedupeCache<>(settings.getMaxEntries(), settings.getMaxDistance(), settings.getTtl());
+        this.recipeCache = new PhotoDedupeCache<>(settings.getMaxEntries(), settings.getMaxDistance(), settings.getTtl());
+        this.hashTimer = Timer.builder("retrieval.photo.hash")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.workoutHits = meterRegistry.counter("retrieval.photo.dedupe", "catalog", "workout", "result", "hit");
+        this.workoutMisses = meterRegistry.counter("retrieval.photo.dedupe", "catalog", "workout", "result", "miss");
+        this.recipeHits = meterRegistry.counter("retrieval.photo.dedupe", "catalog", "recipe", "result", "hit");
+        this.recipeMisses = meterRegistry.counter("retrieval.photo.dedupe", "catalog", "recipe", "result", "miss");
+    }
+
+    /**
+     * Returns the perceptual hash of the upload. The EXIF thumbnail is read from the retained header bytes;
+     * only photos without one are decoded. Formats ImageIO cannot decode (HEIC, for example) fall back to the
+     * SHA-256 computed during ingestion, which still catches exact retries.
+     */
+    public OptionalLong fingerprint(IngestedImage image) {
+        if (!enabled || image == null || image.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            Optional<BufferedImage> preview = image.preview();
+            if (preview.isPresent()) {
+                return OptionalLong.of(PerceptualHash.dHash(preview.get()));
+            }
+            return OptionalLong.of(image.contentDigest());
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Unable to fingerprint uploaded image ({} bytes): {}", image.getSizeBytes(), ex.getMessage());
+            return OptionalLong.of(image.contentDigest());
+        } finally {
+            hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Optional<WorkoutResponse> findWorkouts(long photoHash, String hintSignature) {
+        Optional<WorkoutResponse> cached = workoutCache.find(photoHash, hintSignature);
+        (cached.isPresent() ? workoutHits : workoutMisses).increment();
+        return cached;
+    }
+
+    public void rememberWorkouts(long photoHash, String hintSignature, WorkoutResponse response) {
+        workoutCache.put(photoHash, hintSignature, response);
+    }
+
+    public Optional<RecipeResponse> findRecipes(long photoHash, String hintSignature) {
+        Optional<RecipeResponse> cached = recipeCache.find(photoHash, hintSignature);
+        (cached.isPresent() ? recipeHits : recipeMisses).increment();
+        return cached;
+    }
+
+    public void rememberRecipes(long photoHash, String hintSignature, RecipeResponse response) {
+        recipeCache.put(photoHash, hintSignature, response);
+    }
+
+    /**
+     * Remembered responses embed catalog cards, so they are dropped as soon as the catalog changes.
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        workoutCache.clear();
+        recipeCache.clear();
+    }
+}
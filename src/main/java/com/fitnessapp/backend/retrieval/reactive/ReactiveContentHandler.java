@@ -0,0 +1,116 @@
+package com.fitnessapp.backend.retrieval.reactive;
+
+import com.fitnessapp.backend.catalog.CatalogVersionService;
+import com.fitnessapp.backend.retrieval.ContentRetrievalCoordinator;
+import com.fitnessapp.backend.retrieval.ContentValidators;
+import com.fitnessapp.backend.retrieval.StageTimings;
+import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking twin of the hint-only {@code GET /api/v1/workouts|recipes|content} endpoints of
+ * {@code ContentController}, same payloads and validators. The catalog version comes from Redis through
+ * reactive Lettuce, so a matching {@code If-None-Match} is answered on the event loop; only a real retrieval,
+ * which needs JPA, is moved to the bounded blocking scheduler.
+ */
+@Slf4j
+public class ReactiveContentHandler {
+
+    private final ContentRetrievalCoordinator coordinator;
+    private final ContentValidators contentValidators;
+    private final CatalogVersionService catalogVersionService;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Scheduler blockingScheduler;
+
+    public ReactiveContentHandler(ContentRetrievalCoordinator coordinator,
+                                  ContentValidators contentValidators,
+                                  CatalogVersionService catalogVersionService,
+                                  ReactiveStringRedisTemplate redisTemplate,
+                                  Scheduler blockingScheduler) {
+        this.coordinator = coordinator;
+        this.contentValidators = contentValidators;
+        this.catalogVersionService = catalogVersionService;
+        this.redisTemplate = redisTemplate;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/v1/workouts", request -> conditional(request, "workouts",
+                        (metadata, timings) -> coordinator.findWorkouts(metadata, null, timings)))
+                .GET("/api/v1/recipes", request -> conditional(request, "recipes",
+                        (metadata, timings) -> coordinator.findRecipes(metadata, null, timings)))
+                .GET("/api/v1/content", request -> conditional(request, "content",
+                        (metadata, timings) -> coordinator.findContent(metadata, null, timings)))
+                .build();
+    }
+
+    private <T> Mono<ServerResponse> conditional(ServerRequest request,
+                                                 String endpoint,
+                                                 ImageRequest metadata,
+                                                 BiFunction<ImageRequest, StageTimings, T> loader) {
+        StageTimings timings = StageTimings.start();
+        return catalogVersion().flatMap(version -> {
+            String etag = contentValidators.etag(endpoint, metadata, version);
+            return request.checkNotModified(etag).switchIfEmpty(Mono.defer(() -> Mono
+                    .fromCallable(() -> loader.apply(metadata, timings))
+                    .subscribeOn(blockingScheduler)
+                    .flatMap(body -> ServerResponse.ok()
+                            .eTag(etag)
+                            .cacheControl(contentValidators.cacheControl())
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .header("Server-Timing", timings.toServerTiming())
+                            .bodyValue(body))
+                    .onErrorResume(RejectedExecutionException.class, ex -> ServerResponse
+                            .status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build())));
+        });
+    }
+
+    private <T> Mono<ServerResponse> conditional(ServerRequest request,
+                                                 String endpoint,
+                                                 BiFunction<ImageRequest, StageTimings, T> loader) {
+        return conditional(request, endpoint, metadata(request), loader);
+    }
+
+    /**
+     * The shared catalog version, read without blocking. If Redis is unavailable the locally known version is
+     * used, which is what the servlet endpoints fall back to as well. A newer version publishes
+     * {@code CatalogChangedEvent}, whose listeners clear caches under locks, so adopting one happens on the
+     * blocking scheduler rather than the event loop.
+     */
+    private Mono<Long> catalogVersion() {
+        return redisTemplate.opsForValue().get(CatalogVersionService.VERSION_KEY)
+                .map(Long::parseLong)
+                .flatMap(stored -> stored <= catalogVersionService.known()
+                        ? Mono.just(catalogVersionService.observe(stored))
+                        : Mono.just(stored).publishOn(blockingScheduler).map(catalogVersionService::observe))
+                .onErrorResume(ex -> {
+                    log.debug("Failed to read catalog version from Redis: {}", ex.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(catalogVersionService.known());
+    }
+
+    private static ImageRequest metadata(ServerRequest request) {
+        List<String> hints = request.queryParams().get("hint");
+        ImageRequest.ImageRequestBuilder builder = ImageRequest.builder();
+        if (hints != null) {
+            builder.userHints(hints);
+        }
+        return builder.build();
+    }
+}
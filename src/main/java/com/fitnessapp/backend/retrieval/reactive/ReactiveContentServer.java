@@ -0,0 +1,55 @@
+package com.fitnessapp.backend.retrieval.reactive;
+
+import com.fitnessapp.backend.config.ReactiveProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactor Netty server for {@link ReactiveContentHandler}, on its own port next to the servlet container.
+ * A handful of event-loop threads hold the connections, so slow mobile clients cost a channel rather than a
+ * worker thread each. Servlet filters do not run on this port; the concurrency and rate limits are applied to
+ * the routes themselves ({@code ReactiveLimitFilters}).
+ */
+@Slf4j
+public class ReactiveContentServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final ReactiveProperties properties;
+
+    private volatile DisposableServer server;
+
+    public ReactiveContentServer(HttpHandler httpHandler, ReactiveProperties properties) {
+        this.httpHandler = httpHandler;
+        this.properties = properties;
+    }
+
+    @Override
+    public void start() {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create()
+                .port(properties.getPort())
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive content server listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        server = null;
+        if (current != null) {
+            current.disposeNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.fitnessapp.backend.web;
+
+import com.fitnessapp.backend.config.ConcurrencyLimitProperties;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient-style adaptive concurrency limit. A long-window average of request latency stands in for the
+ * latency the service has when it is not queueing; each interactive sample compares against it, and the
+ * limit shrinks in proportion as latency rises above that baseline and grows by roughly {@code sqrt(limit)}
+ * while it does not. Failures apply a multiplicative decrease, so together the limit behaves like AIMD
+ * driven by latency rather than by errors alone.
+ *
+ * <p>Background requests only ever get {@code backgroundShare} of the limit and never feed the latency
+ * estimate, because a multi-minute import says nothing about how loaded the retrieval path is.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_ALPHA = 0.05;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backgroundShare;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = Math.max(properties.getMinLimit(), properties.getMaxLimit());
+        this.backgroundShare = properties.getBackgroundShare();
+        this.smoothing = properties.getSmoothing();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = clamp(properties.getInitialLimit());
+    }
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Claims a slot if the caller's priority still has headroom. A {@code true} result must be paired with
+     * exactly one {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        double cap = priority == Priority.INTERACTIVE ? limit : Math.max(1.0, limit * backgroundShare);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(Priority priority, long rttNanos, boolean failed) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        if (priority != Priority.INTERACTIVE && !failed) {
+            return;
+        }
+        // a concurrent release is already adjusting; dropping one sample costs nothing and avoids a queue here
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (failed) {
+                limit = clamp(limit * backoffRatio);
+            } else {
+                adjust(Math.max(1L, rttNanos), inFlightAtRelease);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void adjust(long rttNanos, int inFlightAtRelease) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_WINDOW_ALPHA) + rttNanos * LONG_WINDOW_ALPHA;
+        if (longRttNanos / rttNanos > 2) {
+            // latency dropped sharply (a backlog drained); let the baseline follow it down quickly
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (inFlightAtRelease < current / 2) {
+            // far below the limit the sample says nothing about capacity, so neither grow nor shrink
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / rttNanos));
+        double estimate = current * gradient + Math.sqrt(current);
+        limit = clamp(current * (1 - smoothing) + estimate * smoothing);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
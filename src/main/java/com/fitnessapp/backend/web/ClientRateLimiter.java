@@ -0,0 +1,192 @@
+package com.fitnessapp.backend.web;
+
+import com.fitnessapp.backend.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Per-client token buckets. Admission is decided entirely in memory against a {@link TokenBucket}; buckets
+ * live in a bounded Caffeine map, whose striped hash table keeps lookups for different clients from
+ * contending. A background task periodically reports each bucket's local admissions to a shared bucket in
+ * Redis (one atomic Lua script per client, pipelined) and pulls the combined state back, so a client
+ * spreading requests over several instances is held to its tier once per sync interval.
+ *
+ * <p>If Redis is unavailable each instance keeps enforcing the limit on its own.
+ */
+@Slf4j
+public class ClientRateLimiter implements SmartLifecycle {
+
+    static final String KEY_PREFIX = "ratelimit:";
+
+    /**
+     * Adds this instance's admissions to the shared GCRA arrival time and returns how far that time is ahead
+     * of Redis' clock, in microseconds. Using the server clock keeps instances with skewed clocks consistent.
+     */
+    private static final byte[] SYNC_SCRIPT = """
+            local clock = redis.call('TIME')
+            local now = tonumber(clock[1]) * 1000000 + tonumber(clock[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if tat < now then tat = now end
+            tat = tat + tonumber(ARGV[1]) * tonumber(ARGV[2])
+            redis.call('SET', KEYS[1], tat, 'PX', ARGV[3])
+            return tat - now
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ClientRateLimiter(RateLimitProperties properties, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        meterRegistry.gauge("http.server.rate_limit.clients", buckets, Cache::estimatedSize);
+    }
+
+    public record Decision(boolean allowed, String tier, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    /**
+     * @param clientKey   {@code user:<principal>} or {@code ip:<address>}
+     * @param authenticated whether the key came from an authenticated principal
+     */
+    public Decision tryAcquire(String clientKey, boolean authenticated) {
+        String tierName = properties.getClients().getOrDefault(clientKey,
+                authenticated ? properties.getAuthenticatedTier() : properties.getAnonymousTier());
+        RateLimitProperties.Tier tier = properties.getTiers().get(tierName);
+        if (tier == null) {
+            return new Decision(true, tierName, 0, 0, 0, 0);
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientKey, key -> new TokenBucket(tier.getCapacity(), tier.getRefillPerSecond(), now));
+        boolean allowed = bucket.tryConsume(now);
+        if (!allowed) {
+            meterRegistry.counter("http.server.rate_limited", "tier", tierName).increment();
+        }
+        return new Decision(allowed,
+                tierName,
+                bucket.capacity(),
+                bucket.remaining(now),
+                ceilSeconds(bucket.nanosUntilFull(now)),
+                allowed ? 0 : Math.max(1L, ceilSeconds(bucket.nanosUntilAvailable(now))));
+    }
+
+    void sync() {
+        List<String> keys = new ArrayList<>();
+        List<TokenBucket> dirty = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        for (Map.Entry<String, TokenBucket> entry : buckets.asMap().entrySet()) {
+            int count = entry.getValue().drainUnsynced();
+            if (count > 0) {
+                keys.add(entry.getKey());
+                dirty.add(entry.getValue());
+                counts.add(count);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long ttlMillis = properties.getIdleTimeout().toMillis();
+        List<Object> backlogs;
+        try {
+            backlogs = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    eval(connection, keys.get(i), counts.get(i), dirty.get(i).intervalNanos() / 1_000L, ttlMillis);
+                }
+                return null;
+            });
+        } catch (Exception ex) {
+            log.debug("Failed to sync {} rate limit buckets with Redis: {}", keys.size(), ex.getMessage());
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < dirty.size() && i < backlogs.size(); i++) {
+            if (backlogs.get(i) instanceof Long backlogMicros) {
+                dirty.get(i).applyShared(now, TimeUnit.MICROSECONDS.toNanos(backlogMicros));
+            }
+        }
+    }
+
+    private static void eval(RedisConnection connection, String clientKey, int count, long intervalMicros, long ttlMillis) {
+        connection.scriptingCommands().eval(SYNC_SCRIPT, ReturnType.INTEGER, 1,
+                bytes(KEY_PREFIX + clientKey),
+                bytes(Integer.toString(count)),
+                bytes(Long.toString(Math.max(1L, intervalMicros))),
+                bytes(Long.toString(ttlMillis)));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(10L, properties.getSyncInterval().toMillis());
+        executor.scheduleWithFixedDelay(this::syncQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+        running = true;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException ex) {
+            log.warn("Rate limit sync failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fitnessapp.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admits requests through an {@link AdaptiveConcurrencyLimiter} before they reach Spring MVC. Interactive
+ * {@code /api/v1} calls are admitted up to the full limit; admin, debug and curation calls only up to their
+ * share, so they are shed first. Rejected requests get an immediate 503 with {@code Retry-After} instead of
+ * queueing for a worker thread or a database connection. Actuator and API docs are never limited.
+ *
+ * <p>Publishes {@code http.server.concurrency.limit}, {@code http.server.concurrency.in_flight} and
+ * {@code http.server.shed{priority}}.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<AdaptiveConcurrencyLimiter.Priority, Counter> shed =
+            new EnumMap<>(AdaptiveConcurrencyLimiter.Priority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .register(meterRegistry);
+        for (AdaptiveConcurrencyLimiter.Priority priority : AdaptiveConcurrencyLimiter.Priority.values()) {
+            shed.put(priority, Counter.builder("http.server.shed")
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return RequestPaths.isOperational(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Priority priority = priority(request);
+        if (!limiter.tryAcquire(priority)) {
+            shed.get(priority).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is at capacity, retry shortly");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(priority, System.nanoTime() - start, failed);
+        }
+    }
+
+    static AdaptiveConcurrencyLimiter.Priority priority(HttpServletRequest request) {
+        return RequestPaths.isInteractive(request)
+                ? AdaptiveConcurrencyLimiter.Priority.INTERACTIVE
+                : AdaptiveConcurrencyLimiter.Priority.BACKGROUND;
+    }
+}
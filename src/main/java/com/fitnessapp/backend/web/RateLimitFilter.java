@@ -0,0 +1,59 @@
+package com.fitnessapp.backend.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies {@link ClientRateLimiter} per client. Runs after Spring Security so an authenticated request is
+ * keyed by its principal (the JWT subject for bearer tokens) and everything else by client address: the one
+ * Tomcat resolves from {@code X-Forwarded-For} when the peer is a trusted proxy
+ * ({@code server.forward-headers-strategy}), since behind a load balancer the peer address is shared by every
+ * client. Every limited response carries {@code X-RateLimit-Limit}, {@code X-RateLimit-Remaining} and
+ * {@code X-RateLimit-Reset} (seconds until the bucket is full); a rejected one gets 429 with
+ * {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final ClientRateLimiter rateLimiter;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return RequestPaths.isOperational(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        boolean authenticated = principal != null && principal.getName() != null;
+        String clientKey = authenticated ? "user:" + principal.getName() : "ip:" + request.getRemoteAddr();
+
+        ClientRateLimiter.Decision decision = rateLimiter.tryAcquire(clientKey, authenticated);
+        if (decision.limit() > 0) {
+            response.setHeader(LIMIT_HEADER, Integer.toString(decision.limit()));
+            response.setHeader(REMAINING_HEADER, Integer.toString(decision.remaining()));
+            response.setHeader(RESET_HEADER, Long.toString(decision.resetSeconds()));
+        }
+        if (!decision.allowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded for tier " + decision.tier());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fitnessapp.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * The limits of {@link ConcurrencyLimitFilter} and {@link RateLimitFilter} for the reactive content routes,
+ * which the servlet filters never see. Both share the servlet side's limiter instances, so a client gets one
+ * budget and the database one concurrency limit whichever port a request arrives on. Every request on that
+ * port is an anonymous {@code /api/v1} read: it counts as {@link AdaptiveConcurrencyLimiter.Priority#INTERACTIVE}
+ * and is rate limited by client address, with the same status codes and headers as the servlet filters.
+ */
+public final class ReactiveLimitFilters {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    /**
+     * Tomcat's default {@code internal-proxies}: loopback, private, link-local and carrier-grade NAT ranges.
+     */
+    private static final Pattern INTERNAL_PROXIES = Pattern.compile(
+            "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|192\\.168\\.\\d{1,3}\\.\\d{1,3}|169\\.254\\.\\d{1,3}\\.\\d{1,3}"
+                    + "|127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|100\\.6[4-9]\\.\\d{1,3}\\.\\d{1,3}|100\\.[7-9]\\d\\.\\d{1,3}\\.\\d{1,3}"
+                    + "|100\\.1[0-1]\\d\\.\\d{1,3}\\.\\d{1,3}|100\\.12[0-7]\\.\\d{1,3}\\.\\d{1,3}|172\\.1[6-9]\\.\\d{1,3}\\.\\d{1,3}"
+                    + "|172\\.2\\d\\.\\d{1,3}\\.\\d{1,3}|172\\.3[0-1]\\.\\d{1,3}\\.\\d{1,3}"
+                    + "|0:0:0:0:0:0:0:1|::1|fe[89ab]\\p{XDigit}:.*|f[cd]\\p{XDigit}{2}+:.*");
+
+    private ReactiveLimitFilters() {
+    }
+
+    /**
+     * Rejects with 503 once the limiter has no headroom; otherwise holds a slot until the response is ready.
+     */
+    public static HandlerFilterFunction<ServerResponse, ServerResponse> concurrencyLimit(AdaptiveConcurrencyLimiter limiter,
+                                                                                        MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter.Priority priority = AdaptiveConcurrencyLimiter.Priority.INTERACTIVE;
+        Counter shed = Counter.builder("http.server.shed")
+                .tag("priority", priority.tag())
+                .register(meterRegistry);
+        return (request, next) -> {
+            if (!limiter.tryAcquire(priority)) {
+                shed.increment();
+                return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .build();
+            }
+            long start = System.nanoTime();
+            AtomicBoolean failed = new AtomicBoolean();
+            // a cancelled exchange is a client that went away, not a sign of overload
+            return Mono.defer(() -> next.handle(request))
+                    .doOnNext(response -> failed.set(response.statusCode().is5xxServerError()))
+                    .doOnError(ex -> failed.set(true))
+                    .doFinally(signal -> limiter.release(priority, System.nanoTime() - start, failed.get()));
+        };
+    }
+
+    /**
+     * Charges the client's bucket and rejects with 429 when it is empty.
+     *
+     * @param forwardedHeaders whether {@code X-Forwarded-For} is honoured from internal proxies, as the servlet
+     *                         side does under {@code server.forward-headers-strategy}
+     */
+    public static HandlerFilterFunction<ServerResponse, ServerResponse> rateLimit(ClientRateLimiter rateLimiter,
+                                                                                 boolean forwardedHeaders) {
+        return (request, next) -> {
+            ClientRateLimiter.Decision decision = rateLimiter.tryAcquire("ip:" + clientAddress(request, forwardedHeaders), false);
+            if (decision.limit() > 0) {
+                // written to the exchange so they survive whichever response the handler builds, 304 included
+                HttpHeaders headers = request.exchange().getResponse().getHeaders();
+                headers.set(RateLimitFilter.LIMIT_HEADER, Integer.toString(decision.limit()));
+                headers.set(RateLimitFilter.REMAINING_HEADER, Integer.toString(decision.remaining()));
+                headers.set(RateLimitFilter.RESET_HEADER, Long.toString(decision.resetSeconds()));
+            }
+            if (!decision.allowed()) {
+                return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()))
+                        .build();
+            }
+            return next.handle(request);
+        };
+    }
+
+    /**
+     * The peer address or, when the peer is an internal proxy, the nearest {@code X-Forwarded-For} hop that is
+     * not one, the way Tomcat's {@code RemoteIpValve} resolves it. Behind a load balancer the peer alone would
+     * put every client in the same bucket.
+     */
+    static String clientAddress(ServerRequest request, boolean forwardedHeaders) {
+        String address = request.remoteAddress().map(ReactiveLimitFilters::hostAddress).orElse("unknown");
+        if (!forwardedHeaders || !INTERNAL_PROXIES.matcher(address).matches()) {
+            return address;
+        }
+        List<String> forwarded = request.headers().header(FORWARDED_FOR);
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            String[] hops = forwarded.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                String hop = hops[j].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                address = hop;
+                if (!INTERNAL_PROXIES.matcher(hop).matches()) {
+                    return hop;
+                }
+            }
+        }
+        return address;
+    }
+
+    private static String hostAddress(InetSocketAddress address) {
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
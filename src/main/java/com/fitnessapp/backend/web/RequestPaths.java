@@ -0,0 +1,25 @@
+package com.fitnessapp.backend.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Health checks, metrics and API docs; never limited so operators can still see an overloaded instance.
+     */
+    static boolean isOperational(HttpServletRequest request) {
+        String path = path(request);
+        return path.startsWith("/actuator") || path.startsWith("/v3/api-docs") || path.startsWith("/swagger-ui");
+    }
+
+    static boolean isInteractive(HttpServletRequest request) {
+        return path(request).startsWith("/api/v1/");
+    }
+}
@@ -0,0 +1,81 @@
+package com.fitnessapp.backend.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time" on the
+ * {@link System#nanoTime()} scale, so admitting a request is a single compare-and-set and allocates nothing.
+ * A request is admitted while that time stays within {@code capacity} emission intervals of now.
+ */
+final class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    private final AtomicInteger unsynced = new AtomicInteger();
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            if (next - nowNanos > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                unsynced.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int remaining(long nowNanos) {
+        long backlog = Math.max(theoreticalArrival.get(), nowNanos) - nowNanos;
+        return (int) Math.max(0L, (burstNanos - backlog) / intervalNanos);
+    }
+
+    /**
+     * Time until the bucket is full again.
+     */
+    long nanosUntilFull(long nowNanos) {
+        return Math.max(0L, theoreticalArrival.get() - nowNanos);
+    }
+
+    /**
+     * Time until the next request would be admitted.
+     */
+    long nanosUntilAvailable(long nowNanos) {
+        return Math.max(0L, Math.max(theoreticalArrival.get(), nowNanos) + intervalNanos - nowNanos - burstNanos);
+    }
+
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * Requests admitted locally since the last call; the caller reports them to the shared bucket.
+     */
+    int drainUnsynced() {
+        return unsynced.getAndSet(0);
+    }
+
+    /**
+     * Applies the shared bucket's state: {@code backlogNanos} is how far its arrival time is ahead of now after
+     * every instance's traffic. The local bucket only ever moves forward, so local admissions are never undone.
+     */
+    void applyShared(long nowNanos, long backlogNanos) {
+        theoreticalArrival.accumulateAndGet(nowNanos + backlogNanos, Math::max);
+    }
+}
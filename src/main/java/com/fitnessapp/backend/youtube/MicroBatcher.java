@@ -0,0 +1,138 @@
+package com.fitnessapp.backend.youtube;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Gathers concurrent single-key lookups into one bulk load. The first caller to find no open batch opens one
+ * and becomes its leader: it waits up to {@code maxWait} for others to join (or until the batch holds
+ * {@code maxBatchSize} keys), then runs the loader on its own thread and hands every waiter its value. Keys
+ * requested twice in one batch share a slot. No background thread is involved, so an idle batcher costs
+ * nothing.
+ *
+ * <p>Publishes {@code <name>.batch.size} and {@code <name>.batch.wait}, the time each caller spent waiting
+ * for its batch to be dispatched.
+ */
+final class MicroBatcher<K, V> {
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Function<List<K>, Map<K, V>> loader;
+    private final DistributionSummary batchSize;
+    private final Timer batchWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dispatched = lock.newCondition();
+    private Batch<K, V> open;
+
+    MicroBatcher(String name,
+                 int maxBatchSize,
+                 Duration maxWait,
+                 Function<List<K>, Map<K, V>> loader,
+                 MeterRegistry meterRegistry) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.loader = loader;
+        this.batchSize = DistributionSummary.builder(name + ".batch.size")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.batchWait = Timer.builder(name + ".batch.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the loaded value, or {@code null} when the loader had none for {@code key}
+     */
+    V load(K key) {
+        Batch<K, V> batch;
+        CompletableFuture<V> slot;
+        boolean leader;
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader) {
+                open = new Batch<>();
+            }
+            batch = open;
+            slot = batch.pending.computeIfAbsent(key, ignored -> new CompletableFuture<>());
+            batch.enqueuedAt.add(System.nanoTime());
+            if (batch.pending.size() >= maxBatchSize) {
+                close(batch);
+            }
+            if (leader) {
+                awaitClose(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            dispatch(batch);
+        }
+        try {
+            return slot.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    private void awaitClose(Batch<K, V> batch) {
+        long remaining = maxWaitNanos;
+        try {
+            while (open == batch && remaining > 0) {
+                remaining = dispatched.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        close(batch);
+    }
+
+    private void close(Batch<K, V> batch) {
+        if (open == batch) {
+            open = null;
+            dispatched.signalAll();
+        }
+    }
+
+    /**
+     * Runs once per batch, on the leader's thread, after the batch was closed; nothing else touches it then.
+     */
+    private void dispatch(Batch<K, V> batch) {
+        long now = System.nanoTime();
+        for (long enqueued : batch.enqueuedAt) {
+            batchWait.record(now - enqueued, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.pending.size());
+
+        Map<K, V> loaded;
+        try {
+            loaded = loader.apply(new ArrayList<>(batch.pending.keySet()));
+        } catch (RuntimeException | Error ex) {
+            batch.pending.values().forEach(slot -> slot.completeExceptionally(ex));
+            return;
+        }
+        batch.pending.forEach((key, slot) -> slot.complete(loaded.get(key)));
+    }
+
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+        private final List<Long> enqueuedAt = new ArrayList<>();
+    }
+}
@@ -0,0 +1,24 @@
+package com.fitnessapp.backend.youtube;
+
+import java.util.Locale;
+
+/**
+ * Who is asking for quota. Interactive lookups may spend the whole daily budget; bulk work (imports,
+ * curation) stops short of it so the reserve is left for users.
+ */
+public enum QuotaPriority {
+
+    /**
+     * A user is waiting on the result: single-video lookups and the background refreshes they trigger.
+     */
+    INTERACTIVE,
+
+    /**
+     * Imports and curation runs, which can be resumed on a later day.
+     */
+    BULK;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
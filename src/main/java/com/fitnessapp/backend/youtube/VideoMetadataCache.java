@@ -0,0 +1,278 @@
+package com.fitnessapp.backend.youtube;
+
+import com.fitnessapp.backend.config.YouTubeProperties;
+import com.fitnessapp.backend.youtube.dto.VideoMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Video metadata cache in two levels: a bounded in-process Caffeine map (L1) in front of the shared Redis
+ * keys (L2). A hot id is answered from L1 without a network round trip or JSON decoding.
+ *
+ * <p>Whenever an instance writes fresh metadata it publishes the ids on {@link #INVALIDATION_CHANNEL}; the
+ * other instances drop them from L1 and re-read Redis on next use. Pub/sub delivery is best effort (a message
+ * sent while an instance is reconnecting is lost), so L1 entries also expire after
+ * {@code app.youtube.local-cache.ttl}, which bounds how stale an instance can get.
+ *
+ * <p>Ids known to have no metadata are kept as typed negative entries ({@link VideoMissReason}) under
+ * {@code yt:video:missing:<id>}, each with the TTL configured for its reason. They live in Redis only; they
+ * are consulted after a positive miss, so they never slow down a hit.
+ *
+ * <p>Publishes {@code youtube.metadata.cache{level,result}} for {@code level} {@code l1}, {@code l2} and
+ * {@code negative}.
+ */
+@Component
+@Slf4j
+public class VideoMetadataCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "yt:video:invalidate";
+    static final String KEY_PREFIX = "yt:video:";
+    static final String MISSING_KEY_PREFIX = "yt:video:missing:";
+
+    private final RedisTemplate<String, VideoMetadata> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final YouTubeProperties properties;
+    private final Cache<String, VideoMetadata> local;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter negativeHits;
+    private final Counter negativeMisses;
+
+    public VideoMetadataCache(RedisTemplate<String, VideoMetadata> redisTemplate,
+                              StringRedisTemplate stringRedisTemplate,
+                              YouTubeProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        YouTubeProperties.LocalCache settings = properties.getLocalCache();
+        this.local = Caffeine.newBuilder()
+                .maximumSize(settings.isEnabled() ? settings.getMaxEntries() : 0)
+                .expireAfterWrite(settings.getTtl())
+                .build();
+        this.l1Hits = meterRegistry.counter("youtube.metadata.cache", "level", "l1", "result", "hit");
+        this.l1Misses = meterRegistry.counter("youtube.metadata.cache", "level", "l1", "result", "miss");
+        this.l2Hits = meterRegistry.counter("youtube.metadata.cache", "level", "l2", "result", "hit");
+        this.l2Misses = meterRegistry.counter("youtube.metadata.cache", "level", "l2", "result", "miss");
+        this.negativeHits = meterRegistry.counter("youtube.metadata.cache", "level", "negative", "result", "hit");
+        this.negativeMisses = meterRegistry.counter("youtube.metadata.cache", "level", "negative", "result", "miss");
+    }
+
+    public VideoMetadata get(String videoId) {
+        VideoMetadata cached = local.getIfPresent(videoId);
+        if (cached != null) {
+            l1Hits.increment();
+            return cached;
+        }
+        l1Misses.increment();
+
+        cached = redisTemplate.opsForValue().get(KEY_PREFIX + videoId);
+        if (cached == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        local.put(videoId, cached);
+        return cached;
+    }
+
+    /**
+     * @return the cached entries among {@code videoIds}; missing ids are absent
+     */
+    public Map<String, VideoMetadata> getAll(Collection<String> videoIds) {
+        Map<String, VideoMetadata> found = new HashMap<>();
+        List<String> remote = new ArrayList<>();
+        for (String videoId : videoIds) {
+            VideoMetadata cached = local.getIfPresent(videoId);
+            if (cached != null) {
+                found.put(videoId, cached);
+            } else {
+                remote.add(videoId);
+            }
+        }
+        l1Hits.increment(found.size());
+        l1Misses.increment(remote.size());
+        if (remote.isEmpty()) {
+            return found;
+        }
+
+        List<VideoMetadata> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(remote.stream().map(id -> KEY_PREFIX + id).toList());
+        } catch (Exception ex) {
+            log.warn("Failed to read {} cached videos from Redis: {}", remote.size(), ex.getMessage());
+            values = null;
+        }
+        int hits = 0;
+        for (int i = 0; values != null && i < values.size() && i < remote.size(); i++) {
+            VideoMetadata cached = values.get(i);
+            if (cached != null) {
+                found.put(remote.get(i), cached);
+                local.put(remote.get(i), cached);
+                hits++;
+            }
+        }
+        l2Hits.increment(hits);
+        l2Misses.increment(remote.size() - hits);
+        return found;
+    }
+
+    /**
+     * Stores freshly fetched metadata in both levels (one plain SET, or one pipeline for several entries) and
+     * tells the other instances to drop their local copies.
+     */
+    public void putAll(List<VideoMetadata> fetched) {
+        if (fetched.isEmpty()) {
+            return;
+        }
+        Duration ttl = properties.getCacheTtl();
+        if (fetched.size() == 1) {
+            VideoMetadata metadata = fetched.get(0);
+            redisTemplate.opsForValue().set(KEY_PREFIX + metadata.getYoutubeId(), metadata, ttl);
+        } else {
+            try {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, VideoMetadata> pipeline = (RedisOperations<String, VideoMetadata>) operations;
+                        for (VideoMetadata metadata : fetched) {
+                            pipeline.opsForValue().set(KEY_PREFIX + metadata.getYoutubeId(), metadata, ttl);
+                        }
+                        return null;
+                    }
+                });
+            } catch (Exception ex) {
+                log.warn("Failed to cache {} videos in Redis: {}", fetched.size(), ex.getMessage());
+            }
+        }
+
+        List<String> ids = new ArrayList<>(fetched.size());
+        for (VideoMetadata metadata : fetched) {
+            local.put(metadata.getYoutubeId(), metadata);
+            ids.add(metadata.getYoutubeId());
+        }
+        publishInvalidation(ids);
+    }
+
+    /**
+     * @return the recorded reasons among {@code videoIds}; ids without a negative entry are absent
+     */
+    public Map<String, VideoMissReason> getMissing(Collection<String> videoIds) {
+        if (videoIds.isEmpty() || !properties.getNegativeCache().isEnabled()) {
+            return Map.of();
+        }
+        List<String> ids = List.copyOf(videoIds);
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForValue().multiGet(ids.stream().map(id -> MISSING_KEY_PREFIX + id).toList());
+        } catch (Exception ex) {
+            log.debug("Failed to read {} negative entries from Redis: {}", ids.size(), ex.getMessage());
+            return Map.of();
+        }
+        Map<String, VideoMissReason> missing = new HashMap<>();
+        for (int i = 0; values != null && i < values.size() && i < ids.size(); i++) {
+            VideoMissReason reason = parseReason(values.get(i));
+            if (reason != null) {
+                missing.put(ids.get(i), reason);
+            }
+        }
+        negativeHits.increment(missing.size());
+        negativeMisses.increment(ids.size() - missing.size());
+        return missing;
+    }
+
+    /**
+     * Records negative entries. A video that is gone (anything but {@link VideoMissReason#API_ERROR}) also
+     * loses its positive entry on every instance, so a stale copy is not served until the hard TTL.
+     */
+    public void putMissing(Map<String, VideoMissReason> missing) {
+        YouTubeProperties.NegativeCache settings = properties.getNegativeCache();
+        if (missing.isEmpty() || !settings.isEnabled()) {
+            return;
+        }
+        List<String> gone = missing.entrySet().stream()
+                .filter(entry -> entry.getValue() != VideoMissReason.API_ERROR)
+                .map(Map.Entry::getKey)
+                .toList();
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> pipeline = (RedisOperations<String, String>) operations;
+                    missing.forEach((videoId, reason) -> pipeline.opsForValue()
+                            .set(MISSING_KEY_PREFIX + videoId, reason.name(), settings.ttl(reason)));
+                    gone.forEach(videoId -> pipeline.delete(KEY_PREFIX + videoId));
+                    return null;
+                }
+            });
+        } catch (Exception ex) {
+            log.warn("Failed to record {} negative entries in Redis: {}", missing.size(), ex.getMessage());
+        }
+        if (!gone.isEmpty()) {
+            gone.forEach(local::invalidate);
+            publishInvalidation(gone);
+        }
+    }
+
+    private static VideoMissReason parseReason(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return VideoMissReason.valueOf(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private void publishInvalidation(List<String> ids) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ' ' + String.join(",", ids));
+        } catch (Exception ex) {
+            log.debug("Failed to publish invalidation for {} videos: {}", ids.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Invalidation from another instance; our own messages are ignored since L1 already holds the new value.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        if (separator < 0 || body.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        for (String videoId : body.substring(separator + 1).split(",")) {
+            local.invalidate(videoId);
+        }
+    }
+
+    long localSize() {
+        return local.estimatedSize();
+    }
+}
@@ -0,0 +1,319 @@
+package com.fitnessapp.backend.youtube;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.config.YouTubeProperties;
+import com.fitnessapp.backend.youtube.dto.VideoMetadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis value codec for {@link VideoMetadata}. Writes either the original JSON or a compact binary layout
+ * ({@code app.youtube.cache-codec.format}); reads both, telling them apart by the first byte, so entries
+ * written before a format switch stay readable until they expire.
+ *
+ * <p>Binary layout, version 1:
+ * <pre>
+ * 0x01 flags youtubeId title description thumbnailUrl? channelId channelTitle
+ *      zigzag(durationSeconds) zigzag(durationMinutes) zigzag(viewCount) optional(fetchedAtMillis)
+ * </pre>
+ * Integers are LEB128 varints; a string is {@code varint(utf8 length + 1)} followed by the bytes, 0 meaning
+ * null. Flag {@value #FLAG_DEFLATED} marks a raw-deflated description, stored as {@code varint(inflated
+ * length)} plus a string of the compressed bytes; descriptions above {@code compress-threshold} bytes are
+ * compressed when that actually saves space. Flag {@value #FLAG_DEFAULT_THUMBNAIL} means the thumbnail is the
+ * standard {@code hqdefault} URL for the id and is not stored. A new field means a new version byte; the
+ * decoder keeps reading every older version.
+ */
+public final class VideoMetadataRedisSerializer implements RedisSerializer<VideoMetadata> {
+
+    public enum Format {
+        JSON,
+        BINARY
+    }
+
+    static final byte VERSION_1 = 0x01;
+    static final int FLAG_DEFLATED = 0x01;
+    static final int FLAG_DEFAULT_THUMBNAIL = 0x02;
+
+    /**
+     * YouTube caps descriptions at 5,000 characters, so a compressed description claiming more than this is corrupt.
+     */
+    static final int MAX_INFLATED_BYTES = 64 * 1024;
+    // raw deflate cannot expand input by more than about 1032:1
+    private static final long MAX_DEFLATE_RATIO = 1032L;
+
+    private static final byte JSON_START = '{';
+    private static final String THUMBNAIL_PREFIX = "https://i.ytimg.com/vi/";
+    private static final String THUMBNAIL_SUFFIX = "/hqdefault.jpg";
+
+    private final ObjectMapper objectMapper;
+    private final Format format;
+    private final int compressThreshold;
+
+    public VideoMetadataRedisSerializer(ObjectMapper objectMapper, YouTubeProperties.CacheCodec settings) {
+        this(objectMapper, settings.getFormat(), settings.getCompressThreshold());
+    }
+
+    VideoMetadataRedisSerializer(ObjectMapper objectMapper, Format format, int compressThreshold) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(VideoMetadata value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (format == Format.JSON) {
+            try {
+                return objectMapper.writeValueAsBytes(value);
+            } catch (IOException ex) {
+                throw new SerializationException("Cannot write video metadata as JSON", ex);
+            }
+        }
+        return writeBinary(value);
+    }
+
+    @Override
+    public VideoMetadata deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_START) {
+            try {
+                return objectMapper.readValue(bytes, VideoMetadata.class);
+            } catch (IOException ex) {
+                throw new SerializationException("Cannot read video metadata JSON", ex);
+            }
+        }
+        if (bytes[0] == VERSION_1) {
+            return readVersion1(bytes);
+        }
+        throw new SerializationException("Unknown video metadata encoding 0x" + Integer.toHexString(bytes[0] & 0xFF));
+    }
+
+    private byte[] writeBinary(VideoMetadata value) {
+        Output out = new Output();
+        byte[] description = utf8(value.getDescription());
+        // anything past the reader's inflate cap is stored raw, where its length is bounded by the entry itself
+        byte[] deflated = description != null && description.length > compressThreshold
+                && description.length <= MAX_INFLATED_BYTES ? deflate(description) : null;
+        boolean compress = deflated != null && deflated.length < description.length;
+        boolean defaultThumbnail = value.getYoutubeId() != null
+                && defaultThumbnail(value.getYoutubeId()).equals(value.getThumbnailUrl());
+
+        out.write(VERSION_1);
+        out.write((compress ? FLAG_DEFLATED : 0) | (defaultThumbnail ? FLAG_DEFAULT_THUMBNAIL : 0));
+        out.string(utf8(value.getYoutubeId()));
+        out.string(utf8(value.getTitle()));
+        if (compress) {
+            out.varint(description.length);
+            out.string(deflated);
+        } else {
+            out.string(description);
+        }
+        if (!defaultThumbnail) {
+            out.string(utf8(value.getThumbnailUrl()));
+        }
+        out.string(utf8(value.getChannelId()));
+        out.string(utf8(value.getChannelTitle()));
+        out.zigzag(value.getDurationSeconds());
+        out.zigzag(value.getDurationMinutes());
+        out.zigzag(value.getViewCount());
+        out.varint(value.getFetchedAtMillis() == null ? 0L : value.getFetchedAtMillis() + 1L);
+        return out.toByteArray();
+    }
+
+    private static VideoMetadata readVersion1(byte[] bytes) {
+        Input in = new Input(bytes, 1);
+        int flags = in.readByte();
+        String youtubeId = in.string();
+        String title = in.string();
+        String description;
+        if ((flags & FLAG_DEFLATED) != 0) {
+            long length = in.varint();
+            byte[] compressed = in.bytes();
+            if (compressed == null || compressed.length == 0) {
+                throw new SerializationException("Missing compressed description");
+            }
+            if (length < 0 || length > MAX_INFLATED_BYTES || length > compressed.length * MAX_DEFLATE_RATIO) {
+                throw new SerializationException("Implausible inflated description length " + length);
+            }
+            description = new String(inflate(compressed, (int) length), StandardCharsets.UTF_8);
+        } else {
+            description = in.string();
+        }
+        String thumbnailUrl = (flags & FLAG_DEFAULT_THUMBNAIL) != 0 ? defaultThumbnail(youtubeId) : in.string();
+        String channelId = in.string();
+        String channelTitle = in.string();
+        int durationSeconds = (int) in.zigzag();
+        int durationMinutes = (int) in.zigzag();
+        long viewCount = in.zigzag();
+        long fetchedAt = in.varint();
+        return VideoMetadata.builder()
+                .youtubeId(youtubeId)
+                .title(title)
+                .description(description)
+                .thumbnailUrl(thumbnailUrl)
+                .channelId(channelId)
+                .channelTitle(channelTitle)
+                .durationSeconds(durationSeconds)
+                .durationMinutes(durationMinutes)
+                .viewCount(viewCount)
+                .fetchedAtMillis(fetchedAt == 0L ? null : fetchedAt - 1L)
+                .build();
+    }
+
+    private static String defaultThumbnail(String youtubeId) {
+        return THUMBNAIL_PREFIX + youtubeId + THUMBNAIL_SUFFIX;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int length) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[length];
+            int total = 0;
+            while (total < length) {
+                int count = inflater.inflate(output, total, length - total);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                total += count;
+            }
+            if (total != length) {
+                throw new SerializationException("Truncated compressed description");
+            }
+            return output;
+        } catch (DataFormatException ex) {
+            throw new SerializationException("Corrupt compressed description", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(256);
+        }
+
+        void varint(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            write((int) remaining);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void string(byte[] bytes) {
+            if (bytes == null) {
+                varint(0);
+                return;
+            }
+            varint(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new SerializationException("Truncated video metadata");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in video metadata");
+        }
+
+        long zigzag() {
+            long raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        byte[] bytes() {
+            long header = varint();
+            if (header == 0) {
+                return null;
+            }
+            int length = length(header);
+            byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return value;
+        }
+
+        String string() {
+            long header = varint();
+            if (header == 0) {
+                return null;
+            }
+            int length = length(header);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Length encoded in a non-zero string header, checked against the bytes that are actually left.
+         */
+        private int length(long header) {
+            // compared as longs: a corrupt header must not wrap around into a plausible int
+            if (header < 1 || header - 1 > bytes.length - position) {
+                throw new SerializationException("Truncated video metadata");
+            }
+            return (int) (header - 1);
+        }
+    }
+}
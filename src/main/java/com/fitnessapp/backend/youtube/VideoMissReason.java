@@ -0,0 +1,35 @@
+package com.fitnessapp.backend.youtube;
+
+import java.util.Locale;
+
+/**
+ * Why a video id resolved to no metadata. Recorded in the negative cache so the next lookup of the same id
+ * is answered without spending quota.
+ */
+public enum VideoMissReason {
+
+    /**
+     * {@code videos.list} returned nothing for the id: deleted, or never existed.
+     */
+    NOT_FOUND,
+
+    /**
+     * A playlist listed the video as private; {@code videos.list} cannot tell this apart from
+     * {@link #NOT_FOUND}, so only importers that see the playlist item record it.
+     */
+    PRIVATE,
+
+    /**
+     * Not a syntactically valid YouTube id; recognised locally and never sent to the API.
+     */
+    INVALID_ID,
+
+    /**
+     * The API call failed (quota, network, 5xx); cached briefly so a failing id is not retried in a loop.
+     */
+    API_ERROR;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,29 @@
+package com.fitnessapp.backend.youtube;
+
+/**
+ * YouTube Data API methods this service calls, with their quota cost. A call is charged in full whether it
+ * returns one item or fifty, and whether it succeeds or not.
+ */
+public enum YouTubeApiMethod {
+
+    SEARCH_LIST("search.list", 100),
+    VIDEOS_LIST("videos.list", 1),
+    PLAYLIST_ITEMS_LIST("playlistItems.list", 1),
+    CHANNELS_LIST("channels.list", 1);
+
+    private final String tag;
+    private final int units;
+
+    YouTubeApiMethod(String tag, int units) {
+        this.tag = tag;
+        this.units = units;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public int units() {
+        return units;
+    }
+}
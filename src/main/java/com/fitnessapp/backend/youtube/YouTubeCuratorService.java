@@ -1,5 +1,6 @@
 package com.fitnessapp.backend.youtube;
 
+import com.fitnessapp.backend.catalog.CatalogVersionService;
 import com.fitnessapp.backend.config.YouTubeProperties;
 import com.fitnessapp.backend.domain.WorkoutVideo;
 import com.fitnessapp.backend.repository.WorkoutVideoRepository;
@@ -157,7 +158,9 @@ public class YouTubeCuratorService {
     private final YouTube youtube;
     private final YouTubeService youTubeService;
     private final YouTubeProperties properties;
+    private final YouTubeQuotaLedger quotaLedger;
     private final WorkoutVideoRepository workoutVideoRepository;
+    private final CatalogVersionService catalogVersionService;
 
     public PlaylistImportResult importPlaylist(PlaylistImportRequest request) {
         validateRequest(request);
@@ -178,57 +181,79 @@ public class YouTubeCuratorService {
         String nextPageToken = null;
         int desired = request.targetCountOrDefault();
 
-        do {
-            PlaylistItemListResponse response = executePlaylistFetch(request.playlistId(), nextPageToken);
-            List<PlaylistItem> items = Optional.ofNullable(response.getItems()).orElse(Collections.emptyList());
-            for (PlaylistItem item : items) {
-                String videoId = extractVideoId(item);
-                if (!StringUtils.hasText(videoId) || !processedIds.add(videoId)) {
-                    continue;
-                }
-
-                seen++;
-                Optional<VideoMetadata> metadataOpt = youTubeService.fetchVideoMetadata(videoId);
-                if (metadataOpt.isEmpty()) {
-                    rejected++;
-                    rejectionReasons.add(videoId + ":metadata_missing");
-                    continue;
-                }
-
-                VideoMetadata metadata = metadataOpt.get();
-                Optional<ChannelMetadata> channelMetaOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
-                if (channelMetaOpt.isEmpty()) {
-                    rejected++;
-                    rejectionReasons.add(videoId + ":channel_missing");
-                    continue;
-                }
-                ChannelMetadata channel = channelMetaOpt.get();
-
-                Optional<String> qualityIssue = qualityIssue(metadata, channel, request);
-                if (qualityIssue.isPresent()) {
-                    rejected++;
-                    rejectionReasons.add(videoId + ":" + qualityIssue.get());
-                    continue;
+        try {
+            do {
+                PlaylistItemListResponse response = executePlaylistFetch(request.playlistId(), nextPageToken);
+                List<PlaylistItem> items = Optional.ofNullable(response.getItems()).orElse(Collections.emptyList());
+                // private entries are known dead from the playlist item alone; record them so no lookup is spent
+                Map<String, VideoMissReason> privateIds = new HashMap<>();
+                List<String> pageIds = new ArrayList<>();
+                for (PlaylistItem item : items) {
+                    String videoId = extractVideoId(item);
+                    if (!StringUtils.hasText(videoId) || processedIds.contains(videoId)) {
+                        continue;
+                    }
+                    if (isPrivate(item)) {
+                        privateIds.put(videoId, VideoMissReason.PRIVATE);
+                    } else {
+                        pageIds.add(videoId);
+                    }
                 }
-
-                boolean existed = workoutVideoRepository.findByYoutubeId(videoId).isPresent();
-                persistVideo(metadata, channel, request);
-                if (existed) {
-                    updated++;
-                } else {
-                    saved++;
+                youTubeService.recordMissing(privateIds);
+                YouTubeService.Lookup pageLookup = youTubeService.lookupVideoMetadata(pageIds);
+                for (PlaylistItem item : items) {
+                    String videoId = extractVideoId(item);
+                    if (!StringUtils.hasText(videoId) || !processedIds.add(videoId)) {
+                        continue;
+                    }
+
+                    seen++;
+                    VideoMetadata metadata = pageLookup.found().get(videoId);
+                    if (metadata == null) {
+                        rejected++;
+                        rejectionReasons.add(videoId + ":" + missReason(videoId, privateIds, pageLookup));
+                        continue;
+                    }
+
+                    Optional<ChannelMetadata> channelMetaOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
+                    if (channelMetaOpt.isEmpty()) {
+                        rejected++;
+                        rejectionReasons.add(videoId + ":channel_missing");
+                        continue;
+                    }
+                    ChannelMetadata channel = channelMetaOpt.get();
+
+                    Optional<String> qualityIssue = qualityIssue(metadata, channel, request);
+                    if (qualityIssue.isPresent()) {
+                        rejected++;
+                        rejectionReasons.add(videoId + ":" + qualityIssue.get());
+                        continue;
+                    }
+
+                    boolean existed = workoutVideoRepository.findByYoutubeId(videoId).isPresent();
+                    persistVideo(metadata, channel, request);
+                    if (existed) {
+                        updated++;
+                    } else {
+                        saved++;
+                    }
+
+                    if (saved + updated >= desired) {
+                        break;
+                    }
                 }
 
                 if (saved + updated >= desired) {
                     break;
                 }
+                nextPageToken = response.getNextPageToken();
+            } while (StringUtils.hasText(nextPageToken));
+        } finally {
+            // one version bump for the whole playlist rather than one per saved video
+            if (saved + updated > 0) {
+                catalogVersionService.markChanged();
             }
-
-            if (saved + updated >= desired) {
-                break;
-            }
-            nextPageToken = response.getNextPageToken();
-        } while (StringUtils.hasText(nextPageToken));
+        }
 
         return PlaylistImportResult.builder()
                 .playlistId(request.playlistId())
@@ -409,126 +434,147 @@ public class YouTubeCuratorService {
         List<String> errors = new ArrayList<>();
         Map<String, ChannelMetadata> channelCache = new ConcurrentHashMap<>();
         Set<String> processedIds = new HashSet<>();
+        // one lookup for the whole list; ids already known to be dead come back as misses without an API call
+        YouTubeService.Lookup curatedLookup = youTubeService.lookupVideoMetadata(
+                videos.stream().map(CuratedVideoSpec::videoId).toList());
+        Map<String, VideoMetadata> curatedMetadata = curatedLookup.found();
+        Map<String, Integer> searchSummary = new LinkedHashMap<>();
+        List<String> deferredSearches = new ArrayList<>();
 
-        for (CuratedVideoSpec spec : videos) {
-            try {
-                if (processedIds.contains(spec.videoId())) {
-                    continue;
-                }
-                Optional<VideoMetadata> metadataOpt = youTubeService.fetchVideoMetadata(spec.videoId());
-                if (metadataOpt.isEmpty()) {
-                    rejected++;
-                    errors.add(spec.videoId() + ":metadata_missing");
-                    continue;
-                }
-
-                VideoMetadata metadata = metadataOpt.get();
-                processedIds.add(metadata.getYoutubeId());
+        try {
+            for (CuratedVideoSpec spec : videos) {
+                try {
+                    if (processedIds.contains(spec.videoId())) {
+                        continue;
+                    }
+                    VideoMetadata metadata = curatedMetadata.get(spec.videoId());
+                    if (metadata == null) {
+                        rejected++;
+                        errors.add(spec.videoId() + ":" + missReason(spec.videoId(), Map.of(), curatedLookup));
+                        continue;
+                    }
+
+                    processedIds.add(metadata.getYoutubeId());
                 
-                // Basic quality filter - 5 minutes max
-                if (metadata.getDurationSeconds() > 300) {
-                    rejected++;
-                    errors.add(spec.videoId() + ":duration_too_long");
-                    continue;
-                }
-
-                Optional<ChannelMetadata> channelOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
-                if (channelOpt.isEmpty()) {
-                    rejected++;
-                    errors.add(spec.videoId() + ":channel_missing");
-                    continue;
-                }
-
-                ChannelMetadata channel = channelOpt.get();
+                    // Basic quality filter - 5 minutes max
+                    if (metadata.getDurationSeconds() > 300) {
+                        rejected++;
+                        errors.add(spec.videoId() + ":duration_too_long");
+                        continue;
+                    }
+
+                    Optional<ChannelMetadata> channelOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
+                    if (channelOpt.isEmpty()) {
+                        rejected++;
+                        errors.add(spec.videoId() + ":channel_missing");
+                        continue;
+                    }
+
+                    ChannelMetadata channel = channelOpt.get();
                 
-                // Create a pseudo request for persistVideo
-                PlaylistImportRequest pseudoRequest = PlaylistImportRequest.builder()
-                        .equipment(spec.equipment())
-                        .level(spec.level())
-                        .bodyParts(List.of(spec.bodyPart()))
-                        .build();
+                    // Create a pseudo request for persistVideo
+                    PlaylistImportRequest pseudoRequest = PlaylistImportRequest.builder()
+                            .equipment(spec.equipment())
+                            .level(spec.level())
+                            .bodyParts(List.of(spec.bodyPart()))
+                            .build();
                 
-                // Check if video already exists
-                Optional<WorkoutVideo> existing = workoutVideoRepository.findByYoutubeId(metadata.getYoutubeId());
+                    // Check if video already exists
+                    Optional<WorkoutVideo> existing = workoutVideoRepository.findByYoutubeId(metadata.getYoutubeId());
                 
-                // Persist the video
-                persistVideo(metadata, channel, pseudoRequest);
+                    // Persist the video
+                    persistVideo(metadata, channel, pseudoRequest);
                 
-                if (existing.isPresent()) {
-                    updated++;
-                    log.debug("Updated existing video: {} ({})", metadata.getTitle(), spec.videoId());
-                } else {
-                    imported++;
-                    log.info("✅ Imported new video: {} ({})", metadata.getTitle(), spec.videoId());
+                    if (existing.isPresent()) {
+                        updated++;
+                        log.debug("Updated existing video: {} ({})", metadata.getTitle(), spec.videoId());
+                    } else {
+                        imported++;
+                        log.info("✅ Imported new video: {} ({})", metadata.getTitle(), spec.videoId());
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to import video {}", spec.videoId(), e);
+                    rejected++;
+                    errors.add(spec.videoId() + ":exception");
                 }
-            } catch (Exception e) {
-                log.error("Failed to import video {}", spec.videoId(), e);
-                rejected++;
-                errors.add(spec.videoId() + ":exception");
             }
-        }
-
-        Map<String, Integer> searchSummary = new LinkedHashMap<>();
-        for (CuratedSearchSpec spec : CURATED_SEARCHES) {
-            List<VideoMetadata> candidates = youTubeService.searchWorkoutVideos(spec.query(), spec.targetCount() * 4);
-            int savedForQuery = 0;
-            for (VideoMetadata metadata : candidates) {
-                if (metadata == null || !StringUtils.hasText(metadata.getYoutubeId())) {
-                    continue;
-                }
-                if (processedIds.contains(metadata.getYoutubeId())) {
-                    continue;
-                }
-                int durationSeconds = metadata.getDurationSeconds();
-                if (durationSeconds <= 0 || durationSeconds > 300 || durationSeconds < MIN_DURATION_SECONDS) {
-                    continue;
-                }
 
-                Optional<ChannelMetadata> channelOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
-                if (channelOpt.isEmpty()) {
-                    rejected++;
-                    errors.add(metadata.getYoutubeId() + ":channel_missing_search");
-                    continue;
-                }
-                ChannelMetadata channel = channelOpt.get();
-
-                PlaylistImportRequest request = PlaylistImportRequest.builder()
-                        .equipment(spec.equipment())
-                        .level(spec.level())
-                        .bodyParts(spec.bodyParts())
-                        .minViewCount(spec.minViewCount())
-                        .minSubscriberCount(spec.minSubscriberCount())
-                        .maxDurationSeconds(300)
-                        .build();
-
-                Optional<String> qualityIssue = qualityIssue(metadata, channel, request);
-                if (qualityIssue.isPresent()) {
-                    rejected++;
-                    errors.add(metadata.getYoutubeId() + ":" + qualityIssue.get());
+            long searchCost = YouTubeApiMethod.SEARCH_LIST.units() + YouTubeApiMethod.VIDEOS_LIST.units();
+            for (CuratedSearchSpec spec : CURATED_SEARCHES) {
+                // each query costs 100+ units; stop while the reserve for interactive lookups is still intact
+                if (!deferredSearches.isEmpty() || !quotaLedger.hasBudget(searchCost, QuotaPriority.BULK)) {
+                    deferredSearches.add(spec.query());
                     continue;
                 }
-
-                processedIds.add(metadata.getYoutubeId());
-                Optional<WorkoutVideo> existing = workoutVideoRepository.findByYoutubeId(metadata.getYoutubeId());
-                persistVideo(metadata, channel, request);
-                if (existing.isPresent()) {
-                    updated++;
-                    log.debug("Updated existing video from search '{}' -> {}", spec.query(), metadata.getTitle());
-                } else {
-                    imported++;
-                    savedForQuery++;
-                    log.info("✅ Imported search video '{}' -> {} ({})", spec.query(), metadata.getTitle(), metadata.getYoutubeId());
+                List<VideoMetadata> candidates = youTubeService.searchWorkoutVideos(
+                        spec.query(), spec.targetCount() * 4, QuotaPriority.BULK);
+                int savedForQuery = 0;
+                for (VideoMetadata metadata : candidates) {
+                    if (metadata == null || !StringUtils.hasText(metadata.getYoutubeId())) {
+                        continue;
+                    }
+                    if (processedIds.contains(metadata.getYoutubeId())) {
+                        continue;
+                    }
+                    int durationSeconds = metadata.getDurationSeconds();
+                    if (durationSeconds <= 0 || durationSeconds > 300 || durationSeconds < MIN_DURATION_SECONDS) {
+                        continue;
+                    }
+
+                    Optional<ChannelMetadata> channelOpt = resolveChannelMetadata(metadata.getChannelId(), channelCache);
+                    if (channelOpt.isEmpty()) {
+                        rejected++;
+                        errors.add(metadata.getYoutubeId() + ":channel_missing_search");
+                        continue;
+                    }
+                    ChannelMetadata channel = channelOpt.get();
+
+                    PlaylistImportRequest request = PlaylistImportRequest.builder()
+                            .equipment(spec.equipment())
+                            .level(spec.level())
+                            .bodyParts(spec.bodyParts())
+                            .minViewCount(spec.minViewCount())
+                            .minSubscriberCount(spec.minSubscriberCount())
+                            .maxDurationSeconds(300)
+                            .build();
+
+                    Optional<String> qualityIssue = qualityIssue(metadata, channel, request);
+                    if (qualityIssue.isPresent()) {
+                        rejected++;
+                        errors.add(metadata.getYoutubeId() + ":" + qualityIssue.get());
+                        continue;
+                    }
+
+                    processedIds.add(metadata.getYoutubeId());
+                    Optional<WorkoutVideo> existing = workoutVideoRepository.findByYoutubeId(metadata.getYoutubeId());
+                    persistVideo(metadata, channel, request);
+                    if (existing.isPresent()) {
+                        updated++;
+                        log.debug("Updated existing video from search '{}' -> {}", spec.query(), metadata.getTitle());
+                    } else {
+                        imported++;
+                        savedForQuery++;
+                        log.info("✅ Imported search video '{}' -> {} ({})", spec.query(), metadata.getTitle(), metadata.getYoutubeId());
+                    }
+
+                    if (savedForQuery >= spec.targetCount()) {
+                        break;
+                    }
                 }
-
-                if (savedForQuery >= spec.targetCount()) {
-                    break;
+                if (savedForQuery > 0) {
+                    searchSummary.put(spec.query(), savedForQuery);
                 }
             }
-            if (savedForQuery > 0) {
-                searchSummary.put(spec.query(), savedForQuery);
+        } finally {
+            // one version bump for the whole run rather than one per saved video
+            if (imported + updated > 0) {
+                catalogVersionService.markChanged();
             }
         }
 
+        if (!deferredSearches.isEmpty()) {
+            log.warn("YouTube bulk quota low; deferred {} curated searches to a later run", deferredSearches.size());
+        }
         log.info("📊 Video import complete: {} imported, {} updated, {} rejected", imported, updated, rejected);
 
         Map<String, Object> result = new HashMap<>();
@@ -540,6 +586,7 @@ public class YouTubeCuratorService {
         result.put("totalVideos", imported + updated);
         result.put("errors", errors.size() > 20 ? errors.subList(0, 20) : errors);
         result.put("searchSummary", searchSummary);
+        result.put("deferredSearches", deferredSearches);
         
         return result;
     }
@@ -662,6 +709,10 @@ public class YouTubeCuratorService {
     }
 
     private ChannelMetadata fetchChannelMetadata(String channelId) {
+        if (!quotaLedger.tryAcquire(YouTubeApiMethod.CHANNELS_LIST, QuotaPriority.BULK)) {
+            log.warn("YouTube bulk quota exhausted; skipping channel {}", channelId);
+            return null;
+        }
         try {
             ChannelListResponse response = youtube.channels()
                     .list(List.of("snippet", "statistics"))
@@ -727,9 +778,12 @@ public class YouTubeCuratorService {
     }
 
     private PlaylistItemListResponse executePlaylistFetch(String playlistId, String nextPageToken) {
+        if (!quotaLedger.tryAcquire(YouTubeApiMethod.PLAYLIST_ITEMS_LIST, QuotaPriority.BULK)) {
+            throw new IllegalStateException("YouTube bulk quota exhausted; cannot fetch playlist " + playlistId);
+        }
         try {
             YouTube.PlaylistItems.List listRequest = youtube.playlistItems()
-                    .list(List.of("snippet", "contentDetails"))
+                    .list(List.of("snippet", "contentDetails", "status"))
                     .setPlaylistId(playlistId)
                     .setMaxResults((long) MAX_RESULTS_PER_PAGE)
                     .setKey(properties.getApiKey());
@@ -742,6 +796,19 @@ public class YouTubeCuratorService {
         }
     }
 
+    private static boolean isPrivate(PlaylistItem item) {
+        return item.getStatus() != null && "private".equalsIgnoreCase(item.getStatus().getPrivacyStatus());
+    }
+
+    /**
+     * Rejection note for an id without metadata: the typed miss when one is known, {@code metadata_missing}
+     * otherwise (for example when no API key is configured).
+     */
+    private static String missReason(String videoId, Map<String, VideoMissReason> recorded, YouTubeService.Lookup lookup) {
+        VideoMissReason reason = recorded.getOrDefault(videoId, lookup.missing().get(videoId));
+        return reason != null ? reason.tag() : "metadata_missing";
+    }
+
     private static String extractVideoId(PlaylistItem item) {
         if (item == null || item.getContentDetails() == null) {
             return null;
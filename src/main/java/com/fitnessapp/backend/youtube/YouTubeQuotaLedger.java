@@ -0,0 +1,172 @@
+package com.fitnessapp.backend.youtube;
+
+import com.fitnessapp.backend.config.YouTubeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Daily YouTube quota ledger shared by every instance. Each call is charged before it is made, into a Redis
+ * hash {@code yt:quota:<date>} holding the day's {@code total} and one field per method; the date is the
+ * Pacific-time day, which is when Google resets the quota, and the hash expires shortly after that day ends.
+ *
+ * <p>Admission: a charge is an {@code HINCRBY} on the total, rolled back if the new total passes the limit for
+ * the caller's {@link QuotaPriority}. Interactive calls may use the whole {@code daily-limit}; bulk calls stop
+ * {@code interactive-reserve-percent} short of it, so imports and curation give way to users once the budget
+ * runs low. The rollback can briefly over-count the total and reject a concurrent call at the very edge of
+ * the budget, which errs on the safe side. If Redis is unreachable calls are admitted uncounted: the API
+ * enforces the real limit anyway.
+ *
+ * <p>Publishes {@code youtube.quota.units{method}}, {@code youtube.quota.rejected{method,priority}},
+ * {@code youtube.quota.used} (the last total this instance saw) and {@code youtube.quota.alerts}; the call
+ * that takes the total across {@code alert-percent} logs a warning, so one instance reports it per day.
+ */
+@Component
+@Slf4j
+public class YouTubeQuotaLedger {
+
+    public static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+    static final String KEY_PREFIX = "yt:quota:";
+    static final String TOTAL_FIELD = "total";
+    private static final long EXPIRY_GRACE_SECONDS = 3_600L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final YouTubeProperties properties;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong used = new AtomicLong();
+    private final Map<YouTubeApiMethod, Counter> units = new EnumMap<>(YouTubeApiMethod.class);
+    private final Counter alerts;
+
+    @Autowired
+    public YouTubeQuotaLedger(StringRedisTemplate redisTemplate, YouTubeProperties properties, MeterRegistry meterRegistry) {
+        this(redisTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    YouTubeQuotaLedger(StringRedisTemplate redisTemplate, YouTubeProperties properties, MeterRegistry meterRegistry,
+                       Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        for (YouTubeApiMethod method : YouTubeApiMethod.values()) {
+            units.put(method, meterRegistry.counter("youtube.quota.units", "method", method.tag()));
+        }
+        this.alerts = meterRegistry.counter("youtube.quota.alerts");
+        meterRegistry.gauge("youtube.quota.used", used);
+    }
+
+    /**
+     * Charges one call of {@code method} if the day's budget for {@code priority} still covers it.
+     *
+     * @return whether the call may be made
+     */
+    public boolean tryAcquire(YouTubeApiMethod method, QuotaPriority priority) {
+        LocalDate day = today();
+        String key = KEY_PREFIX + day;
+        long cost = method.units();
+        long total;
+        try {
+            total = redisTemplate.opsForHash().increment(key, TOTAL_FIELD, cost);
+        } catch (Exception ex) {
+            log.debug("Quota ledger unavailable, admitting {} uncounted: {}", method.tag(), ex.getMessage());
+            return true;
+        }
+
+        if (total > limit(priority)) {
+            try {
+                redisTemplate.opsForHash().increment(key, TOTAL_FIELD, -cost);
+            } catch (Exception ex) {
+                log.debug("Failed to roll back quota charge for {}: {}", method.tag(), ex.getMessage());
+            }
+            meterRegistry.counter("youtube.quota.rejected", "method", method.tag(), "priority", priority.tag()).increment();
+            log.debug("Rejected {} for {} work: {} of {} units used", method.tag(), priority.tag(), total - cost,
+                    properties.getQuota().getDailyLimit());
+            return false;
+        }
+
+        record(key, day, method, cost);
+        used.set(total);
+        units.get(method).increment(cost);
+        alertOnCrossing(total - cost, total);
+        return true;
+    }
+
+    /**
+     * Whether {@code cost} more units would currently be admitted for {@code priority}, without charging them.
+     * Lets bulk jobs stop before starting an expensive step.
+     */
+    public boolean hasBudget(long cost, QuotaPriority priority) {
+        return usedToday() + cost <= limit(priority);
+    }
+
+    /**
+     * @return units charged today across all instances, or the last total this instance saw if Redis is down
+     */
+    public long usedToday() {
+        try {
+            Object total = redisTemplate.opsForHash().get(KEY_PREFIX + today(), TOTAL_FIELD);
+            long value = total == null ? 0L : Long.parseLong(total.toString());
+            used.set(value);
+            return value;
+        } catch (Exception ex) {
+            log.debug("Failed to read quota ledger: {}", ex.getMessage());
+            return used.get();
+        }
+    }
+
+    long limit(QuotaPriority priority) {
+        YouTubeProperties.Quota quota = properties.getQuota();
+        if (priority == QuotaPriority.INTERACTIVE) {
+            return quota.getDailyLimit();
+        }
+        return quota.getDailyLimit() * (100L - quota.getInteractiveReservePercent()) / 100L;
+    }
+
+    LocalDate today() {
+        return LocalDate.ofInstant(clock.instant(), QUOTA_ZONE);
+    }
+
+    private void record(String key, LocalDate day, YouTubeApiMethod method, long cost) {
+        Instant expiry = day.plusDays(1).atStartOfDay(QUOTA_ZONE).toInstant().plusSeconds(EXPIRY_GRACE_SECONDS);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> pipeline = (RedisOperations<String, String>) operations;
+                    pipeline.opsForHash().increment(key, method.tag(), cost);
+                    pipeline.expireAt(key, expiry);
+                    return null;
+                }
+            });
+        } catch (Exception ex) {
+            log.debug("Failed to record {} in quota ledger: {}", method.tag(), ex.getMessage());
+        }
+    }
+
+    private void alertOnCrossing(long before, long after) {
+        YouTubeProperties.Quota quota = properties.getQuota();
+        long threshold = quota.getDailyLimit() * quota.getAlertPercent() / 100L;
+        if (before >= threshold || after < threshold) {
+            return;
+        }
+        alerts.increment();
+        if (quota.isWarningsEnabled()) {
+            log.warn("YouTube quota at {}% for {}: {} of {} units used; bulk work stops at {} units",
+                    quota.getAlertPercent(), today(), after, quota.getDailyLimit(), limit(QuotaPriority.BULK));
+        }
+    }
+}
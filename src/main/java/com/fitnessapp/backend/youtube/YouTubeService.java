@@ -8,43 +8,90 @@ import com.google.api.services.youtube.model.SearchListResponse;
 import com.google.api.services.youtube.model.SearchResult;
 import com.google.api.services.youtube.model.Video;
 import com.google.api.services.youtube.model.VideoListResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.Nullable;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class YouTubeService {
 
     private static final int MAX_RESULTS = 50;
-    private static final String CACHE_KEY_PREFIX = "yt:video:";
+    static final int MAX_IDS_PER_REQUEST = 50;
+    private static final double INITIAL_FETCH_MILLIS = 200.0;
+    private static final double FETCH_MILLIS_SMOOTHING = 0.2;
+    private static final Pattern VIDEO_ID = Pattern.compile("[A-Za-z0-9_-]{11}");
 
     private final YouTube youtube;
-    private final RedisTemplate<String, VideoMetadata> redisTemplate;
+    private final VideoMetadataCache cache;
     private final YouTubeProperties properties;
+    private final YouTubeQuotaLedger quotaLedger;
+    private final MicroBatcher<String, VideoMetadata> batcher;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("yt-refresh-", 0).factory());
+    private final Counter staleRefreshes;
+    private final Counter earlyRefreshes;
+
+    /**
+     * Smoothed {@code videos.list} latency; the XFetch refresh window scales with it.
+     */
+    private volatile double fetchMillis = INITIAL_FETCH_MILLIS;
+
+    public YouTubeService(YouTube youtube,
+                          VideoMetadataCache cache,
+                          YouTubeProperties properties,
+                          YouTubeQuotaLedger quotaLedger,
+                          MeterRegistry meterRegistry) {
+        this.youtube = youtube;
+        this.cache = cache;
+        this.properties = properties;
+        this.quotaLedger = quotaLedger;
+        YouTubeProperties.Batch batch = properties.getBatch();
+        // concurrent single-id misses share one videos.list call; a disabled batcher flushes every id alone
+        this.batcher = new MicroBatcher<>("youtube.metadata",
+                batch.isEnabled() ? batch.getMaxSize() : 1,
+                batch.getMaxWait(),
+                this::fetchAndCache,
+                meterRegistry);
+        this.staleRefreshes = meterRegistry.counter("youtube.metadata.refresh", "trigger", "stale");
+        this.earlyRefreshes = meterRegistry.counter("youtube.metadata.refresh", "trigger", "early");
+    }
 
     public Optional<VideoMetadata> fetchVideoMetadata(String videoId) {
         String normalizedId = normalizeVideoId(videoId);
-        if (normalizedId.isEmpty()) {
+        if (normalizedId.isEmpty() || !VIDEO_ID.matcher(normalizedId).matches()) {
             return Optional.empty();
         }
 
-        String cacheKey = CACHE_KEY_PREFIX + normalizedId;
-        VideoMetadata cached = redisTemplate.opsForValue().get(cacheKey);
+        VideoMetadata cached = cache.get(normalizedId);
         if (cached != null) {
-            return Optional.of(cached);
+            return Optional.of(revalidate(normalizedId, cached));
+        }
+        if (!cache.getMissing(List.of(normalizedId)).isEmpty()) {
+            return Optional.empty();
         }
 
         if (properties.getApiKey() == null || properties.getApiKey().isBlank()) {
@@ -52,30 +99,217 @@ public class YouTubeService {
             return Optional.empty();
         }
 
+        return Optional.ofNullable(batcher.load(normalizedId));
+    }
+
+    /**
+     * Batch form of {@link #fetchVideoMetadata(String)}.
+     *
+     * @return metadata keyed by {@linkplain #normalizeVideoId normalized} video id, in request order; ids that
+     *         could not be resolved are absent
+     */
+    public Map<String, VideoMetadata> fetchVideoMetadata(Collection<String> videoIds) {
+        return lookupVideoMetadata(videoIds).found();
+    }
+
+    /**
+     * Resolves many ids at once: one cache lookup (a single MGET for whatever is not held locally), one MGET of
+     * the negative entries for the rest, then one {@code videos.list} call per {@value #MAX_IDS_PER_REQUEST}
+     * remaining ids (each call costs one quota unit no matter how many ids it carries), and a single pipelined
+     * write-back. Ids with a recorded negative entry or an invalid format are not sent to the API.
+     *
+     * <p>Its callers are imports, so the API calls are admitted as {@link QuotaPriority#BULK}; once the bulk
+     * budget is spent the remaining ids are left unresolved for a later run. Cached entries are returned as is,
+     * without scheduling a refresh: refreshes are charged as interactive calls, and an import touching many
+     * stale ids must not spend the reserve kept for users. Interactive reads still refresh them.
+     */
+    public Lookup lookupVideoMetadata(Collection<String> videoIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        Map<String, VideoMissReason> missing = new LinkedHashMap<>();
+        for (String videoId : videoIds) {
+            String normalizedId = normalizeVideoId(videoId);
+            if (normalizedId.isEmpty()) {
+                continue;
+            }
+            if (VIDEO_ID.matcher(normalizedId).matches()) {
+                ids.add(normalizedId);
+            } else {
+                missing.put(normalizedId, VideoMissReason.INVALID_ID);
+            }
+        }
+        if (ids.isEmpty()) {
+            return new Lookup(Map.of(), missing);
+        }
+
+        Map<String, VideoMetadata> found = new HashMap<>(cache.getAll(ids));
+        List<String> uncached = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        Map<String, VideoMissReason> known = new HashMap<>(cache.getMissing(uncached));
+        List<String> misses = uncached.stream().filter(id -> !known.containsKey(id)).toList();
+
+        if (!misses.isEmpty()) {
+            if (properties.getApiKey() == null || properties.getApiKey().isBlank()) {
+                log.warn("YouTube API key is not configured; skipping API call for {} videos", misses.size());
+            } else {
+                for (int from = 0; from < misses.size(); from += MAX_IDS_PER_REQUEST) {
+                    if (!quotaLedger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, QuotaPriority.BULK)) {
+                        log.warn("YouTube bulk quota exhausted; leaving {} videos unresolved", misses.size() - from);
+                        break;
+                    }
+                    Lookup fetched = fetchAndRecord(misses.subList(from, Math.min(misses.size(), from + MAX_IDS_PER_REQUEST)));
+                    found.putAll(fetched.found());
+                    known.putAll(fetched.missing());
+                }
+            }
+        }
+
+        Map<String, VideoMetadata> ordered = new LinkedHashMap<>();
+        for (String id : ids) {
+            VideoMetadata metadata = found.get(id);
+            if (metadata != null) {
+                ordered.put(id, metadata);
+            } else if (known.containsKey(id)) {
+                missing.put(id, known.get(id));
+            }
+        }
+        return new Lookup(ordered, missing);
+    }
+
+    /**
+     * Records ids an importer learned are unavailable (for example private playlist entries) so later lookups
+     * skip them without an API call.
+     */
+    public void recordMissing(Map<String, VideoMissReason> missing) {
+        cache.putMissing(missing);
+    }
+
+    /**
+     * @param found   resolved metadata keyed by normalized id, in request order
+     * @param missing why each unresolved id has no metadata; ids skipped because no API key is configured or
+     *                the quota budget is spent appear in neither map
+     */
+    public record Lookup(Map<String, VideoMetadata> found, Map<String, VideoMissReason> missing) {
+    }
+
+    /**
+     * Serves a cached entry as is, and schedules one background refresh per id when the entry is past its
+     * soft TTL, or (XFetch, probabilistic early expiration) shortly before it: each read refreshes early with
+     * probability rising as the soft TTL approaches, so a popular id is refreshed ahead of time by one of its
+     * many readers while a rarely read one simply goes stale. Callers never wait for YouTube on a cached id;
+     * only entries past the hard TTL (the Redis expiry) are fetched inline.
+     */
+    private VideoMetadata revalidate(String videoId, VideoMetadata cached) {
+        YouTubeProperties.Refresh refresh = properties.getRefresh();
+        if (!refresh.isEnabled() || cached.getFetchedAtMillis() == null) {
+            return cached;
+        }
+        long ageMillis = System.currentTimeMillis() - cached.getFetchedAtMillis();
+        long softTtlMillis = refresh.getSoftTtl().toMillis();
+        if (ageMillis >= softTtlMillis) {
+            scheduleRefresh(videoId, staleRefreshes);
+        } else if (refreshEarly(ageMillis, softTtlMillis, fetchMillis, refresh.getBeta(),
+                1.0 - ThreadLocalRandom.current().nextDouble())) {
+            scheduleRefresh(videoId, earlyRefreshes);
+        }
+        return cached;
+    }
+
+    /**
+     * XFetch: refresh when {@code age - delta * beta * ln(random) >= softTtl}, where {@code delta} is the time
+     * a refresh takes and {@code random} is uniform in (0, 1].
+     */
+    static boolean refreshEarly(long ageMillis, long softTtlMillis, double deltaMillis, double beta, double random) {
+        return ageMillis - deltaMillis * beta * Math.log(random) >= softTtlMillis;
+    }
+
+    private void scheduleRefresh(String videoId, Counter trigger) {
+        if (properties.getApiKey() == null || properties.getApiKey().isBlank() || !refreshing.add(videoId)) {
+            return;
+        }
+        trigger.increment();
+        refreshExecutor.execute(() -> {
+            try {
+                // through the batcher, so refreshes scheduled together share a videos.list call
+                batcher.load(videoId);
+            } catch (RuntimeException ex) {
+                log.debug("Background refresh of video {} failed: {}", videoId, ex.getMessage());
+            } finally {
+                refreshing.remove(videoId);
+            }
+        });
+    }
+
+    private Map<String, VideoMetadata> fetchAndCache(List<String> ids) {
+        if (!quotaLedger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, QuotaPriority.INTERACTIVE)) {
+            log.warn("YouTube quota exhausted; cannot resolve {} videos", ids.size());
+            return Map.of();
+        }
+        return fetchAndRecord(ids).found();
+    }
+
+    /**
+     * Fetches up to {@value #MAX_IDS_PER_REQUEST} ids, caches what came back and records a negative entry for
+     * every id that did not.
+     */
+    private Lookup fetchAndRecord(List<String> ids) {
+        long start = System.nanoTime();
+        List<VideoMetadata> fetched = fetchFromApi(ids);
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        fetchMillis += FETCH_MILLIS_SMOOTHING * (elapsedMillis - fetchMillis);
+
+        Map<String, VideoMetadata> byId = new HashMap<>();
+        Map<String, VideoMissReason> missing = new HashMap<>();
+        if (fetched == null) {
+            ids.forEach(id -> missing.put(id, VideoMissReason.API_ERROR));
+        } else {
+            cache.putAll(fetched);
+            for (VideoMetadata metadata : fetched) {
+                byId.put(metadata.getYoutubeId(), metadata);
+            }
+            ids.stream().filter(id -> !byId.containsKey(id)).forEach(id -> missing.put(id, VideoMissReason.NOT_FOUND));
+        }
+        cache.putMissing(missing);
+        return new Lookup(byId, missing);
+    }
+
+    /**
+     * One {@code videos.list} call for up to {@value #MAX_IDS_PER_REQUEST} ids; unknown or private ids are
+     * simply missing from the result.
+     *
+     * @return the videos found, or {@code null} if the call failed
+     */
+    private List<VideoMetadata> fetchFromApi(List<String> ids) {
         try {
             VideoListResponse response = youtube.videos()
                     .list(List.of("snippet", "contentDetails", "statistics"))
-                    .setId(Collections.singletonList(normalizedId))
+                    .setId(ids)
                     .setKey(properties.getApiKey())
                     .execute();
 
             if (response.getItems() == null || response.getItems().isEmpty()) {
-                return Optional.empty();
+                return List.of();
             }
-
-            VideoMetadata metadata = toMetadata(response.getItems().get(0));
-            redisTemplate.opsForValue().set(cacheKey, metadata, properties.getCacheTtl());
-            return Optional.of(metadata);
+            return response.getItems().stream()
+                    .map(this::toMetadata)
+                    .filter(metadata -> !metadata.getYoutubeId().isEmpty())
+                    .toList();
         } catch (GoogleJsonResponseException ex) {
             log.error("YouTube API error ({}): {}", ex.getStatusCode(), ex.getDetails() != null ? ex.getDetails().getMessage() : ex.getMessage());
-            return Optional.empty();
+            return null;
         } catch (IOException ex) {
-            log.error("Failed to fetch metadata for {}", normalizedId, ex);
-            return Optional.empty();
+            log.error("Failed to fetch metadata for {}", ids.size() == 1 ? ids.get(0) : ids.size() + " videos", ex);
+            return null;
         }
     }
 
     public List<VideoMetadata> searchWorkoutVideos(String query, int maxResults) {
+        return searchWorkoutVideos(query, maxResults, QuotaPriority.INTERACTIVE);
+    }
+
+    /**
+     * One {@code search.list} call (100 quota units) plus one {@code videos.list} call for the hits; returns
+     * nothing if the quota budget for {@code priority} does not cover them.
+     */
+    public List<VideoMetadata> searchWorkoutVideos(String query, int maxResults, QuotaPriority priority) {
         if (query == null || query.isBlank()) {
             return List.of();
         }
@@ -85,6 +319,10 @@ public class YouTubeService {
         }
 
         int desiredResults = Math.max(1, Math.min(MAX_RESULTS, maxResults));
+        if (!quotaLedger.tryAcquire(YouTubeApiMethod.SEARCH_LIST, priority)) {
+            log.warn("YouTube quota exhausted; skipping search '{}'", query);
+            return List.of();
+        }
         try {
             SearchListResponse searchResponse = youtube.search()
                     .list(List.of("id", "snippet"))
@@ -103,7 +341,7 @@ public class YouTubeService {
                     .filter(id -> !id.isEmpty())
                     .collect(Collectors.toList());
 
-            if (videoIds.isEmpty()) {
+            if (videoIds.isEmpty() || !quotaLedger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, priority)) {
                 return List.of();
             }
 
@@ -156,7 +394,11 @@ public class YouTubeService {
         }
     }
 
-    private String normalizeVideoId(@Nullable String videoId) {
+    /**
+     * The bare video id of a watch URL, a {@code youtu.be} link or an id, trimmed; empty for null or blank input.
+     * Batch lookups are keyed by this form.
+     */
+    public static String normalizeVideoId(@Nullable String videoId) {
         if (videoId == null) {
             return "";
         }
@@ -206,6 +448,7 @@ public class YouTubeService {
                 .viewCount(video.getStatistics() != null && video.getStatistics().getViewCount() != null
                         ? video.getStatistics().getViewCount().longValue()
                         : 0L)
+                .fetchedAtMillis(System.currentTimeMillis())
                 .build();
     }
 }
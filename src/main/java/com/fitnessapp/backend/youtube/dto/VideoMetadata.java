@@ -19,4 +19,9 @@ public class VideoMetadata {
     int durationSeconds;
     int durationMinutes;
     long viewCount;
+    /**
+     * When this copy was read from the YouTube API; drives soft expiry of cached entries. Absent on entries
+     * cached before it was recorded.
+     */
+    Long fetchedAtMillis;
 }
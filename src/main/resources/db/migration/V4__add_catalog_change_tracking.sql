@@ -0,0 +1,91 @@
+-- V4: Change tracking for delta sync of the workout and recipe catalogs
+--
+-- Every catalog row carries the id of the transaction that last changed it (xid8, PostgreSQL 13+), and
+-- deletions leave a tombstone. A client token is a position in (change_xid, id) order; the server only ever
+-- hands out rows whose transaction id is below the oldest transaction still running, so a row committed late
+-- by a long import can never fall behind a token that was already issued.
+
+-- ==============================================================
+-- Row versions
+-- ==============================================================
+
+ALTER TABLE workout_video ADD COLUMN IF NOT EXISTS change_xid xid8;
+ALTER TABLE recipe ADD COLUMN IF NOT EXISTS change_xid xid8;
+
+-- Existing rows all belong to this migration's transaction: a client's first sync returns the whole catalog
+UPDATE workout_video SET change_xid = pg_current_xact_id() WHERE change_xid IS NULL;
+UPDATE recipe SET change_xid = pg_current_xact_id() WHERE change_xid IS NULL;
+
+ALTER TABLE workout_video ALTER COLUMN change_xid SET NOT NULL;
+ALTER TABLE recipe ALTER COLUMN change_xid SET NOT NULL;
+
+-- Re-validating a video (last_validated_at) does not change what a client shows, so it keeps its version
+CREATE OR REPLACE FUNCTION workout_video_touch_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND (NEW.youtube_id, NEW.title, NEW.duration_minutes, NEW.level, NEW.equipment, NEW.body_part,
+            NEW.thumbnail_url, NEW.view_count)
+           IS NOT DISTINCT FROM
+           (OLD.youtube_id, OLD.title, OLD.duration_minutes, OLD.level, OLD.equipment, OLD.body_part,
+            OLD.thumbnail_url, OLD.view_count) THEN
+        NEW.change_xid := OLD.change_xid;
+        RETURN NEW;
+    END IF;
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION recipe_touch_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW IS NOT DISTINCT FROM OLD THEN
+        RETURN NEW;
+    END IF;
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_workout_video_change BEFORE INSERT OR UPDATE ON workout_video
+    FOR EACH ROW EXECUTE FUNCTION workout_video_touch_change();
+
+CREATE TRIGGER trg_recipe_change BEFORE INSERT OR UPDATE ON recipe
+    FOR EACH ROW EXECUTE FUNCTION recipe_touch_change();
+
+-- ==============================================================
+-- Tombstones
+-- ==============================================================
+
+-- item_key is what clients key their copy by: youtube_id for workouts, the recipe id for recipes
+CREATE TABLE IF NOT EXISTS catalog_tombstone (
+    item_type VARCHAR(20) NOT NULL,
+    row_id UUID NOT NULL,
+    item_key TEXT NOT NULL,
+    change_xid xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (item_type, row_id)
+);
+
+CREATE OR REPLACE FUNCTION catalog_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO catalog_tombstone (item_type, row_id, item_key, change_xid, deleted_at)
+    VALUES (TG_ARGV[0], OLD.id, to_jsonb(OLD) ->> TG_ARGV[1], pg_current_xact_id(), NOW())
+    ON CONFLICT (item_type, row_id) DO UPDATE
+        SET item_key = EXCLUDED.item_key, change_xid = EXCLUDED.change_xid, deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_workout_video_tombstone AFTER DELETE ON workout_video
+    FOR EACH ROW EXECUTE FUNCTION catalog_record_tombstone('workout', 'youtube_id');
+
+CREATE TRIGGER trg_recipe_tombstone AFTER DELETE ON recipe
+    FOR EACH ROW EXECUTE FUNCTION catalog_record_tombstone('recipe', 'id');
+
+-- ==============================================================
+-- Keyset indexes (delta pages are read in (change_xid, id) order from all three sources)
+-- ==============================================================
+
+CREATE INDEX IF NOT EXISTS idx_workout_video_change ON workout_video (change_xid, id);
+CREATE INDEX IF NOT EXISTS idx_recipe_change ON recipe (change_xid, id);
+CREATE INDEX IF NOT EXISTS idx_catalog_tombstone_change ON catalog_tombstone (change_xid, row_id);
@@ -0,0 +1,21 @@
+-- V5: Recipe ingredient edits advance the parent recipe's row version
+--
+-- Delta sync ships a recipe together with its ingredients, but V4 only versions the recipe row itself, so
+-- adding, changing or removing an ingredient line never reached clients. Touching the parent lets
+-- recipe_touch_change stamp it with the current transaction like any other recipe edit.
+
+CREATE OR REPLACE FUNCTION recipe_ingredient_touch_recipe() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE recipe SET change_xid = pg_current_xact_id() WHERE id = NEW.recipe_id;
+    END IF;
+    -- a line moved to another recipe changes both; a cascade from a deleted recipe matches no row here
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.recipe_id IS DISTINCT FROM NEW.recipe_id) THEN
+        UPDATE recipe SET change_xid = pg_current_xact_id() WHERE id = OLD.recipe_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_recipe_ingredient_change AFTER INSERT OR UPDATE OR DELETE ON recipe_ingredient
+    FOR EACH ROW EXECUTE FUNCTION recipe_ingredient_touch_recipe();
@@ -0,0 +1,181 @@
+package com.fitnessapp.backend.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.RecipeStep;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class CatalogSnapshotWriterTest {
+
+    private final CatalogSnapshotWriter writer = new CatalogSnapshotWriter(new ObjectMapper());
+
+    @Test
+    void roundTripsCardsAndAliases() throws IOException {
+        UUID recipeId = UUID.randomUUID();
+        Map<String, Object> nutrition = new LinkedHashMap<>();
+        nutrition.put("calories", 420);
+        nutrition.put("protein", 31.5);
+        RecipeCard recipe = RecipeCard.builder()
+                .id(recipeId.toString())
+                .title("Chicken bowl")
+                .timeMinutes(25)
+                .difficulty("easy")
+                .steps(List.of(RecipeStep.builder().step(1).instruction("Grill the chicken").build()))
+                .nutrition(nutrition)
+                .build();
+
+        byte[] bundle = writer.write(7L, 1_700_000_000_000L, "token", List.of(workout("abc", "beginner")),
+                List.of(recipe), Map.of("dumbbell", "dumbbells"), Map.of("steak", "beef"));
+
+        Reader in = new Reader(bundle);
+        assertThat(in.raw(4)).isEqualTo(CatalogSnapshotWriter.MAGIC);
+        assertThat(in.varint()).isEqualTo(CatalogSnapshotWriter.FORMAT_VERSION);
+        assertThat(in.varint()).isEqualTo(7L);
+        assertThat(in.varint()).isEqualTo(1_700_000_000_000L);
+        assertThat(in.utf8()).isEqualTo("token");
+        List<String> strings = in.strings();
+
+        assertThat(in.varint()).isEqualTo(1L);
+        assertThat(in.ref(strings)).isEqualTo("abc");
+        assertThat(in.ref(strings)).isEqualTo("Workout abc");
+        assertThat(in.varint()).isEqualTo(21L);
+        assertThat(in.ref(strings)).isEqualTo("beginner");
+        assertThat(in.refs(strings)).containsExactly("dumbbells", "mat");
+        assertThat(in.refs(strings)).containsExactly("full_body");
+        assertThat(in.ref(strings)).isNull();
+        assertThat(in.varint()).isEqualTo(1_001L);
+
+        assertThat(in.varint()).isEqualTo(1L);
+        assertThat(new UUID(in.fixed64(), in.fixed64())).isEqualTo(recipeId);
+        assertThat(in.ref(strings)).isEqualTo("Chicken bowl");
+        assertThat(in.varint()).isEqualTo(26L);
+        assertThat(in.ref(strings)).isEqualTo("easy");
+        assertThat(in.ref(strings)).isNull();
+        assertThat(in.varint()).isEqualTo(1L);
+        assertThat(in.varint()).isEqualTo(2L);
+        assertThat(in.ref(strings)).isEqualTo("Grill the chicken");
+        assertThat(in.varint()).isEqualTo(2L);
+        assertThat(in.ref(strings)).isEqualTo("calories");
+        assertThat(in.varint()).isEqualTo(CatalogSnapshotWriter.VALUE_INTEGER);
+        assertThat(in.varint()).isEqualTo(840L);
+        assertThat(in.ref(strings)).isEqualTo("protein");
+        assertThat(in.varint()).isEqualTo(CatalogSnapshotWriter.VALUE_DOUBLE);
+        assertThat(Double.longBitsToDouble(in.fixed64())).isEqualTo(31.5);
+
+        assertThat(in.varint()).isEqualTo(1L);
+        assertThat(in.ref(strings)).isEqualTo("dumbbell");
+        assertThat(in.ref(strings)).isEqualTo("dumbbells");
+        assertThat(in.varint()).isEqualTo(1L);
+        assertThat(in.ref(strings)).isEqualTo("steak");
+        assertThat(in.ref(strings)).isEqualTo("beef");
+        assertThat(in.atEnd()).isTrue();
+    }
+
+    @Test
+    void repeatedStringsAreStoredOnce() throws IOException {
+        List<WorkoutCard> workouts = IntStream.range(0, 200)
+                .mapToObj(i -> workout("id" + i, "beginner"))
+                .toList();
+
+        byte[] bundle = writer.write(1L, 0L, "token", workouts, List.of(), Map.of(), Map.of());
+
+        Reader in = new Reader(bundle);
+        in.raw(4);
+        in.varint();
+        in.varint();
+        in.varint();
+        in.utf8();
+        List<String> strings = in.strings();
+        assertThat(strings).containsOnlyOnce("beginner", "dumbbells", "mat", "full_body");
+        assertThat(strings).hasSize(200 * 2 + 4);
+    }
+
+    private static WorkoutCard workout(String youtubeId, String level) {
+        return WorkoutCard.builder()
+                .youtubeId(youtubeId)
+                .title("Workout " + youtubeId)
+                .durationMinutes(20)
+                .level(level)
+                .equipment(List.of("dumbbells", "mat"))
+                .bodyParts(List.of("full_body"))
+                .viewCount(1_000L)
+                .youtubeUrl("https://www.youtube.com/watch?v=" + youtubeId)
+                .build();
+    }
+
+    private static final class Reader {
+
+        private final DataInputStream in;
+
+        Reader(byte[] bundle) throws IOException {
+            this.in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bundle)));
+        }
+
+        byte[] raw(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        long varint() throws IOException {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long fixed64() throws IOException {
+            return in.readLong();
+        }
+
+        String utf8() throws IOException {
+            return new String(raw((int) varint()), StandardCharsets.UTF_8);
+        }
+
+        List<String> strings() throws IOException {
+            int count = (int) varint();
+            List<String> strings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                strings.add(utf8());
+            }
+            return strings;
+        }
+
+        String ref(List<String> strings) throws IOException {
+            int index = (int) varint();
+            return index == 0 ? null : strings.get(index - 1);
+        }
+
+        List<String> refs(List<String> strings) throws IOException {
+            int count = (int) varint();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(ref(strings));
+            }
+            return values;
+        }
+
+        boolean atEnd() throws IOException {
+            return in.read() == -1;
+        }
+    }
+}
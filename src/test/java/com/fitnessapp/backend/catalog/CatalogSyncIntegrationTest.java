@@ -0,0 +1,123 @@
+package com.fitnessapp.backend.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fitnessapp.backend.catalog.dto.CatalogDelta;
+import com.fitnessapp.backend.domain.Recipe;
+import com.fitnessapp.backend.domain.WorkoutVideo;
+import com.fitnessapp.backend.repository.RecipeRepository;
+import com.fitnessapp.backend.repository.WorkoutVideoRepository;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = {
+                "app.seed.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=none"
+        })
+@TestInstance(Lifecycle.PER_CLASS)
+class CatalogSyncIntegrationTest {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @DynamicPropertySource
+    static void registerDataSource(DynamicPropertyRegistry registry) {
+        ensurePostgres();
+        Assumptions.assumeTrue(postgres != null && postgres.isRunning(), "Postgres container unavailable for catalog sync tests");
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeAll
+    void spinUpContainer() {
+        ensurePostgres();
+        Assumptions.assumeTrue(postgres != null && postgres.isRunning(), "Postgres container unavailable for catalog sync tests");
+    }
+
+    private static void ensurePostgres() {
+        if (postgres != null && postgres.isRunning()) {
+            return;
+        }
+        try {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        } catch (Throwable ex) {
+            postgres = null;
+        }
+    }
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private WorkoutVideoRepository workoutVideoRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Test
+    void fullSyncPagesThroughTheCatalogThenDeltasCarryOnlyChanges() {
+        Set<String> workouts = new HashSet<>();
+        Set<String> recipes = new HashSet<>();
+        String token = null;
+        CatalogDelta page;
+        int pages = 0;
+        do {
+            page = catalogSyncService.changesSince(token, 7);
+            page.getWorkouts().forEach(card -> workouts.add(card.getYoutubeId()));
+            page.getRecipes().forEach(card -> recipes.add(card.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (page.isHasMore());
+
+        assertThat(pages).isGreaterThan(1);
+        assertThat(workouts).hasSize((int) workoutVideoRepository.count());
+        assertThat(recipes).hasSize((int) recipeRepository.count());
+
+        CatalogDelta unchanged = catalogSyncService.changesSince(token, 50);
+        assertThat(unchanged.getWorkouts()).isEmpty();
+        assertThat(unchanged.getRecipes()).isEmpty();
+
+        // re-validation alone is not a change clients need to see
+        WorkoutVideo revalidated = workoutVideoRepository.findAll().get(0);
+        revalidated.setLastValidatedAt(OffsetDateTime.now());
+        workoutVideoRepository.save(revalidated);
+
+        WorkoutVideo added = workoutVideoRepository.save(WorkoutVideo.builder()
+                .youtubeId("syncTest001")
+                .title("Delta Sync Test Workout")
+                .durationMinutes(15)
+                .level("beginner")
+                .equipment(List.of("mat"))
+                .bodyPart(List.of("core"))
+                .viewCount(0L)
+                .build());
+        Recipe removed = recipeRepository.findAll().get(0);
+        recipeRepository.delete(removed);
+
+        CatalogDelta delta = catalogSyncService.changesSince(token, 50);
+
+        assertThat(delta.getWorkouts()).extracting(card -> card.getYoutubeId()).containsExactly(added.getYoutubeId());
+        assertThat(delta.getRecipes()).isEmpty();
+        assertThat(delta.getRemovedRecipes()).containsExactly(removed.getId().toString());
+        assertThat(delta.isHasMore()).isFalse();
+    }
+}
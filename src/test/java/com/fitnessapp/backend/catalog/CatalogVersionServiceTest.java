@@ -0,0 +1,55 @@
+package com.fitnessapp.backend.catalog;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CatalogVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        RetrievalProperties properties = new RetrievalProperties();
+        properties.getHttpCache().setVersionRefresh(Duration.ofMillis(20));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        service = new CatalogVersionService(redisTemplate, eventPublisher, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void bumpFromAnotherInstanceIsPickedUpWithoutAnyReader() {
+        when(valueOperations.get(CatalogVersionService.VERSION_KEY)).thenReturn("0", "7");
+
+        service.start();
+
+        verify(eventPublisher, timeout(5_000)).publishEvent(new CatalogChangedEvent(7));
+    }
+}
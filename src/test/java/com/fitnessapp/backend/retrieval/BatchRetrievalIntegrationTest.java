@@ -0,0 +1,153 @@
+package com.fitnessapp.backend.retrieval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fitnessapp.backend.retrieval.dto.BatchContentResponse;
+import com.fitnessapp.backend.retrieval.dto.ContentResponse;
+import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import com.fitnessapp.backend.retrieval.dto.RecipeCard;
+import com.fitnessapp.backend.retrieval.dto.WorkoutCard;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares one batch call against the same items sent as sequential single-photo calls: same cards per item,
+ * from fewer repository queries because distinct contexts share one candidate query per catalog.
+ */
+@Testcontainers
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = {
+                "app.seed.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        })
+@TestInstance(Lifecycle.PER_CLASS)
+class BatchRetrievalIntegrationTest {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @DynamicPropertySource
+    static void registerDataSource(DynamicPropertyRegistry registry) {
+        ensurePostgres();
+        Assumptions.assumeTrue(postgres != null && postgres.isRunning(), "Postgres container unavailable for batch retrieval test");
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeAll
+    void spinUpContainer() {
+        ensurePostgres();
+        Assumptions.assumeTrue(postgres != null && postgres.isRunning(), "Postgres container unavailable for batch retrieval test");
+    }
+
+    private static void ensurePostgres() {
+        if (postgres != null && postgres.isRunning()) {
+            return;
+        }
+        try {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        } catch (Throwable ex) {
+            postgres = null;
+        }
+    }
+
+    @Autowired
+    private ContentRetrievalCoordinator coordinator;
+
+    @Autowired
+    private WorkoutRetrievalService workoutRetrievalService;
+
+    @Autowired
+    private RecipeRetrievalService recipeRetrievalService;
+
+    @Autowired
+    private ImageQueryService imageQueryService;
+
+    @Autowired
+    private RetrievalResultCache resultCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchMatchesSequentialCallsWithFewerQueries() {
+        List<ImageRequest> items = galleryImport(24);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        resultCache.invalidateAll();
+        statistics.clear();
+        sequential(items);
+        long sequentialQueries = statistics.getQueryExecutionCount();
+
+        resultCache.invalidateAll();
+        statistics.clear();
+        BatchContentResponse response = batch(items);
+        long batchQueries = statistics.getQueryExecutionCount();
+        List<List<WorkoutCard>> expectedWorkouts = new ArrayList<>();
+        List<List<RecipeCard>> expectedRecipes = new ArrayList<>();
+        for (ImageRequest item : items) {
+            ImageQueryService.WorkoutDetectionResult workout = imageQueryService.detectWorkoutContext(item);
+            ImageQueryService.RecipeDetectionResult recipe = imageQueryService.detectRecipeContext(item);
+            expectedWorkouts.add(workoutRetrievalService.findWorkouts(workout.getEquipment(), workout.getLevel(), workout.getDurationMinutes()));
+            expectedRecipes.add(recipeRetrievalService.findRecipes(recipe.getIngredients(), recipe.getMaxTimeMinutes()));
+        }
+
+        assertThat(response.getResults()).hasSize(items.size());
+        assertThat(response.getDistinctWorkoutContexts()).isLessThan(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ContentResponse result = response.getResults().get(i);
+            assertThat(result.getWorkouts().getWorkouts()).extracting(WorkoutCard::getYoutubeId)
+                    .containsExactlyInAnyOrderElementsOf(expectedWorkouts.get(i).stream().map(WorkoutCard::getYoutubeId).toList());
+            assertThat(result.getRecipes().getRecipes()).extracting(RecipeCard::getId)
+                    .containsExactlyElementsOf(expectedRecipes.get(i).stream().map(RecipeCard::getId).toList());
+        }
+        assertThat(batchQueries).isLessThan(sequentialQueries);
+    }
+
+    private void sequential(List<ImageRequest> items) {
+        for (ImageRequest item : items) {
+            coordinator.findContent(item, null, StageTimings.disabled());
+        }
+    }
+
+    private BatchContentResponse batch(List<ImageRequest> items) {
+        return coordinator.findContentBatch(items, StageTimings.disabled());
+    }
+
+    private static List<ImageRequest> galleryImport(int size) {
+        List<List<String>> hintSets = List.of(
+                List.of("dumbbells", "beginner", "20 min", "chicken"),
+                List.of("mat", "intermediate", "30 minutes", "salmon", "rice"),
+                List.of("kettlebell", "advanced", "45 min"),
+                List.of("resistance band", "tofu", "broccoli"),
+                List.of("beginner", "eggs", "spinach", "15 min"),
+                List.of());
+        List<ImageRequest> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(ImageRequest.builder()
+                    .imageUrl("gallery://photo/" + i)
+                    .userHints(hintSets.get(i % hintSets.size()))
+                    .build());
+        }
+        return items;
+    }
+}
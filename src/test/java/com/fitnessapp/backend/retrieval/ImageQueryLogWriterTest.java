@@ -0,0 +1,172 @@
+package com.fitnessapp.backend.retrieval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ImageQueryLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetrievalProperties properties = new RetrievalProperties();
+    private ImageQueryLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void fullBatchIsFlushedWithoutWaitingForTheInterval() {
+        settings().setBatchSize(3);
+        settings().setFlushInterval(Duration.ofHours(1));
+        writer = startedWriter();
+
+        for (int i = 0; i < 3; i++) {
+            writer.submit("workout", null);
+        }
+
+        assertThat(capturedBatches(1).get(0).getBatchSize()).isEqualTo(3);
+    }
+
+    @Test
+    void partialBatchIsFlushedOnTheInterval() {
+        settings().setFlushInterval(Duration.ofMillis(20));
+        writer = startedWriter();
+
+        writer.submit("recipe", null);
+
+        assertThat(capturedBatches(1).get(0).getBatchSize()).isEqualTo(1);
+    }
+
+    @Test
+    void dropNewestRejectsRowsThatDoNotFit() {
+        settings().setQueueCapacity(16);
+        writer = writer();
+
+        for (int i = 0; i < 16; i++) {
+            assertThat(writer.submit("workout", null)).isTrue();
+        }
+
+        assertThat(writer.submit("workout", null)).isFalse();
+        assertThat(dropped("drop_newest")).isEqualTo(1.0);
+    }
+
+    @Test
+    void dropOldestEvictsTheHeadOfTheQueue() throws Exception {
+        settings().setQueueCapacity(16);
+        settings().setOverflowPolicy(RetrievalProperties.OverflowPolicy.DROP_OLDEST);
+        writer = writer();
+
+        for (int i = 0; i <= 16; i++) {
+            assertThat(writer.submit("q" + i, null)).isTrue();
+        }
+        writer.flushBatch();
+
+        assertThat(dropped("drop_oldest")).isEqualTo(1.0);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        capturedBatches(1).get(0).setValues(statement, 0);
+        verify(statement).setString(1, "q1");
+    }
+
+    @Test
+    void waitBrieflyGivesUpAfterTheEnqueueTimeout() {
+        settings().setQueueCapacity(16);
+        settings().setOverflowPolicy(RetrievalProperties.OverflowPolicy.WAIT_BRIEFLY);
+        settings().setEnqueueTimeout(Duration.ofMillis(5));
+        writer = writer();
+
+        for (int i = 0; i < 16; i++) {
+            writer.submit("workout", null);
+        }
+
+        long start = System.nanoTime();
+        assertThat(writer.submit("workout", null)).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(4));
+        assertThat(dropped("drop_newest")).isEqualTo(1.0);
+    }
+
+    @Test
+    void stopDrainsBufferedRows() {
+        settings().setFlushInterval(Duration.ofHours(1));
+        writer = startedWriter();
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit("workout", null);
+        }
+        writer.stop();
+
+        assertThat(writer.isRunning()).isFalse();
+        assertThat(capturedBatches(1).get(0).getBatchSize()).isEqualTo(5);
+        assertThat(meterRegistry.get("retrieval.query.log.written").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void stopDiscardsWhatCannotBeDrainedWithinTheShutdownTimeout() {
+        settings().setBatchSize(1);
+        settings().setFlushInterval(Duration.ofHours(1));
+        settings().setShutdownTimeout(Duration.ofMillis(50));
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            Thread.sleep(30);
+            return new int[] {1};
+        });
+        writer = writer();
+        for (int i = 0; i < 20; i++) {
+            writer.submit("workout", null);
+        }
+        writer.start();
+
+        writer.stop();
+
+        assertThat(meterRegistry.get("retrieval.query.log.written").counter().count()).isLessThan(20.0);
+        assertThat(meterRegistry.get("retrieval.query.log.queue.depth").gauge().value()).isZero();
+    }
+
+    private RetrievalProperties.QueryLog settings() {
+        return properties.getQueryLog();
+    }
+
+    private ImageQueryLogWriter writer() {
+        return new ImageQueryLogWriter(jdbcTemplate, new ObjectMapper(), properties, meterRegistry);
+    }
+
+    private ImageQueryLogWriter startedWriter() {
+        ImageQueryLogWriter started = writer();
+        started.start();
+        return started;
+    }
+
+    private List<BatchPreparedStatementSetter> capturedBatches(int times) {
+        ArgumentCaptor<BatchPreparedStatementSetter> batches = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, timeout(5_000).times(times)).batchUpdate(anyString(), batches.capture());
+        return batches.getAllValues();
+    }
+
+    private double dropped(String policy) {
+        return meterRegistry.get("retrieval.query.log.dropped").tag("policy", policy).counter().count();
+    }
+}
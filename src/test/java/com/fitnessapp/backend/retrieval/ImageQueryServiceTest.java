@@ -0,0 +1,69 @@
+package com.fitnessapp.backend.retrieval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.repository.ImageQueryRepository;
+import com.fitnessapp.backend.retrieval.detect.DetectorPipeline;
+import com.fitnessapp.backend.retrieval.detect.HintDetector;
+import com.fitnessapp.backend.retrieval.dto.ImageRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ImageQueryServiceTest {
+
+    @Mock
+    private ImageQueryRepository imageQueryRepository;
+
+    @Mock
+    private ImageQueryLogWriter queryLogWriter;
+
+    private RetrievalExecutors executors;
+    private ImageQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        executors = new RetrievalExecutors();
+        RetrievalProperties properties = new RetrievalProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DetectorPipeline pipeline = new DetectorPipeline(List.of(new HintDetector()), executors, properties, meterRegistry);
+        service = new ImageQueryService(imageQueryRepository, queryLogWriter, new ObjectMapper(), pipeline,
+                new DetectionResultCache(properties, meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.close();
+    }
+
+    @Test
+    void conflictingHintsResolveInTheOrderGiven() {
+        assertThat(service.detectWorkoutContext(hints("kettlebell", "dumbbells")).getEquipment()).isEqualTo("kettlebell");
+        // same hint set in the other order must not be served from the first request's cache entry
+        assertThat(service.detectWorkoutContext(hints("dumbbells", "kettlebell")).getEquipment()).isEqualTo("dumbbells");
+    }
+
+    @Test
+    void hintSignatureIgnoresCaseAndRepeatsButNotOrder() {
+        assertThat(service.hintSignature(hints("Mat", "mat ", "30 min"))).isEqualTo(service.hintSignature(hints("mat", "30 min")));
+        assertThat(service.hintSignature(hints("mat", "30 min"))).isNotEqualTo(service.hintSignature(hints("30 min", "mat")));
+    }
+
+    @Test
+    void hintSignatureDoesNotCollideOnSeparators() {
+        assertThat(service.hintSignature(hints("mat|30 min"))).isNotEqualTo(service.hintSignature(hints("mat", "30 min")));
+        assertThat(service.hintSignature(hints("1:a"))).isNotEqualTo(service.hintSignature(hints("1", "a")));
+    }
+
+    private static ImageRequest hints(String... hints) {
+        return ImageRequest.builder().userHints(List.of(hints)).build();
+    }
+}
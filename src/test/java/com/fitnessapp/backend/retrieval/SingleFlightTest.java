@@ -0,0 +1,167 @@
+package com.fitnessapp.backend.retrieval;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        loaders.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>("workout", loaders, true, Duration.ofSeconds(5), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flights.execute("dumbbells", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+            waitUntil(() -> flights.inFlight() == 1);
+            for (int i = 0; i < 9; i++) {
+                results.add(executor.submit(() -> flights.execute("dumbbells", () -> {
+                    loads.incrementAndGet();
+                    return -1;
+                })));
+            }
+            waitUntil(() -> joined() == 9);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void leaderFailureReachesEveryWaiter() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>("recipe", loaders, true, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> flights.execute("chicken", () -> {
+                await(release);
+                throw new IllegalStateException("database down");
+            }));
+            waitUntil(() -> flights.inFlight() == 1);
+            Future<Integer> follower = executor.submit(() -> flights.execute("chicken", () -> 1));
+            waitUntil(() -> joined() == 1);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("database down");
+        }
+
+        // the failed flight is gone, so the next caller retries
+        assertThat(flights.execute("chicken", () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void cancellingTheLeaderDoesNotFailItsFollowers() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>("workout", loaders, true, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean loaderInterrupted = new AtomicBoolean();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> flights.execute("kettlebell", () -> {
+                await(release);
+                loaderInterrupted.set(Thread.currentThread().isInterrupted());
+                return 42;
+            }));
+            waitUntil(() -> flights.inFlight() == 1);
+            Future<Integer> follower = executor.submit(() -> flights.execute("kettlebell", () -> -1));
+            waitUntil(() -> joined() == 1);
+
+            // what a combined branch does when it misses its deadline
+            leader.cancel(true);
+            release.countDown();
+
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+
+        assertThat(loaderInterrupted).isFalse();
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void waitersGiveUpAfterMaxWait() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>("workout", loaders, true, Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> flights.execute("mat", () -> {
+                await(release);
+                return 1;
+            }));
+            waitUntil(() -> flights.inFlight() == 1);
+
+            assertThatThrownBy(() -> flights.execute("mat", () -> 2)).isInstanceOf(ResponseStatusException.class);
+            assertThat(meterRegistry.counter("retrieval.coalesced", "catalog", "workout", "outcome", "timed_out").count())
+                    .isEqualTo(1.0);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void disabledFlightsAlwaysRunTheLoader() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>("workout", loaders, false, Duration.ofSeconds(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        flights.execute("mat", loads::incrementAndGet);
+        flights.execute("mat", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private double joined() {
+        return meterRegistry.find("retrieval.coalesced").tag("outcome", "joined").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
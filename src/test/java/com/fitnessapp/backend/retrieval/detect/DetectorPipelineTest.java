@@ -0,0 +1,150 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.RetrievalExecutors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DetectorPipelineTest {
+
+    private RetrievalExecutors executors;
+    private RetrievalProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executors = new RetrievalExecutors();
+        properties = new RetrievalProperties();
+        properties.getDetection().setDeadline(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.close();
+    }
+
+    @Test
+    void mergesSingleValuedAttributesByConfidence() {
+        DetectorPipeline pipeline = pipeline(
+                stub("weak", Detection.of(DetectedAttribute.EQUIPMENT, "mat", 0.3)),
+                stub("strong", Detection.of(DetectedAttribute.EQUIPMENT, "kettlebell", 0.9),
+                        Detection.of(DetectedAttribute.LEVEL, "advanced", 0.9)));
+
+        DetectionSignals signals = pipeline.detect(workoutInput());
+
+        assertThat(signals.best(DetectedAttribute.EQUIPMENT)).contains("kettlebell");
+        assertThat(signals.best(DetectedAttribute.LEVEL)).contains("advanced");
+        assertThat(signals.getDetections()).hasSize(3);
+    }
+
+    @Test
+    void multiValuedAttributesKeepValuesCloseToTheStrongest() {
+        DetectorPipeline pipeline = pipeline(stub("ingredients",
+                Detection.of(DetectedAttribute.INGREDIENT, "chicken", 0.9),
+                Detection.of(DetectedAttribute.INGREDIENT, "rice", 0.6),
+                Detection.of(DetectedAttribute.INGREDIENT, "salmon", 0.2)));
+
+        DetectionSignals signals = pipeline.detect(DetectionInput.builder().target(DetectionTarget.RECIPE).build());
+
+        assertThat(signals.values(DetectedAttribute.INGREDIENT)).containsExactly("chicken", "rice");
+    }
+
+    @Test
+    void cancelsDetectorsThatMissTheDeadline() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ContextDetector slow = new StubDetector("slow", List.of()) {
+            @Override
+            public List<Detection> detect(DetectionInput input) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ex) {
+                    interrupted.countDown();
+                }
+                return List.of(Detection.of(DetectedAttribute.EQUIPMENT, "barbell", 1.0));
+            }
+        };
+        DetectorPipeline pipeline = pipeline(stub("fast", Detection.of(DetectedAttribute.EQUIPMENT, "mat", 0.5)), slow);
+
+        long start = System.nanoTime();
+        DetectionSignals signals = pipeline.detect(workoutInput());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(signals.best(DetectedAttribute.EQUIPMENT)).contains("mat");
+        assertThat(signals.getSkippedDetectors()).containsExactly("slow");
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failingDetectorsAndLowConfidenceGuessesAreIgnored() {
+        ContextDetector failing = new StubDetector("failing", List.of()) {
+            @Override
+            public List<Detection> detect(DetectionInput input) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        DetectorPipeline pipeline = pipeline(failing, stub("noise", Detection.of(DetectedAttribute.EQUIPMENT, "mat", 0.05)));
+
+        DetectionSignals signals = pipeline.detect(workoutInput());
+
+        assertThat(signals.best(DetectedAttribute.EQUIPMENT)).isEmpty();
+        assertThat(signals.getSkippedDetectors()).containsExactly("failing");
+        assertThat(meterRegistry.counter("retrieval.detector.outcome", "detector", "failing", "outcome", "error").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void hintDetectorPrefersExactAliases() {
+        DetectorPipeline pipeline = pipeline(new HintDetector());
+
+        DetectionSignals signals = pipeline.detect(DetectionInput.builder()
+                .target(DetectionTarget.WORKOUT)
+                .hints(List.of("heavy kettlebell swings", "dumbbells", "advanced", "45 min"))
+                .build());
+
+        assertThat(signals.best(DetectedAttribute.EQUIPMENT)).contains("dumbbells");
+        assertThat(signals.best(DetectedAttribute.LEVEL)).contains("advanced");
+        assertThat(signals.best(DetectedAttribute.DURATION_MINUTES)).contains("45");
+    }
+
+    private DetectorPipeline pipeline(ContextDetector... detectors) {
+        return new DetectorPipeline(List.of(detectors), executors, properties, meterRegistry);
+    }
+
+    private static DetectionInput workoutInput() {
+        return DetectionInput.builder().target(DetectionTarget.WORKOUT).build();
+    }
+
+    private static ContextDetector stub(String name, Detection... detections) {
+        return new StubDetector(name, List.of(detections));
+    }
+
+    private static class StubDetector implements ContextDetector {
+
+        private final String name;
+        private final List<Detection> detections;
+
+        StubDetector(String name, List<Detection> detections) {
+            this.name = name;
+            this.detections = detections;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public List<Detection> detect(DetectionInput input) {
+            return detections;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.fitnessapp.backend.retrieval.detect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import com.fitnessapp.backend.retrieval.image.ImageUploadIngestor;
+import com.fitnessapp.backend.retrieval.image.IngestedImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class ImageHeaderDetectorTest {
+
+    private final ImageUploadIngestor ingestor = new ImageUploadIngestor(new RetrievalProperties(), new SimpleMeterRegistry());
+    private final ImageHeaderDetector detector = new ImageHeaderDetector();
+
+    @Test
+    void reportsOrientationAndDimensionsOfAPlainJpeg() throws IOException {
+        List<Detection> detections = detect(jpeg(40, 20));
+
+        assertThat(detections).extracting(Detection::getAttribute, Detection::getValue).containsExactly(
+                tuple(DetectedAttribute.ORIENTATION, "landscape"),
+                tuple(DetectedAttribute.DIMENSIONS, "40x20"));
+    }
+
+    @Test
+    void appliesExifRotationAndReportsTheCameraMake() throws IOException {
+        List<Detection> detections = detect(withExif(jpeg(40, 20), "Canon", 6));
+
+        assertThat(detections).extracting(Detection::getAttribute, Detection::getValue).containsExactly(
+                tuple(DetectedAttribute.ORIENTATION, "portrait"),
+                tuple(DetectedAttribute.DIMENSIONS, "20x40"),
+                tuple(DetectedAttribute.CAMERA_MAKE, "canon"));
+    }
+
+    @Test
+    void neverGuessesContext() throws IOException {
+        assertThat(detect(withExif(jpeg(20, 40), "Apple", 1)))
+                .extracting(Detection::getAttribute)
+                .doesNotContain(DetectedAttribute.EQUIPMENT, DetectedAttribute.LEVEL, DetectedAttribute.INGREDIENT);
+    }
+
+    private List<Detection> detect(byte[] body) throws IOException {
+        try (IngestedImage image = ingestor.ingest(new ByteArrayInputStream(body), body.length)) {
+            return detector.detect(DetectionInput.builder().target(DetectionTarget.WORKOUT).image(image).build());
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts a big-endian EXIF APP1 segment with IFD0 {@code Make} and {@code Orientation} right after SOI.
+     */
+    private static byte[] withExif(byte[] jpeg, String make, int orientation) {
+        byte[] makeBytes = (make + '\0').getBytes(StandardCharsets.US_ASCII);
+        int makeOffset = 8 + 2 + 2 * 12 + 4;
+        ByteBuffer tiff = ByteBuffer.allocate(makeOffset + makeBytes.length);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 2);
+        tiff.putShort((short) 0x010F).putShort((short) 2).putInt(makeBytes.length).putInt(makeOffset);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        tiff.put(makeBytes);
+
+        byte[] payload = tiff.array();
+        int segmentLength = 2 + 6 + payload.length;
+        ByteBuffer result = ByteBuffer.allocate(jpeg.length + 2 + segmentLength);
+        result.put(jpeg, 0, 2);
+        result.put((byte) 0xFF).put((byte) 0xE1).putShort((short) segmentLength);
+        result.put("Exif".getBytes(StandardCharsets.US_ASCII)).put((byte) 0).put((byte) 0);
+        result.put(payload);
+        result.put(jpeg, 2, jpeg.length - 2);
+        return result.array();
+    }
+}
@@ -0,0 +1,115 @@
+package com.fitnessapp.backend.retrieval.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Payload size of a typical combined response in JSON, Smile and CBOR, and round trips through the binary
+ * encodings.
+ */
+class ResponseEncodingTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper smile = new ObjectMapper(SmileFactory.builder()
+            .configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true)
+            .build());
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper cborStringRefs = new ObjectMapper(CBORFactory.builder()
+            .configure(CBORGenerator.Feature.STRINGREF, true)
+            .build());
+
+    @Test
+    void binaryEncodingsAreSmallerThanJson() throws Exception {
+        ContentResponse response = sampleResponse();
+
+        int jsonSize = json.writeValueAsBytes(response).length;
+        int smileSize = smile.writeValueAsBytes(response).length;
+        int cborSize = cbor.writeValueAsBytes(response).length;
+        int cborRefSize = cborStringRefs.writeValueAsBytes(response).length;
+
+        assertThat(smileSize).isLessThan(jsonSize);
+        assertThat(cborSize).isLessThan(jsonSize);
+        assertThat(cborRefSize).isLessThan(cborSize);
+        assertThat(smileSize).isLessThan(jsonSize * 9 / 10);
+    }
+
+    @Test
+    void binaryEncodingsRoundTrip() throws Exception {
+        ContentResponse response = sampleResponse();
+
+        assertThat(smile.readValue(smile.writeValueAsBytes(response), ContentResponse.class)).isEqualTo(response);
+        assertThat(cbor.readValue(cbor.writeValueAsBytes(response), ContentResponse.class)).isEqualTo(response);
+        assertThat(cborStringRefs.readValue(cborStringRefs.writeValueAsBytes(response), ContentResponse.class))
+                .isEqualTo(response);
+    }
+
+    private static ContentResponse sampleResponse() {
+        List<WorkoutCard> workouts = new ArrayList<>();
+        String[][] bodyParts = {{"chest", "arms"}, {"legs", "glutes"}, {"core"}, {"back", "shoulders"}};
+        for (int i = 0; i < bodyParts.length; i++) {
+            workouts.add(WorkoutCard.builder()
+                    .youtubeId("dQw4w9WgXc" + i)
+                    .title("20 Minute Dumbbell Workout " + (i + 1))
+                    .durationMinutes(20)
+                    .level("beginner")
+                    .equipment(List.of("dumbbells"))
+                    .bodyParts(List.of(bodyParts[i]))
+                    .thumbnailUrl("https://i.ytimg.com/vi/dQw4w9WgXc" + i + "/hqdefault.jpg")
+                    .viewCount(125_000L + i)
+                    .youtubeUrl("https://www.youtube.com/watch?v=dQw4w9WgXc" + i)
+                    .build());
+        }
+
+        List<RecipeCard> recipes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<RecipeStep> steps = new ArrayList<>();
+            for (int step = 1; step <= 6; step++) {
+                steps.add(RecipeStep.builder()
+                        .step(step)
+                        .instruction("Season the chicken with salt and pepper, then cook over medium heat for "
+                                + (step + 2) + " minutes, turning once.")
+                        .build());
+            }
+            Map<String, Object> nutrition = new LinkedHashMap<>();
+            nutrition.put("calories", 420 + i);
+            nutrition.put("protein", 38);
+            nutrition.put("primaryIngredient", "chicken");
+            recipes.add(RecipeCard.builder()
+                    .id("7f1c0d2e-0000-4000-8000-00000000000" + i)
+                    .title("Quick Chicken Bowl " + (i + 1))
+                    .timeMinutes(25)
+                    .difficulty("easy")
+                    .imageUrl("https://img.example.com/recipes/chicken-bowl-" + i + ".jpg")
+                    .steps(steps)
+                    .nutrition(nutrition)
+                    .build());
+        }
+
+        return ContentResponse.builder()
+                .workouts(WorkoutResponse.builder()
+                        .workouts(workouts)
+                        .detectedEquipment("dumbbells")
+                        .detectedLevel("beginner")
+                        .targetDurationMinutes(20)
+                        .latencyMs(42)
+                        .build())
+                .recipes(RecipeResponse.builder()
+                        .recipes(recipes)
+                        .detectedIngredients(List.of("chicken", "rice"))
+                        .maxTimeMinutes(30)
+                        .latencyMs(42)
+                        .build())
+                .latencyMs(57)
+                .build();
+    }
+}
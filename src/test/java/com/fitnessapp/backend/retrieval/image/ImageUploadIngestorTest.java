@@ -0,0 +1,89 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+class ImageUploadIngestorTest {
+
+    private ImageUploadIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        RetrievalProperties properties = new RetrievalProperties();
+        properties.getUpload().setMaxSize(DataSize.ofKilobytes(64));
+        properties.getUpload().setMemoryThreshold(DataSize.ofKilobytes(8));
+        properties.getUpload().setHeaderSize(DataSize.ofKilobytes(4));
+        ingestor = new ImageUploadIngestor(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void smallUploadStaysInMemoryAndSniffsHeader() throws Exception {
+        byte[] png = png(40, 30);
+
+        try (IngestedImage image = ingestor.ingest(new ByteArrayInputStream(png), png.length)) {
+            assertThat(image.isSpilled()).isFalse();
+            assertThat(image.getSizeBytes()).isEqualTo(png.length);
+            assertThat(image.getHeader()).isEqualTo(new ImageHeader(ImageFormat.PNG, 40, 30));
+            assertThat(image.getSha256Hex()).isEqualTo(sha256Hex(png));
+            try (InputStream content = image.openStream()) {
+                assertThat(content.readAllBytes()).isEqualTo(png);
+            }
+        }
+    }
+
+    @Test
+    void largeUploadSpillsToTempFileWithIdenticalContent() throws Exception {
+        byte[] body = new byte[40 * 1024];
+        new Random(7).nextBytes(body);
+
+        IngestedImage image = ingestor.ingest(new ByteArrayInputStream(body), -1);
+        try (image) {
+            assertThat(image.isSpilled()).isTrue();
+            assertThat(image.getHeaderBytes()).hasSize(4 * 1024);
+            assertThat(image.getSha256Hex()).isEqualTo(sha256Hex(body));
+            try (InputStream content = image.openStream()) {
+                assertThat(content.readAllBytes()).isEqualTo(body);
+            }
+        }
+        assertThatThrownBy(image::openStream).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void rejectsOversizedUploadsFromDeclaredOrActualLength() {
+        byte[] body = new byte[65 * 1024];
+
+        assertThatThrownBy(() -> ingestor.ingest(new ByteArrayInputStream(new byte[0]), body.length))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        assertThatThrownBy(() -> ingestor.ingest(new ByteArrayInputStream(body), -1))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static String sha256Hex(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
@@ -0,0 +1,92 @@
+package com.fitnessapp.backend.retrieval.image;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fitnessapp.backend.config.RetrievalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class PhotoDedupeCacheTest {
+
+    private final RetrievalProperties properties = new RetrievalProperties();
+    private final ImageUploadIngestor ingestor = new ImageUploadIngestor(properties, new SimpleMeterRegistry());
+    private final PhotoDedupeService dedupe = new PhotoDedupeService(properties, new SimpleMeterRegistry());
+
+    @Test
+    void nearDuplicatePhotosHashCloseTogether() throws IOException {
+        long original = hash(bandedImage(1, 0));
+        long brighter = hash(bandedImage(1, 6));
+        long different = hash(bandedImage(2, 0));
+
+        assertThat(PerceptualHash.distance(original, brighter)).isLessThanOrEqualTo(5);
+        assertThat(PerceptualHash.distance(original, different)).isGreaterThan(5);
+    }
+
+    @Test
+    void undecodableUploadFallsBackToTheContentDigest() throws IOException {
+        byte[] body = "not an image".getBytes();
+
+        try (IngestedImage image = ingestor.ingest(new ByteArrayInputStream(body), body.length)) {
+            assertThat(dedupe.fingerprint(image)).hasValue(image.contentDigest());
+        }
+    }
+
+    @Test
+    void findMatchesWithinDistanceAndSameContextOnly() {
+        PhotoDedupeCache<String> cache = new PhotoDedupeCache<>(16, 5, Duration.ofMinutes(1));
+        long hash = 0x0F0F_F0F0_1234_5678L;
+        cache.put(hash, "dumbbells|20 min", "cached");
+
+        assertThat(cache.find(hash ^ 0b1011L, "dumbbells|20 min")).contains("cached");
+        assertThat(cache.find(hash ^ 0b1011L, "mat")).isEmpty();
+        assertThat(cache.find(~hash, "dumbbells|20 min")).isEmpty();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        PhotoDedupeCache<String> cache = new PhotoDedupeCache<>(2, 0, Duration.ofMinutes(1));
+        cache.put(1L, "", "first");
+        cache.put(2L, "", "second");
+        assertThat(cache.find(1L, "")).contains("first");
+
+        cache.put(3L, "", "third");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.find(1L, "")).contains("first");
+        assertThat(cache.find(2L, "")).isEmpty();
+    }
+
+    private long hash(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        byte[] jpeg = out.toByteArray();
+        try (IngestedImage ingested = ingestor.ingest(new ByteArrayInputStream(jpeg), jpeg.length)) {
+            return dedupe.fingerprint(ingested).orElseThrow();
+        }
+    }
+
+    private static BufferedImage bandedImage(int seed, int brightness) {
+        int width = 640;
+        int height = 480;
+        Random random = new Random(seed);
+        int[] bands = new int[12];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = random.nextInt(200);
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = Math.min(255, bands[(x * bands.length / width)] / 2 + y * 100 / height + brightness);
+                image.setRGB(x, y, (value << 16) | (value << 8) | value);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,102 @@
+package com.fitnessapp.backend.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fitnessapp.backend.config.ConcurrencyLimitProperties;
+import com.fitnessapp.backend.web.AdaptiveConcurrencyLimiter.Priority;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void backgroundRequestsAreShedBeforeInteractiveOnes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20));
+
+        int background = 0;
+        while (limiter.tryAcquire(Priority.BACKGROUND)) {
+            background++;
+        }
+        int interactive = 0;
+        while (limiter.tryAcquire(Priority.INTERACTIVE)) {
+            interactive++;
+        }
+
+        assertThat(background).isEqualTo(5);
+        assertThat(background + interactive).isEqualTo(20);
+        assertThat(limiter.tryAcquire(Priority.BACKGROUND)).isFalse();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesUnderLoad() {
+        ConcurrencyLimitProperties properties = properties(100);
+        properties.setMaxLimit(100);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        saturate(limiter, FAST, 5);
+        assertThat(limiter.limit()).isEqualTo(100);
+
+        saturate(limiter, SLOW, 1);
+
+        assertThat(limiter.limit()).isLessThan(75);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20));
+
+        saturate(limiter, FAST, 50);
+
+        assertThat(limiter.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void failuresBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(100));
+
+        assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isTrue();
+        limiter.release(Priority.INTERACTIVE, FAST, true);
+
+        assertThat(limiter.limit()).isEqualTo(90);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void slowBackgroundCallsDoNotMoveTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20));
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(limiter.tryAcquire(Priority.BACKGROUND)).isTrue();
+            limiter.release(Priority.BACKGROUND, TimeUnit.MINUTES.toNanos(2), false);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    /**
+     * Fills the current limit with interactive requests, then completes each with {@code rttNanos}, so every
+     * sample is taken at full load.
+     */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire(Priority.INTERACTIVE)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(Priority.INTERACTIVE, rttNanos, false);
+            }
+        }
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(1_000);
+        properties.setBackgroundShare(0.25);
+        return properties;
+    }
+}
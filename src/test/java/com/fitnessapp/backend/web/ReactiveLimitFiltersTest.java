@@ -0,0 +1,113 @@
+package com.fitnessapp.backend.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fitnessapp.backend.config.ConcurrencyLimitProperties;
+import com.fitnessapp.backend.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+class ReactiveLimitFiltersTest {
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private final HandlerFunction<ServerResponse> handler = request -> {
+        handled.incrementAndGet();
+        return ServerResponse.ok().build();
+    };
+
+    @Test
+    void requestsBeyondTheConcurrencyLimitAreShedBeforeTheHandler() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(4);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HandlerFilterFunction<ServerResponse, ServerResponse> filter =
+                ReactiveLimitFilters.concurrencyLimit(limiter, meterRegistry);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.INTERACTIVE);
+        }
+
+        ServerResponse shed = filter.filter(request("198.51.100.1"), handler).block();
+        limiter.release(AdaptiveConcurrencyLimiter.Priority.INTERACTIVE, 1_000_000L, false);
+        ServerResponse admitted = filter.filter(request("198.51.100.1"), handler).block();
+
+        assertThat(shed.statusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(shed.headers().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(admitted.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(handled).hasValue(1);
+        assertThat(limiter.inFlight()).isEqualTo(3);
+        assertThat(meterRegistry.counter("http.server.shed", "priority", "interactive").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void emptyBucketIsRejectedWithRateLimitHeaders() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Tier tier = new RateLimitProperties.Tier();
+        tier.setCapacity(1);
+        tier.setRefillPerSecond(0.01);
+        properties.getTiers().put(properties.getAnonymousTier(), tier);
+        ClientRateLimiter rateLimiter =
+                new ClientRateLimiter(properties, mock(StringRedisTemplate.class), new SimpleMeterRegistry());
+        HandlerFilterFunction<ServerResponse, ServerResponse> filter = ReactiveLimitFilters.rateLimit(rateLimiter, true);
+
+        ServerResponse first = filter.filter(request("198.51.100.1"), handler).block();
+        MockServerWebExchange exchange = exchange();
+        ServerResponse second = filter.filter(request("198.51.100.1", exchange), handler).block();
+        ServerResponse otherClient = filter.filter(request("198.51.100.2"), handler).block();
+
+        assertThat(first.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(second.headers().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(exchange.getResponse().getHeaders().getFirst(RateLimitFilter.LIMIT_HEADER)).isEqualTo("1");
+        assertThat(exchange.getResponse().getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(otherClient.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(handled).hasValue(2);
+    }
+
+    @Test
+    void forwardedForIsOnlyTrustedFromInternalProxies() {
+        String forwarded = "192.0.2.1, 203.0.113.7, 10.0.0.9";
+
+        assertThat(ReactiveLimitFilters.clientAddress(forwardedRequest("10.0.0.5", forwarded), true)).isEqualTo("203.0.113.7");
+        assertThat(ReactiveLimitFilters.clientAddress(forwardedRequest("198.51.100.1", forwarded), true)).isEqualTo("198.51.100.1");
+        assertThat(ReactiveLimitFilters.clientAddress(forwardedRequest("10.0.0.5", forwarded), false)).isEqualTo("10.0.0.5");
+        assertThat(ReactiveLimitFilters.clientAddress(request("10.0.0.5"), true)).isEqualTo("10.0.0.5");
+    }
+
+    private static ServerRequest request(String remoteAddress) {
+        return request(remoteAddress, exchange());
+    }
+
+    private static ServerRequest request(String remoteAddress, MockServerWebExchange exchange) {
+        return MockServerRequest.builder()
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40_000))
+                .exchange(exchange)
+                .build();
+    }
+
+    private static ServerRequest forwardedRequest(String remoteAddress, String forwardedFor) {
+        return MockServerRequest.builder()
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40_000))
+                .header("X-Forwarded-For", forwardedFor)
+                .exchange(exchange())
+                .build();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/workouts"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.fitnessapp.backend.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+
+    @Test
+    void admitsABurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(5, 1.0, START);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryConsume(START)).isTrue();
+        }
+
+        assertThat(bucket.tryConsume(START)).isFalse();
+        assertThat(bucket.remaining(START)).isZero();
+        assertThat(bucket.nanosUntilAvailable(START)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.nanosUntilFull(START)).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 10.0, START);
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isFalse();
+
+        long later = START + TimeUnit.MILLISECONDS.toNanos(100);
+
+        assertThat(bucket.remaining(later)).isEqualTo(1);
+        assertThat(bucket.tryConsume(later)).isTrue();
+        assertThat(bucket.tryConsume(later)).isFalse();
+    }
+
+    @Test
+    void countsAdmissionsUntilTheyAreSynced() {
+        TokenBucket bucket = new TokenBucket(10, 1.0, START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        assertThat(bucket.drainUnsynced()).isEqualTo(2);
+        assertThat(bucket.drainUnsynced()).isZero();
+    }
+
+    @Test
+    void sharedBacklogFromOtherInstancesUsesUpTheLocalBucket() {
+        TokenBucket bucket = new TokenBucket(10, 1.0, START);
+        assertThat(bucket.tryConsume(START)).isTrue();
+
+        // the other instances admitted nine more requests for this client
+        bucket.applyShared(START, TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(bucket.remaining(START)).isZero();
+        assertThat(bucket.tryConsume(START)).isFalse();
+
+        // an older, smaller backlog never rewinds the bucket
+        bucket.applyShared(START, TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.tryConsume(START)).isFalse();
+    }
+}
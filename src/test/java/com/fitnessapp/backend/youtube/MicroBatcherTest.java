@@ -0,0 +1,97 @@
+package com.fitnessapp.backend.youtube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaitingForTheWindow() throws Exception {
+        MicroBatcher<String, String> batcher = batcher(3, Duration.ofSeconds(30), this::upperCase);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String key : List.of("a", "b", "c")) {
+                results.add(executor.submit(() -> batcher.load(key)));
+            }
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("B");
+            assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("C");
+        }
+
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(meterRegistry.get("youtube.metadata.batch.size").summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    void loneCallerIsDispatchedAfterTheWindow() {
+        MicroBatcher<String, String> batcher = batcher(50, Duration.ofMillis(20), this::upperCase);
+
+        assertThat(batcher.load("a")).isEqualTo("A");
+
+        assertThat(calls).containsExactly(List.of("a"));
+        assertThat(meterRegistry.get("youtube.metadata.batch.wait").timer().max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(15.0);
+    }
+
+    @Test
+    void duplicateKeysShareOneSlotAndMissingKeysYieldNull() throws Exception {
+        MicroBatcher<String, String> batcher = batcher(50, Duration.ofMillis(200), keys -> {
+            calls.add(List.copyOf(keys));
+            return Map.of("a", "A");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> batcher.load("a"));
+            Future<String> second = executor.submit(() -> batcher.load("a"));
+            Future<String> missing = executor.submit(() -> batcher.load("zzz"));
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+            assertThat(missing.get(5, TimeUnit.SECONDS)).isNull();
+        }
+
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactlyInAnyOrder("a", "zzz");
+    }
+
+    @Test
+    void loaderFailureReachesEveryCaller() {
+        MicroBatcher<String, String> batcher = batcher(1, Duration.ofMillis(5), keys -> {
+            throw new IllegalStateException("quota exceeded");
+        });
+
+        assertThatThrownBy(() -> batcher.load("a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("quota exceeded");
+    }
+
+    private MicroBatcher<String, String> batcher(int maxSize, Duration maxWait, Function<List<String>, Map<String, String>> loader) {
+        return new MicroBatcher<>("youtube.metadata", maxSize, maxWait, loader, meterRegistry);
+    }
+
+    private Map<String, String> upperCase(List<String> keys) {
+        calls.add(List.copyOf(keys));
+        Map<String, String> values = new HashMap<>();
+        keys.forEach(key -> values.put(key, key.toUpperCase()));
+        return values;
+    }
+}
@@ -0,0 +1,84 @@
+package com.fitnessapp.backend.youtube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fitnessapp.backend.config.YouTubeProperties;
+import com.fitnessapp.backend.youtube.dto.VideoMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class VideoMetadataCacheTest {
+
+    @Mock
+    private RedisTemplate<String, VideoMetadata> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, VideoMetadata> valueOperations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VideoMetadata video = VideoMetadata.builder().youtubeId("abc123").title("Video").build();
+    private VideoMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache = new VideoMetadataCache(redisTemplate, stringRedisTemplate, new YouTubeProperties(), meterRegistry);
+    }
+
+    @Test
+    void secondLookupIsServedLocally() {
+        when(valueOperations.get("yt:video:abc123")).thenReturn(video);
+
+        assertThat(cache.get("abc123")).isSameAs(video);
+        assertThat(cache.get("abc123")).isSameAs(video);
+
+        verify(valueOperations, times(1)).get("yt:video:abc123");
+        assertThat(count("l1", "hit")).isEqualTo(1.0);
+        assertThat(count("l2", "hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceDropsTheLocalCopy() {
+        cache.putAll(List.of(video));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(VideoMetadataCache.INVALIDATION_CHANNEL), published.capture());
+
+        // our own broadcast is ignored
+        cache.onMessage(message(published.getValue()), null);
+        assertThat(cache.get("abc123")).isSameAs(video);
+
+        cache.onMessage(message("other-instance abc123,zzz"), null);
+        assertThat(cache.localSize()).isZero();
+        assertThat(cache.get("abc123")).isNull();
+        verify(valueOperations).get("yt:video:abc123");
+    }
+
+    private double count(String level, String result) {
+        return meterRegistry.get("youtube.metadata.cache").tag("level", level).tag("result", result).counter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(VideoMetadataCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
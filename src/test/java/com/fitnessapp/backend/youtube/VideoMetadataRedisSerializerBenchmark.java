@@ -0,0 +1,64 @@
+package com.fitnessapp.backend.youtube;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.youtube.VideoMetadataRedisSerializer.Format;
+import com.fitnessapp.backend.youtube.dto.VideoMetadata;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Redis value size and encode/decode throughput of the JSON and binary metadata formats. Reports only, so the
+ * numbers never fail a build; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class VideoMetadataRedisSerializerBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    // keeps the JIT from discarding the measured calls
+    private static volatile long blackhole;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodeAndDecodeThroughput() {
+        VideoMetadata longVideo = VideoMetadataRedisSerializerTest.sampleVideo(VideoMetadataRedisSerializerTest.longDescription());
+        VideoMetadata shortVideo = VideoMetadataRedisSerializerTest.sampleVideo("Full body session, no equipment.");
+        for (Format format : Format.values()) {
+            VideoMetadataRedisSerializer serializer = new VideoMetadataRedisSerializer(objectMapper, format, 256);
+            report(format, "long description", serializer, longVideo);
+            report(format, "short description", serializer, shortVideo);
+        }
+    }
+
+    private static void report(Format format, String sample, VideoMetadataRedisSerializer serializer, VideoMetadata value) {
+        byte[] encoded = serializer.serialize(value);
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += serializer.serialize(value).length;
+            sink += serializer.deserialize(encoded).getDurationSeconds();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.deserialize(encoded).getDurationSeconds();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        blackhole = sink;
+
+        System.out.printf("%-6s %-17s %5d bytes  encode %,10.0f ops/s  decode %,10.0f ops/s%n",
+                format, sample, encoded.length, opsPerSecond(encodeNanos), opsPerSecond(decodeNanos));
+    }
+
+    private static double opsPerSecond(long nanos) {
+        return ITERATIONS * 1_000_000_000D / Math.max(1L, nanos);
+    }
+}
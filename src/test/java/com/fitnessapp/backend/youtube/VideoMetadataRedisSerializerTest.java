@@ -0,0 +1,107 @@
+package com.fitnessapp.backend.youtube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.backend.youtube.VideoMetadataRedisSerializer.Format;
+import com.fitnessapp.backend.youtube.dto.VideoMetadata;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class VideoMetadataRedisSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final VideoMetadataRedisSerializer json = new VideoMetadataRedisSerializer(objectMapper, Format.JSON, 256);
+    private final VideoMetadataRedisSerializer binary = new VideoMetadataRedisSerializer(objectMapper, Format.BINARY, 256);
+
+    @Test
+    void binaryEncodingIsMuchSmallerThanJson() {
+        VideoMetadata video = sampleVideo(longDescription());
+        VideoMetadata shortVideo = sampleVideo("Full body session, no equipment.");
+
+        int jsonSize = json.serialize(video).length;
+        int binarySize = binary.serialize(video).length;
+
+        assertThat(binarySize).isLessThan(jsonSize / 2);
+        assertThat(binary.serialize(shortVideo).length).isLessThan(json.serialize(shortVideo).length * 3 / 4);
+    }
+
+    @Test
+    void binaryEncodingRoundTrips() {
+        VideoMetadata longVideo = sampleVideo(longDescription());
+        VideoMetadata sparse = VideoMetadata.builder()
+                .youtubeId("abc123def45")
+                .thumbnailUrl("https://cdn.example.com/custom.jpg")
+                .durationSeconds(-1)
+                .build();
+
+        assertThat(binary.serialize(longVideo)[1] & VideoMetadataRedisSerializer.FLAG_DEFLATED).isNotZero();
+        assertThat(binary.deserialize(binary.serialize(longVideo))).isEqualTo(longVideo);
+        assertThat(binary.deserialize(binary.serialize(sparse))).isEqualTo(sparse);
+    }
+
+    @Test
+    void entriesWrittenAsJsonStayReadable() {
+        VideoMetadata video = sampleVideo(longDescription());
+        byte[] legacy = "{\"youtubeId\":\"abc123def45\",\"title\":\"Old entry\",\"durationSeconds\":600,\"durationMinutes\":10,\"viewCount\":7}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(binary.deserialize(json.serialize(video))).isEqualTo(video);
+        assertThat(json.deserialize(binary.serialize(video))).isEqualTo(video);
+        assertThat(binary.deserialize(legacy).getTitle()).isEqualTo("Old entry");
+        assertThat(binary.deserialize(legacy).getFetchedAtMillis()).isNull();
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        assertThatThrownBy(() -> binary.deserialize(new byte[] {0x7F, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void corruptCompressedDescriptionIsRejectedWithoutAllocating() {
+        byte flags = (byte) VideoMetadataRedisSerializer.FLAG_DEFLATED;
+        // id and title null, an inflated length of 1,000,000,000 claimed for a single compressed byte
+        byte[] hugeLength = {VideoMetadataRedisSerializer.VERSION_1, flags, 0, 0,
+                (byte) 0x80, (byte) 0x94, (byte) 0xEB, (byte) 0xDC, 0x03, 2, 0};
+        byte[] missingPayload = {VideoMetadataRedisSerializer.VERSION_1, flags, 0, 0, 5, 0};
+        byte[] wrappedHeader = {VideoMetadataRedisSerializer.VERSION_1, 0,
+                (byte) 0x81, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10};
+
+        assertThatThrownBy(() -> binary.deserialize(hugeLength)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> binary.deserialize(missingPayload)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> binary.deserialize(wrappedHeader)).isInstanceOf(SerializationException.class);
+    }
+
+    static VideoMetadata sampleVideo(String description) {
+        return VideoMetadata.builder()
+                .youtubeId("dQw4w9WgXcQ")
+                .title("30 Minute Full Body Dumbbell Workout | Strength & Conditioning")
+                .description(description)
+                .thumbnailUrl("https://i.ytimg.com/vi/dQw4w9WgXcQ/hqdefault.jpg")
+                .channelId("UCaBqRxHEMomgFU-AkSfodCw")
+                .channelTitle("Home Strength Coach")
+                .durationSeconds(1834)
+                .durationMinutes(31)
+                .viewCount(1_254_332L)
+                .fetchedAtMillis(1_760_000_000_000L)
+                .build();
+    }
+
+    static String longDescription() {
+        StringBuilder description = new StringBuilder("Grab a pair of dumbbells and follow along!\n\n");
+        String[] moves = {"Goblet squat", "Push-up", "Bent-over row", "Reverse lunge", "Shoulder press", "Plank"};
+        for (int round = 1; round <= 4; round++) {
+            for (String move : moves) {
+                description.append(String.format("%02d:%02d Round %d - %s (40s work / 20s rest)%n",
+                        round * 6 - 6 + move.length() % 6, round * 7 % 60, round, move));
+            }
+        }
+        description.append("\nSubscribe for new workouts every week: https://www.youtube.com/@homestrengthcoach\n")
+                .append("Equipment: dumbbells, mat. Level: beginner to intermediate.\n")
+                .append("#dumbbellworkout #fullbody #homeworkout");
+        return description.toString();
+    }
+}
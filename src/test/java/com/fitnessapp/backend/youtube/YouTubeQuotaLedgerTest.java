@@ -0,0 +1,105 @@
+package com.fitnessapp.backend.youtube;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fitnessapp.backend.config.YouTubeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class YouTubeQuotaLedgerTest {
+
+    // 06:00 UTC is still the previous day in California
+    private static final Instant NOW = Instant.parse("2026-10-18T06:00:00Z");
+    private static final String KEY = "yt:quota:2026-10-17";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private YouTubeProperties properties;
+    private YouTubeQuotaLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new YouTubeProperties();
+        lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        ledger = new YouTubeQuotaLedger(redisTemplate, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void dayFollowsPacificTime() {
+        assertThat(ledger.today()).isEqualTo(LocalDate.of(2026, 10, 17));
+    }
+
+    @Test
+    void chargesTheMethodCostToTheSharedDailyTotal() {
+        when(hashOperations.increment(KEY, YouTubeQuotaLedger.TOTAL_FIELD, 100L)).thenReturn(100L);
+
+        assertThat(ledger.tryAcquire(YouTubeApiMethod.SEARCH_LIST, QuotaPriority.BULK)).isTrue();
+
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        assertThat(meterRegistry.get("youtube.quota.units").tag("method", "search.list").counter().count())
+                .isEqualTo(100.0);
+        assertThat(meterRegistry.get("youtube.quota.used").gauge().value()).isEqualTo(100.0);
+    }
+
+    @Test
+    void interactiveCallsMayUseTheReserveBulkCallsMayNot() {
+        // 8,000 is the bulk ceiling with the default 20% interactive reserve
+        when(hashOperations.increment(KEY, YouTubeQuotaLedger.TOTAL_FIELD, 1L)).thenReturn(8_001L);
+
+        assertThat(ledger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, QuotaPriority.BULK)).isFalse();
+        verify(hashOperations).increment(KEY, YouTubeQuotaLedger.TOTAL_FIELD, -1L);
+        assertThat(meterRegistry.get("youtube.quota.rejected").tag("priority", "bulk").counter().count())
+                .isEqualTo(1.0);
+
+        assertThat(ledger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, QuotaPriority.INTERACTIVE)).isTrue();
+    }
+
+    @Test
+    void crossingTheAlertPercentIsCountedOnce() {
+        when(hashOperations.increment(KEY, YouTubeQuotaLedger.TOTAL_FIELD, 1L)).thenReturn(7_999L, 8_000L, 8_001L);
+
+        for (int i = 0; i < 3; i++) {
+            ledger.tryAcquire(YouTubeApiMethod.VIDEOS_LIST, QuotaPriority.INTERACTIVE);
+        }
+
+        assertThat(meterRegistry.get("youtube.quota.alerts").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void unreachableLedgerAdmitsTheCall() {
+        when(hashOperations.increment(KEY, YouTubeQuotaLedger.TOTAL_FIELD, 100L))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertThat(ledger.tryAcquire(YouTubeApiMethod.SEARCH_LIST, QuotaPriority.BULK)).isTrue();
+    }
+
+    @Test
+    void hasBudgetReadsTheTotalWithoutCharging() {
+        when(hashOperations.get(KEY, YouTubeQuotaLedger.TOTAL_FIELD)).thenReturn("7950");
+
+        assertThat(ledger.hasBudget(50, QuotaPriority.BULK)).isTrue();
+        assertThat(ledger.hasBudget(101, QuotaPriority.BULK)).isFalse();
+        assertThat(ledger.hasBudget(101, QuotaPriority.INTERACTIVE)).isTrue();
+    }
+}
@@ -2,8 +2,12 @@ package com.fitnessapp.backend.youtube;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -16,17 +20,26 @@ import com.google.api.services.youtube.model.VideoContentDetails;
 import com.google.api.services.youtube.model.VideoListResponse;
 import com.google.api.services.youtube.model.VideoSnippet;
 import com.google.api.services.youtube.model.VideoStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +60,19 @@ class YouTubeServiceTest {
     @Mock
     private ValueOperations<String, VideoMetadata> valueOperations;
 
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> stringValueOperations;
+
+    @Mock
+    private StringRedisTemplate quotaRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> quotaHashOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private YouTubeProperties properties;
     private YouTubeService service;
 
@@ -57,35 +83,67 @@ class YouTubeServiceTest {
         properties.setCacheTtl(Duration.ofHours(24));
 
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(stringValueOperations);
+        lenient().when(quotaRedisTemplate.<Object, Object>opsForHash()).thenReturn(quotaHashOperations);
         lenient().when(youtube.videos()).thenReturn(videos);
         lenient().when(videos.list(any())).thenReturn(videosList);
 
-        service = new YouTubeService(youtube, redisTemplate, properties);
+        VideoMetadataCache cache = new VideoMetadataCache(redisTemplate, stringRedisTemplate, properties, meterRegistry);
+        YouTubeQuotaLedger quotaLedger = new YouTubeQuotaLedger(quotaRedisTemplate, properties, meterRegistry);
+        service = new YouTubeService(youtube, cache, properties, quotaLedger, meterRegistry);
     }
 
     @Test
     void fetchVideoMetadataReturnsCachedValueWithoutApiCall() {
         VideoMetadata cached = VideoMetadata.builder()
-                .youtubeId("abc123")
+                .youtubeId("abc123def45")
                 .title("Cached Video")
                 .durationMinutes(15)
                 .viewCount(100L)
                 .build();
-        when(valueOperations.get("yt:video:abc123")).thenReturn(cached);
+        when(valueOperations.get("yt:video:abc123def45")).thenReturn(cached);
 
-        Optional<VideoMetadata> result = service.fetchVideoMetadata("abc123");
+        Optional<VideoMetadata> result = service.fetchVideoMetadata("abc123def45");
 
         assertThat(result).contains(cached);
-        verify(valueOperations).get("yt:video:abc123");
+        verify(valueOperations).get("yt:video:abc123def45");
         verifyNoInteractions(videos);
     }
 
+    @Test
+    void staleEntryIsServedWhileRefreshingInBackground() throws IOException {
+        VideoMetadata stale = VideoMetadata.builder()
+                .youtubeId("abc123def45")
+                .title("Old title")
+                .fetchedAtMillis(System.currentTimeMillis() - Duration.ofHours(21).toMillis())
+                .build();
+        when(valueOperations.get("yt:video:abc123def45")).thenReturn(stale);
+        when(videosList.setId(List.of("abc123def45"))).thenReturn(videosList);
+        when(videosList.setKey("test-key")).thenReturn(videosList);
+        when(videosList.execute()).thenReturn(response(List.of("abc123def45")));
+
+        assertThat(service.fetchVideoMetadata("abc123def45")).contains(stale);
+
+        verify(valueOperations, timeout(5_000)).set(eq("yt:video:abc123def45"), any(VideoMetadata.class), eq(properties.getCacheTtl()));
+    }
+
+    @Test
+    void refreshEarlyBecomesLikelierNearTheSoftTtl() {
+        long softTtl = Duration.ofHours(20).toMillis();
+
+        assertThat(YouTubeService.refreshEarly(softTtl - 60_000, softTtl, 200, 1.0, 0.5)).isFalse();
+        assertThat(YouTubeService.refreshEarly(softTtl - 100, softTtl, 200, 1.0, 0.5)).isTrue();
+        assertThat(YouTubeService.refreshEarly(softTtl - 100, softTtl, 200, 1.0, 1.0)).isFalse();
+        // a tiny random draw stands for the rare reader that refreshes well ahead of time
+        assertThat(YouTubeService.refreshEarly(softTtl - 1_000, softTtl, 200, 1.0, 0.001)).isTrue();
+    }
+
     @Test
     void fetchVideoMetadataCachesApiResponse() throws IOException {
-        when(valueOperations.get("yt:video:abc123")).thenReturn(null);
+        when(valueOperations.get("yt:video:abc123def45")).thenReturn(null);
 
         Video video = new Video();
-        video.setId("abc123");
+        video.setId("abc123def45");
         VideoSnippet snippet = new VideoSnippet();
         snippet.setTitle("API Video");
         snippet.setDescription("desc");
@@ -101,18 +159,114 @@ class YouTubeServiceTest {
         VideoListResponse response = new VideoListResponse();
         response.setItems(List.of(video));
 
-        when(videosList.setId(List.of("abc123"))).thenReturn(videosList);
+        when(videosList.setId(List.of("abc123def45"))).thenReturn(videosList);
         when(videosList.setKey("test-key")).thenReturn(videosList);
         when(videosList.execute()).thenReturn(response);
 
-        Optional<VideoMetadata> result = service.fetchVideoMetadata("https://www.youtube.com/watch?v=abc123&ab_channel=test");
+        Optional<VideoMetadata> result = service.fetchVideoMetadata("https://www.youtube.com/watch?v=abc123def45&ab_channel=test");
 
         assertThat(result).isPresent();
         VideoMetadata metadata = result.orElseThrow();
         assertThat(metadata.getDurationMinutes()).isEqualTo(21);
         assertThat(metadata.getViewCount()).isEqualTo(4250L);
 
-        verify(valueOperations).set(eq("yt:video:abc123"), eq(metadata), eq(properties.getCacheTtl()));
+        verify(valueOperations).set(eq("yt:video:abc123def45"), eq(metadata), eq(properties.getCacheTtl()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fetchVideoMetadataBatchRequestsOnlyMissesInChunks() throws IOException {
+        List<String> ids = IntStream.range(0, 61).mapToObj(i -> String.format("vid%08d", i)).toList();
+        VideoMetadata cached = VideoMetadata.builder().youtubeId(ids.get(0)).title("Cached").build();
+        List<VideoMetadata> cachedValues = new ArrayList<>(Collections.nCopies(ids.size(), null));
+        cachedValues.set(0, cached);
+        when(valueOperations.multiGet(ids.stream().map(id -> "yt:video:" + id).toList())).thenReturn(cachedValues);
+
+        when(videosList.setId(any())).thenReturn(videosList);
+        when(videosList.setKey("test-key")).thenReturn(videosList);
+        when(videosList.execute()).thenReturn(response(ids.subList(1, 51)), response(ids.subList(51, 61)));
+
+        Map<String, VideoMetadata> result = service.fetchVideoMetadata(ids);
+
+        assertThat(result).hasSize(61);
+        assertThat(result.keySet()).containsExactlyElementsOf(ids);
+        assertThat(result.get(ids.get(0))).isSameAs(cached);
+        ArgumentCaptor<List<String>> requested = ArgumentCaptor.forClass(List.class);
+        verify(videosList, times(2)).setId(requested.capture());
+        assertThat(requested.getAllValues()).containsExactly(ids.subList(1, 51), ids.subList(51, 61));
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void bulkLookupServesStaleEntriesWithoutSchedulingRefreshes() {
+        VideoMetadata stale = VideoMetadata.builder()
+                .youtubeId("abc123def45")
+                .title("Old title")
+                .fetchedAtMillis(System.currentTimeMillis() - Duration.ofHours(21).toMillis())
+                .build();
+        when(valueOperations.multiGet(List.of("yt:video:abc123def45"))).thenReturn(List.of(stale));
+
+        assertThat(service.fetchVideoMetadata(List.of("abc123def45"))).containsEntry("abc123def45", stale);
+
+        assertThat(meterRegistry.get("youtube.metadata.refresh").tag("trigger", "stale").counter().count()).isZero();
+        verifyNoInteractions(videos);
+    }
+
+    private static VideoListResponse response(List<String> ids) {
+        VideoListResponse response = new VideoListResponse();
+        response.setItems(ids.stream().map(id -> {
+            Video video = new Video();
+            video.setId(id);
+            return video;
+        }).toList());
+        return response;
+    }
+
+    @Test
+    void missingVideoIsRecordedAndNotRequestedAgain() throws IOException {
+        when(videosList.setId(List.of("deadvideo01"))).thenReturn(videosList);
+        when(videosList.setKey("test-key")).thenReturn(videosList);
+        when(videosList.execute()).thenReturn(new VideoListResponse());
+
+        assertThat(service.fetchVideoMetadata("deadvideo01")).isEmpty();
+        verify(stringRedisTemplate).executePipelined(any(SessionCallback.class));
+
+        when(stringValueOperations.multiGet(List.of("yt:video:missing:deadvideo01"))).thenReturn(List.of("NOT_FOUND"));
+        YouTubeService.Lookup lookup = service.lookupVideoMetadata(List.of("deadvideo01", "not a video id"));
+
+        assertThat(lookup.found()).isEmpty();
+        assertThat(lookup.missing()).containsEntry("deadvideo01", VideoMissReason.NOT_FOUND)
+                .containsEntry("not a video id", VideoMissReason.INVALID_ID);
+        verify(videosList, times(1)).execute();
+    }
+
+    @Test
+    void bulkLookupStopsWhenTheQuotaBudgetIsSpent() {
+        when(quotaHashOperations.increment(any(), eq(YouTubeQuotaLedger.TOTAL_FIELD), anyLong())).thenReturn(9_000L);
+
+        YouTubeService.Lookup lookup = service.lookupVideoMetadata(List.of("abc123def45"));
+
+        assertThat(lookup.found()).isEmpty();
+        assertThat(lookup.missing()).isEmpty();
+        verifyNoInteractions(videos);
+        verify(stringRedisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void malformedIdIsRejectedWithoutLookup() {
+        assertThat(service.fetchVideoMetadata("abc")).isEmpty();
+
+        verifyNoInteractions(valueOperations, stringValueOperations, videos);
+    }
+
+    @Test
+    void normalizeVideoIdMatchesTheBatchResultKeys() {
+        assertThat(YouTubeService.normalizeVideoId(" abc123def45 ")).isEqualTo("abc123def45");
+        assertThat(YouTubeService.normalizeVideoId("https://www.youtube.com/watch?v=abc123def45&t=10s"))
+                .isEqualTo("abc123def45");
+        assertThat(YouTubeService.normalizeVideoId("https://youtu.be/abc123def45?si=share")).isEqualTo("abc123def45");
+        assertThat(YouTubeService.normalizeVideoId(null)).isEmpty();
     }
 
     @Test